@@ -2,7 +2,9 @@
 set -e
 
 ES_URL="http://elastic:9200"
-INDEX="teachers"
+# Searches go through the alias; the app's rebuild endpoint creates later versions and swaps it.
+ALIAS="teachers"
+INDEX="teachers_v1"
 BULK_FILE="/data/teachers_bulk.json"
 
 echo "⏳ Waiting for Elasticsearch to be ready at $ES_URL ..."
@@ -11,12 +13,13 @@ until curl -s "$ES_URL" >/dev/null 2>&1; do
 done
 echo "✅ Elasticsearch is up."
 
-# Check if index already exists
-if curl -s -o /dev/null -w "%{http_code}" "$ES_URL/$INDEX" | grep -q "200"; then
-  echo "ℹ️ Index '$INDEX' already exists. Skipping data load."
+# Check if the alias (or a legacy index of that name) already exists
+if curl -s -o /dev/null -w "%{http_code}" "$ES_URL/$ALIAS" | grep -q "200"; then
+  echo "ℹ️ '$ALIAS' already exists. Skipping data load."
 else
   echo "📌 Creating index with mapping..."
   curl -s -X PUT "$ES_URL/$INDEX" -H 'Content-Type: application/json' -d '{
+   "aliases": { "teachers": {} },
    "mappings": {
      "properties": {
        "id":         { "type": "keyword" },
@@ -37,7 +40,7 @@ else
    }
   }'
 
-  echo "🚀 Loading bulk data into '$INDEX'..."
+  echo "🚀 Loading bulk data into '$INDEX' (alias '$ALIAS')..."
   curl -s -H "Content-Type: application/json" \
        -X POST "$ES_URL/_bulk" \
        --data-binary @"$BULK_FILE"
@@ -0,0 +1,191 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.config.SearchAsyncProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.service.AsyncSearchService;
+import com.example.dev.service.TutorSearch;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Overload model: {@value #CALLERS} callers offer {@code rate} searches/s in total, open-loop, to a backend that
+ * sustains {@code capacity} concurrent searches of {@code latencyMs} each. The default rate is 25% above what the
+ * backend can serve. {@code blocking} queues every caller like a saturated servlet pool does; {@code async} goes
+ * through {@link AsyncSearchService}, which sheds the excess with 503 at once.
+ * <p>
+ * Both variants see the same offered load, so the primary score only confirms it was offered. Compare the
+ * {@code served} and {@code shed} rates, and the served-latency percentiles printed after each iteration.
+ * Latency is counted from each request's scheduled start and only for requests that got an answer, so shedding
+ * never lowers the tail by adding instant failures.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 5)
+@Threads(AsyncSearchLoadBenchmark.CALLERS)
+@Fork(1)
+public class AsyncSearchLoadBenchmark {
+    static final int CALLERS = 256;
+
+    private static final SearchRequestParams PARAMS = SearchRequestParams.builder().subject("Physics").build();
+    private static final SearchResponse RESPONSE = new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1);
+
+    @Param({"64"})
+    public int capacity;
+
+    @Param({"10"})
+    public int latencyMs;
+
+    @Param({"8000"})
+    public int rate;
+
+    private ExecutorService executor;
+    private AsyncSearchService asyncSearchService;
+    private TutorSearch search;
+
+    // Served latencies of the current iteration, in nanoseconds.
+    private long[] latencies = new long[1 << 16];
+    private int recorded;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var backend = new Semaphore(capacity);
+        search = params -> {
+            backend.acquireUninterruptibly();
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                backend.release();
+            }
+            return RESPONSE;
+        };
+        executor = Executors.newFixedThreadPool(capacity);
+        asyncSearchService = new AsyncSearchService(search, null, executor,
+                new SearchAsyncProperties(capacity, capacity, false, Duration.ofSeconds(2)));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Setup(Level.Iteration)
+    public synchronized void startIteration() {
+        recorded = 0;
+    }
+
+    @TearDown(Level.Iteration)
+    public synchronized void reportIteration(BenchmarkParams params) {
+        var sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        System.out.printf("%n%s served latency: n=%d p50 %.2f ms p99 %.2f ms p999 %.2f ms%n",
+                params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1), sorted.length,
+                millis(sorted, 0.5), millis(sorted, 0.99), millis(sorted, 0.999));
+    }
+
+    /**
+     * One caller's schedule and outcomes; JMH sums the counters over callers.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Caller {
+        public long served;
+        public long shed;
+
+        long next;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            served = 0;
+            shed = 0;
+            next = 0;
+        }
+    }
+
+    @Benchmark
+    public void blocking(Caller caller) {
+        var scheduled = pace(caller);
+        search.search(PARAMS);
+        served(caller, scheduled);
+    }
+
+    @Benchmark
+    public void async(Caller caller) throws InterruptedException {
+        var scheduled = pace(caller);
+        try {
+            asyncSearchService.search(PARAMS).get();
+            served(caller, scheduled);
+        } catch (ExecutionException e) {
+            // 503 at once, or 504 after search.async.timeout.
+            caller.shed++;
+        }
+    }
+
+    /**
+     * Waits for the caller's next slot. A caller that fell behind starts at once but keeps its schedule, so time
+     * spent queued counts against the requests that waited.
+     */
+    private long pace(Caller caller) {
+        var interval = TimeUnit.SECONDS.toNanos(CALLERS) / rate;
+        var now = System.nanoTime();
+        if (caller.next == 0) {
+            // Spread the callers' first slots over one interval.
+            caller.next = now + (long) (Math.random() * interval);
+        }
+        var scheduled = caller.next;
+        caller.next += interval;
+        for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) {
+            LockSupport.parkNanos(wait);
+        }
+        return scheduled;
+    }
+
+    private void served(Caller caller, long scheduled) {
+        caller.served++;
+        record(System.nanoTime() - scheduled);
+    }
+
+    private synchronized void record(long latency) {
+        if (recorded == latencies.length) {
+            latencies = Arrays.copyOf(latencies, recorded * 2);
+        }
+        latencies[recorded++] = latency;
+    }
+
+    private static double millis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        var index = Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.dev.benchmark;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.example.dev.config.BulkLoadProperties;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.dto.Teacher;
+import com.example.dev.index.BulkIndexer;
+import com.example.dev.index.ElasticsearchBulkIndexClient;
+import com.example.dev.util.AvailabilitySlots;
+import com.example.dev.util.ElasticSearchUtil;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.dev.constants.Constants.Tutor.*;
+
+/**
+ * Runs the same availability filters as nested queries and as slot keywords against a live cluster
+ * ({@code -Dbench.es.url}, default {@code http://localhost:9200}) holding a synthetic tutor set.
+ * The index is created on first use and kept between runs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AvailabilityFilterBenchmark {
+
+    @Param({"200000"})
+    public int tutors;
+
+    private RestClient restClient;
+    private ElasticsearchTemplate template;
+    private IndexCoordinates index;
+    private List<NativeQuery> nestedQueries;
+    private List<NativeQuery> slotQueries;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var url = System.getProperty("bench.es.url", "http://localhost:9200");
+        restClient = RestClient.builder(HttpHost.create(url)).build();
+        var client = new ElasticsearchClient(new RestClientTransport(restClient,
+                new JacksonJsonpMapper(JsonMapper.builder().findAndAddModules().build())));
+        template = new ElasticsearchTemplate(client);
+
+        var name = "bench_availability_" + tutors;
+        index = IndexCoordinates.of(name);
+        var bulkClient = new ElasticsearchBulkIndexClient(client);
+        if (!bulkClient.exists(name)) {
+            var properties = new BulkLoadProperties(Path.of("unused"), false, 2000, DataSize.ofMegabytes(8), 4, 6,
+                    Duration.ofMillis(200), Duration.ofSeconds(10));
+            new BulkIndexer(bulkClient, properties)
+                    .load(new ByteArrayInputStream(BenchmarkData.syntheticTutors(tutors, 3)), name);
+        }
+
+        nestedQueries = new ArrayList<>();
+        slotQueries = new ArrayList<>();
+        for (int ranges = 1; ranges <= 4; ranges++) {
+            for (int sample = 0; sample < 8; sample++) {
+                var availabilities = BenchmarkData.availabilityRanges(ranges, ranges * 100L + sample);
+                var nested = ElasticSearchUtil.buildAvailabilityQuery(AVAILABILITY, AVAILABILITY_DAY,
+                        AVAILABILITY_START, AVAILABILITY_END, availabilities);
+                nestedQueries.add(filterQuery(nested));
+                slotQueries.add(filterQuery(AvailabilitySlots.compile(availabilities, nested).orElse(nested)));
+            }
+        }
+        verifyIdenticalHits();
+    }
+
+    private static NativeQuery filterQuery(Query filter) {
+        return NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b.filter(filter)))
+                .withPageable(PageRequest.of(0, 10))
+                .withTrackTotalHits(true)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        restClient.close();
+    }
+
+    private int nextIndex() {
+        next = next + 1 == nestedQueries.size() ? 0 : next + 1;
+        return next;
+    }
+
+    @Benchmark
+    public long nested() {
+        return template.search(nestedQueries.get(nextIndex()), Teacher.class, index).getTotalHits();
+    }
+
+    @Benchmark
+    public long slots() {
+        return template.search(slotQueries.get(nextIndex()), Teacher.class, index).getTotalHits();
+    }
+
+    /**
+     * Both filters must agree on every query before their timings mean anything.
+     */
+    private void verifyIdenticalHits() {
+        for (int i = 0; i < nestedQueries.size(); i++) {
+            var nestedHits = template.search(nestedQueries.get(i), Teacher.class, index).getTotalHits();
+            var slotHits = template.search(slotQueries.get(i), Teacher.class, index).getTotalHits();
+            if (nestedHits != slotHits) {
+                throw new IllegalStateException("query %d: nested %d hits, slots %d".formatted(i, nestedHits, slotHits));
+            }
+        }
+    }
+}
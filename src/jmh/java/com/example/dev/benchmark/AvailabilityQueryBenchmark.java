@@ -0,0 +1,46 @@
+package com.example.dev.benchmark;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.util.ElasticSearchUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.dev.constants.Constants.Tutor.*;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityQueryBenchmark {
+
+    @Param({"1", "5", "10", "20"})
+    public int ranges;
+
+    private List<AvailabilityRange> availabilities;
+
+    @Setup
+    public void setUp() {
+        availabilities = BenchmarkData.availabilityRanges(ranges, 7);
+    }
+
+    @Benchmark
+    public Query nested() {
+        return ElasticSearchUtil.buildAvailabilityQuery(AVAILABILITY, AVAILABILITY_DAY,
+                AVAILABILITY_START, AVAILABILITY_END, availabilities);
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.dev.benchmark;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.example.dev.backend.RoutingSearchBackend;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.cache.StaleResponseStore;
+import com.example.dev.config.AvailabilityProperties;
+import com.example.dev.config.SearchBackendProperties;
+import com.example.dev.config.SearchBatchProperties;
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.config.SearchPagingProperties;
+import com.example.dev.config.SearchResilienceProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.BatchSearchResponse;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.index.AvailabilityModeSelector;
+import com.example.dev.index.ElasticsearchBulkIndexClient;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.resilience.SearchGuard;
+import com.example.dev.service.BatchSearchService;
+import com.example.dev.service.SearchService;
+import com.example.dev.util.NativeQueryBuilder;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers the same {@code batchSize} searches with sequential {@code _search} calls and with one
+ * {@code POST /api/search/batch}-style {@code _msearch}. Needs the {@code teachers} index loaded on a cluster at
+ * {@code -Dbench.es.url} (default {@code http://localhost:9200}). Both sides bypass the result cache. The score is
+ * batches per second, so the ratio between the two is the throughput gain.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchSearchBenchmark {
+
+    @Param({"5", "20"})
+    public int batchSize;
+
+    private RestClient restClient;
+    private ElasticsearchTemplate template;
+    private AvailabilityModeSelector availabilityMode;
+    private BatchSearchService batchSearchService;
+    private List<List<SearchRequestParams>> batches;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var url = System.getProperty("bench.es.url", "http://localhost:9200");
+        restClient = RestClient.builder(HttpHost.create(url)).build();
+        var client = new ElasticsearchClient(new RestClientTransport(restClient,
+                new JacksonJsonpMapper(JsonMapper.builder().findAndAddModules().build())));
+        template = new ElasticsearchTemplate(client);
+
+        var generation = new IndexGeneration(event -> { });
+        availabilityMode = new AvailabilityModeSelector(new AvailabilityProperties(AvailabilityProperties.Mode.AUTO),
+                new ElasticsearchBulkIndexClient(client));
+        availabilityMode.select();
+        var noCache = new SearchResultCache(new SearchCacheProperties(false, 0, Duration.ZERO), generation);
+        batchSearchService = new BatchSearchService(client, template, noCache, generation, availabilityMode,
+                new SearchPagingProperties(10000, Duration.ofMinutes(1)), null, new SearchBatchProperties(batchSize),
+                new RoutingSearchBackend(null, null,
+                        new SearchBackendProperties(SearchBackendProperties.Mode.ELASTICSEARCH, null), unguarded()),
+                null);
+
+        var mix = BenchmarkData.requestMix(batchSize * 16, 11);
+        batches = new ArrayList<>();
+        for (int i = 0; i < mix.size(); i += batchSize) {
+            batches.add(mix.subList(i, i + batchSize));
+        }
+    }
+
+    /**
+     * Measures the _msearch round trip itself, without the limit, breaker and deadline around it.
+     */
+    private static SearchGuard unguarded() {
+        var properties = new SearchResilienceProperties(false, Duration.ofSeconds(1), 10, 2, 200,
+                Duration.ofMillis(500), 20, 0.5, Duration.ofSeconds(5), 2, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(64), Duration.ofMinutes(10));
+        return new SearchGuard(properties, new StaleResponseStore(properties), null);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        restClient.close();
+    }
+
+    private List<SearchRequestParams> nextBatch() {
+        next = next + 1 == batches.size() ? 0 : next + 1;
+        return batches.get(next);
+    }
+
+    @Benchmark
+    public long sequential() {
+        long hits = 0;
+        for (var params : nextBatch()) {
+            var query = NativeQueryBuilder.toSearchQuery(availabilityMode.plan(params), params, 10000);
+            var response = SearchService.buildResponse(params,
+                    template.search(query, Teacher.class, Constants.Index.TUTORS));
+            hits += response.pagination().totalElements();
+        }
+        return hits;
+    }
+
+    @Benchmark
+    public BatchSearchResponse msearch() {
+        return batchSearchService.search(nextBatch());
+    }
+}
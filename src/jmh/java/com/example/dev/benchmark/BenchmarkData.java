@@ -0,0 +1,140 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.dto.Availability;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.dto.Teacher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Tutors and request mixes derived from {@code data-loader/teachers_bulk.json}, with a fixed seed so runs compare.
+ */
+public final class BenchmarkData {
+    public static final Path BULK_FILE = Path.of(System.getProperty("bench.data", "data-loader/teachers_bulk.json"));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static List<Teacher> teachers;
+
+    private BenchmarkData() {
+    }
+
+    public static synchronized List<Teacher> teachers() {
+        if (teachers == null) {
+            teachers = List.copyOf(load(BULK_FILE, Integer.MAX_VALUE));
+        }
+        return teachers;
+    }
+
+    /**
+     * The first {@code limit} tutors of a {@code _bulk} or NDJSON file, for sampling files too big to hold.
+     */
+    public static List<Teacher> teachers(Path file, int limit) {
+        return List.copyOf(load(file, limit));
+    }
+
+    /**
+     * Requests shaped like the wizard traffic: subject nearly always, level and availability often,
+     * rating and free text occasionally. Values are sampled from real tutors so filters actually match.
+     */
+    public static List<SearchRequestParams> requestMix(int count, long seed) {
+        var random = new Random(seed);
+        var source = teachers();
+        var requests = new ArrayList<SearchRequestParams>(count);
+        for (int i = 0; i < count; i++) {
+            var tutor = source.get(random.nextInt(source.size()));
+            var subject = random.nextInt(10) < 9 ? tutor.subject() : null;
+            var level = random.nextBoolean() ? tutor.level() : null;
+            var rating = random.nextInt(5) == 0 ? Math.floor(tutor.rating()) : null;
+            var query = random.nextInt(4) == 0 ? tutor.name().split(" ")[0] : null;
+            var availabilities = random.nextInt(3) == 0 ? List.<AvailabilityRange>of() : ranges(tutor, random);
+            requests.add(SearchRequestParams.builder().query(query).subject(subject).level(level).rating(rating)
+                    .availabilities(availabilities).page(random.nextInt(3)).build());
+        }
+        return requests;
+    }
+
+    public static List<AvailabilityRange> availabilityRanges(int count, long seed) {
+        var random = new Random(seed);
+        var source = teachers();
+        var ranges = new ArrayList<AvailabilityRange>(count);
+        while (ranges.size() < count) {
+            var tutor = source.get(random.nextInt(source.size()));
+            for (var availability : tutor.availabilities()) {
+                if (ranges.size() < count) {
+                    ranges.add(toRange(availability));
+                }
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * NDJSON tutor documents (one per line, no action lines) from {@link TutorGenerator}.
+     */
+    public static byte[] syntheticTutors(int count, long seed) {
+        var out = new ByteArrayOutputStream(count * 512);
+        try {
+            new TutorGenerator(teachers(), seed).write(out, count, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<AvailabilityRange> ranges(Teacher tutor, Random random) {
+        var available = tutor.availabilities();
+        if (available.isEmpty()) {
+            return List.of();
+        }
+        int count = 1 + random.nextInt(Math.min(3, available.size()));
+        return available.subList(0, count).stream().map(BenchmarkData::toRange).toList();
+    }
+
+    private static AvailabilityRange toRange(Availability availability) {
+        return new AvailabilityRange(availability.day(), availability.start().toString(), availability.end().toString());
+    }
+
+    private static List<Teacher> load(Path file, int limit) {
+        var result = new ArrayList<Teacher>();
+        try (BufferedReader reader = Files.newBufferedReader(file)) {
+            String line;
+            while (result.size() < limit && (line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                var node = MAPPER.readTree(line);
+                // Bulk files interleave action lines with documents; only documents carry a name.
+                if (node.has("name")) {
+                    result.add(toTeacher(node));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read benchmark data from " + file.toAbsolutePath(), e);
+        }
+        return result;
+    }
+
+    private static Teacher toTeacher(JsonNode node) {
+        var availabilities = new ArrayList<Availability>();
+        for (var slot : node.path("availability")) {
+            availabilities.add(new Availability(slot.path("day").asText(),
+                    LocalTime.parse(slot.path("start_time").asText()),
+                    LocalTime.parse(slot.path("end_time").asText())));
+        }
+        return new Teacher(node.path("id").asText(), node.path("name").asText(), node.path("description").asText(),
+                node.path("subject").asText(), node.path("level").asText(), node.path("rating").asDouble(),
+                List.copyOf(availabilities));
+    }
+}
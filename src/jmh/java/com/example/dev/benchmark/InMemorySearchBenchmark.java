@@ -0,0 +1,64 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.backend.InMemoryTutorIndex;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.service.SearchService;
+import com.example.dev.util.QueryPlan;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Single-threaded throughput of the in-memory backend over the request mix: plan lookup, evaluation and response
+ * mapping, without the result cache. The {@code facets} variant adds every facet to each request.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(1)
+@Fork(1)
+public class InMemorySearchBenchmark {
+
+    @Param({"mix", "facets", "card"})
+    public String variant;
+
+    private InMemoryTutorIndex index;
+    private List<SearchRequestParams> requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        index = new InMemoryTutorIndex(BenchmarkData.teachers());
+        requests = new ArrayList<>();
+        for (var p : BenchmarkData.requestMix(1024, 42)) {
+            requests.add(p.toBuilder().facets("facets".equals(variant)).view("card".equals(variant) ? "card" : null)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public SearchResponse search() {
+        var params = requests.get(next);
+        next = next + 1 == requests.size() ? 0 : next + 1;
+        var result = index.search(QueryPlan.forParams(params), params, params.page() * params.size(), params.size(),
+                params.wantsFacets());
+        var response = SearchService.buildResponse(params, result.hits());
+        return result.facets() == null ? response : response.withFacets(result.facets());
+    }
+}
@@ -0,0 +1,264 @@
+package com.example.dev.benchmark;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a {@link QueryMix} file against a running app over HTTP and reports throughput and p50/p99/p999 latency.
+ * <p>
+ * With {@code rate > 0} it is open-loop: requests start on a fixed schedule whether or not earlier ones have
+ * answered, and latency is measured from the scheduled start, so a stalled server shows up in the tail instead of
+ * quietly lowering the offered load. At most {@code concurrency} requests are outstanding; starts beyond that are
+ * counted as dropped. With {@code rate=0} it is closed-loop: {@code concurrency} callers, each sending the next
+ * request as soon as the previous one answers, which finds the saturation throughput.
+ * <p>
+ * Arguments are {@code key=value}: {@code requests} (required), {@code url} (http://localhost:8080), {@code rate}
+ * (0), {@code concurrency} (32 closed-loop, 1024 open-loop), {@code duration} (60s), {@code warmup} (10s),
+ * {@code timeout} (10s), {@code report} (CSV file to append a result row to), {@code max-p99} and
+ * {@code max-error-rate} (0.01); the process exits with 1 when a limit is exceeded.
+ */
+public final class LoadDriver {
+    private static final double[] PERCENTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final HttpClient client;
+    private final URI base;
+    private final List<String> paths;
+    private final Duration timeout;
+    private final AtomicLong next = new AtomicLong();
+
+    private long measureFrom;
+    private long[] latencies = new long[1 << 16];
+    private int recorded;
+    private final Map<Integer, Long> statuses = new TreeMap<>();
+    private long errors;
+    private long dropped;
+
+    private LoadDriver(URI base, List<String> paths, Duration timeout) {
+        this.client = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.base = base;
+        this.paths = paths;
+        this.timeout = timeout;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        var options = new HashMap<String, String>();
+        for (var arg : args) {
+            var separator = arg.indexOf('=');
+            if (separator < 0) {
+                System.err.println("arguments are key=value, got " + arg);
+                System.exit(2);
+            }
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        if (!options.containsKey("requests")) {
+            System.err.println("usage: LoadDriver requests=<file> [url=] [rate=] [concurrency=] [duration=] [warmup=]"
+                    + " [timeout=] [report=] [max-p99=] [max-error-rate=]");
+            System.exit(2);
+        }
+        var paths = Files.readAllLines(Path.of(options.get("requests"))).stream()
+                .filter(line -> !line.isBlank())
+                .toList();
+        var rate = Double.parseDouble(options.getOrDefault("rate", "0"));
+        var concurrency = Integer.parseInt(options.getOrDefault("concurrency", rate > 0 ? "1024" : "32"));
+        var duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "60s"));
+        var warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        var timeout = DurationStyle.detectAndParse(options.getOrDefault("timeout", "10s"));
+
+        var driver = new LoadDriver(URI.create(options.getOrDefault("url", "http://localhost:8080")), paths, timeout);
+        var mode = rate > 0 ? "open-loop %.0f/s".formatted(rate) : "closed-loop x" + concurrency;
+        System.out.printf("%s, %d s after %d s warmup, %,d distinct requests against %s%n", mode,
+                duration.toSeconds(), warmup.toSeconds(), paths.size(), driver.base);
+        if (rate > 0) {
+            driver.openLoop(rate, concurrency, warmup, duration);
+        } else {
+            driver.closedLoop(concurrency, warmup, duration);
+        }
+
+        var result = driver.result(duration);
+        System.out.println(result.summary());
+        if (options.containsKey("report")) {
+            result.append(Path.of(options.get("report")), mode);
+        }
+        var breached = new ArrayList<String>();
+        if (options.containsKey("max-p99")) {
+            var limit = DurationStyle.detectAndParse(options.get("max-p99"));
+            if (result.percentile(0.99) > limit.toNanos()) {
+                breached.add("p99 over " + limit.toMillis() + " ms");
+            }
+        }
+        if (result.errorRate() > Double.parseDouble(options.getOrDefault("max-error-rate", "0.01"))) {
+            breached.add("error rate %.2f%%".formatted(result.errorRate() * 100));
+        }
+        if (!breached.isEmpty()) {
+            System.out.println("FAILED: " + String.join(", ", breached));
+        }
+        // The client's threads would otherwise keep the JVM alive until its idle connections time out.
+        System.exit(breached.isEmpty() ? 0 : 1);
+    }
+
+    private void openLoop(double rate, int concurrency, Duration warmup, Duration duration)
+            throws InterruptedException {
+        var inFlight = new Semaphore(concurrency);
+        var interval = 1e9 / rate;
+        var start = System.nanoTime();
+        measureFrom = start + warmup.toNanos();
+        var end = measureFrom + duration.toNanos();
+        for (long i = 0; ; i++) {
+            var scheduled = start + (long) (i * interval);
+            if (scheduled >= end) {
+                break;
+            }
+            for (long wait; (wait = scheduled - System.nanoTime()) > 0; ) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!inFlight.tryAcquire()) {
+                drop(scheduled);
+                continue;
+            }
+            client.sendAsync(request(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        record(scheduled, System.nanoTime(), response, error);
+                    });
+        }
+        inFlight.tryAcquire(concurrency, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void closedLoop(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        var start = System.nanoTime();
+        measureFrom = start + warmup.toNanos();
+        var end = measureFrom + duration.toNanos();
+        var callers = new ArrayList<Thread>();
+        for (int i = 0; i < concurrency; i++) {
+            var caller = new Thread(() -> {
+                while (System.nanoTime() < end) {
+                    var sent = System.nanoTime();
+                    try {
+                        var response = client.send(request(), HttpResponse.BodyHandlers.discarding());
+                        record(sent, System.nanoTime(), response, null);
+                    } catch (IOException e) {
+                        record(sent, System.nanoTime(), null, e);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }, "load-" + i);
+            caller.start();
+            callers.add(caller);
+        }
+        for (var caller : callers) {
+            caller.join();
+        }
+    }
+
+    private HttpRequest request() {
+        var path = paths.get((int) (next.getAndIncrement() % paths.size()));
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(timeout).GET().build();
+    }
+
+    private synchronized void record(long sent, long done, HttpResponse<?> response, Throwable error) {
+        if (sent < measureFrom) {
+            return;
+        }
+        if (response == null) {
+            errors++;
+            return;
+        }
+        statuses.merge(response.statusCode(), 1L, Long::sum);
+        if (recorded == latencies.length) {
+            latencies = Arrays.copyOf(latencies, recorded * 2);
+        }
+        latencies[recorded++] = done - sent;
+    }
+
+    private synchronized void drop(long scheduled) {
+        if (scheduled >= measureFrom) {
+            dropped++;
+        }
+    }
+
+    private synchronized Result result(Duration duration) {
+        var sorted = Arrays.copyOf(latencies, recorded);
+        Arrays.sort(sorted);
+        return new Result(sorted, new TreeMap<>(statuses), errors, dropped, duration);
+    }
+
+    private record Result(long[] latencies, Map<Integer, Long> statuses, long errors, long dropped,
+                          Duration duration) {
+
+        long percentile(double p) {
+            return latencies.length == 0 ? 0 : latencies[Math.max(0, (int) Math.ceil(p * latencies.length) - 1)];
+        }
+
+        long ok() {
+            return statuses.entrySet().stream().filter(e -> e.getKey() < 400).mapToLong(Map.Entry::getValue).sum();
+        }
+
+        double throughput() {
+            return ok() / (duration.toNanos() / 1e9);
+        }
+
+        double errorRate() {
+            var total = latencies.length + errors + dropped;
+            return total == 0 ? 0 : (double) (total - ok()) / total;
+        }
+
+        String summary() {
+            var text = new StringBuilder();
+            text.append("throughput  %.1f req/s (ok %,d, failed %,d, errors %,d, dropped %,d)%n".formatted(
+                    throughput(), ok(), latencies.length - ok(), errors, dropped));
+            text.append("latency ms ");
+            for (var p : PERCENTILES) {
+                text.append(" p%s %.2f".formatted(label(p), millis(percentile(p))));
+            }
+            text.append(" max %.2f%n".formatted(millis(percentile(1))));
+            text.append("status      ").append(statuses);
+            return text.toString();
+        }
+
+        void append(Path file, String mode) throws IOException {
+            var row = new StringBuilder();
+            if (!Files.exists(file)) {
+                row.append("time,mode,throughput,p50_ms,p90_ms,p99_ms,p999_ms,max_ms,error_rate\n");
+            }
+            row.append(Instant.now()).append(',').append(mode).append(',')
+                    .append(String.format(Locale.ROOT, "%.1f", throughput()));
+            for (var p : PERCENTILES) {
+                row.append(',').append(String.format(Locale.ROOT, "%.2f", millis(percentile(p))));
+            }
+            row.append(',').append(String.format(Locale.ROOT, "%.2f", millis(percentile(1))))
+                    .append(',').append(String.format(Locale.ROOT, "%.4f", errorRate())).append('\n');
+            Files.writeString(file, row, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+
+        private static String label(double p) {
+            return Double.toString(p * 100).replace(".0", "").replace(".", "");
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1e6;
+        }
+    }
+}
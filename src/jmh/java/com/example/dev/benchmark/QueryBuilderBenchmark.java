@@ -0,0 +1,72 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.util.NativeQueryBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares building from the per-shape rule selection ({@link com.example.dev.util.QueryPlan}) against walking every
+ * {@link com.example.dev.util.QueryRule} per call. Both build every leaf per request.
+ * The {@code mix} shape cycles through requests sampled from the bulk data file.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QueryBuilderBenchmark {
+
+    @Param({"subject", "subject_level", "full", "mix"})
+    public String shape;
+
+    private List<SearchRequestParams> requests;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        requests = switch (shape) {
+            case "subject" -> List.of(SearchRequestParams.builder().subject("Mathematics").build());
+            case "subject_level" -> List.of(SearchRequestParams.builder().subject("Mathematics").level("High School")
+                    .build());
+            case "full" -> List.of(SearchRequestParams.builder().query("algebra").subject("Mathematics")
+                    .level("High School").rating(4.0)
+                    .availabilities(List.of(
+                            new AvailabilityRange("Monday", "08:00", "10:00"),
+                            new AvailabilityRange("Thursday", "18:00", "20:00")))
+                    .build());
+            default -> BenchmarkData.requestMix(1024, 42);
+        };
+    }
+
+    private SearchRequestParams nextRequest() {
+        var params = requests.get(next);
+        next = next + 1 == requests.size() ? 0 : next + 1;
+        return params;
+    }
+
+    @Benchmark
+    public NativeQuery planned() {
+        return NativeQueryBuilder.toSearchQuery(nextRequest());
+    }
+
+    @Benchmark
+    public NativeQuery uncached() {
+        return NativeQueryBuilder.toSearchQueryUncached(nextRequest());
+    }
+}
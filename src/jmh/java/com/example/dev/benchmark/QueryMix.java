@@ -0,0 +1,143 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.dto.Teacher;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.StringJoiner;
+
+/**
+ * Replayable {@code /api/search} traffic: {@link SearchRequestParams} sampled from tutors so filters match, written
+ * one request path per line for {@link LoadDriver}. On top of the shapes {@link BenchmarkData#requestMix} draws, it
+ * mixes in what the UI sends: facet requests, {@code view=card}, deeper pages, the wizard's two-hour availability
+ * grid, and a hot set of repeated searches so the result cache sees a realistic hit rate.
+ * <p>
+ * Usage: {@code QueryMix <count> <out-file> [seed] [tutor-file]}; the tutor file defaults to {@code bench.data}.
+ */
+public final class QueryMix {
+    public static final String SEARCH_PATH = "/api/search";
+
+    private static final int SAMPLE = 10_000;
+    private static final int HOT_SET = 100;
+    private static final double[] RATING_FLOORS = {3.0, 4.0, 4.5};
+
+    private QueryMix() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: QueryMix <count> <out-file> [seed] [tutor-file]");
+            System.exit(2);
+        }
+        var count = Integer.parseInt(args[0].replace("_", ""));
+        var out = Path.of(args[1]);
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        var tutors = args.length > 3 ? BenchmarkData.teachers(Path.of(args[3]), SAMPLE) : BenchmarkData.teachers();
+
+        var lines = requests(tutors, count, seed).stream().map(QueryMix::toPath).toList();
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        Files.write(out, lines);
+        System.out.printf("wrote %,d requests sampled from %,d tutors to %s%n", lines.size(), tutors.size(), out);
+    }
+
+    public static List<SearchRequestParams> requests(List<Teacher> tutors, int count, long seed) {
+        var random = new Random(seed);
+        var requests = new ArrayList<SearchRequestParams>(count);
+        for (int i = 0; i < count; i++) {
+            // Popular searches repeat: about a third of the traffic re-issues one of the first hundred.
+            if (i >= HOT_SET && random.nextInt(3) == 0) {
+                requests.add(requests.get(random.nextInt(HOT_SET)));
+            } else {
+                requests.add(request(tutors.get(random.nextInt(tutors.size())), random));
+            }
+        }
+        return requests;
+    }
+
+    /**
+     * The request as the UI would send it, e.g.
+     * {@code /api/search?subject=Physics&availabilities%5B0%5D.day=Monday&page=0&size=10}.
+     */
+    public static String toPath(SearchRequestParams params) {
+        var query = new StringJoiner("&", SEARCH_PATH + "?", "");
+        add(query, "query", params.query());
+        add(query, "subject", params.subject());
+        add(query, "level", params.level());
+        add(query, "rating", params.rating());
+        var availabilities = params.availabilities() == null ? List.<AvailabilityRange>of() : params.availabilities();
+        for (int i = 0; i < availabilities.size(); i++) {
+            var range = availabilities.get(i);
+            add(query, "availabilities[" + i + "].day", range.day());
+            add(query, "availabilities[" + i + "].startTime", range.startTime());
+            add(query, "availabilities[" + i + "].endTime", range.endTime());
+        }
+        add(query, "page", params.page());
+        add(query, "size", params.size());
+        add(query, "facets", params.facets());
+        add(query, "view", params.view());
+        return query.toString();
+    }
+
+    private static SearchRequestParams request(Teacher tutor, Random random) {
+        if (random.nextInt(10) == 0) {
+            // The wizard's opening call: facet counts for the subject, one hit.
+            return SearchRequestParams.builder().subject(tutor.subject()).size(1).facets(true).build();
+        }
+        var subject = random.nextInt(10) < 9 ? tutor.subject() : null;
+        var level = random.nextBoolean() ? tutor.level() : null;
+        var rating = random.nextInt(5) == 0 ? RATING_FLOORS[random.nextInt(RATING_FLOORS.length)] : null;
+        var query = random.nextInt(4) == 0 ? text(tutor, random) : null;
+        var availabilities = random.nextInt(3) == 0 ? List.<AvailabilityRange>of() : ranges(tutor, random);
+        var roll = random.nextInt(10);
+        var page = roll < 7 ? 0 : roll < 9 ? 1 : 2 + random.nextInt(4);
+        var view = random.nextInt(10) < 3 ? SearchRequestParams.CARD_VIEW : null;
+        return SearchRequestParams.builder().query(query).subject(subject).level(level).rating(rating)
+                .availabilities(availabilities).page(page).view(view).build();
+    }
+
+    private static String text(Teacher tutor, Random random) {
+        if (random.nextInt(5) < 3) {
+            return tutor.name().split(" ")[0];
+        }
+        var words = tutor.description().split("\\W+");
+        var word = words[random.nextInt(words.length)];
+        return word.isEmpty() ? tutor.subject() : word.toLowerCase();
+    }
+
+    private static List<AvailabilityRange> ranges(Teacher tutor, Random random) {
+        var available = tutor.availabilities();
+        if (available.isEmpty()) {
+            return List.of();
+        }
+        var ranges = new ArrayList<AvailabilityRange>();
+        for (int n = 1 + random.nextInt(Math.min(3, available.size())); n > 0; n--) {
+            var entry = available.get(random.nextInt(available.size()));
+            if (random.nextBoolean()) {
+                ranges.add(new AvailabilityRange(entry.day(), entry.start().toString(), entry.end().toString()));
+            } else {
+                // The wizard offers 08:00-22:00 in two-hour blocks.
+                var start = Math.max(8, Math.min(20, entry.start().getHour() / 2 * 2));
+                ranges.add(new AvailabilityRange(entry.day(), "%02d:00".formatted(start),
+                        "%02d:00".formatted(start + 2)));
+            }
+        }
+        return ranges;
+    }
+
+    private static void add(StringJoiner query, String name, Object value) {
+        if (value != null) {
+            query.add(URLEncoder.encode(name, StandardCharsets.UTF_8) + "="
+                    + URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.dev.benchmark;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.json.jackson.JacksonJsonpMapper;
+import co.elastic.clients.transport.rest_client.RestClientTransport;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.util.NativeQueryBuilder;
+import com.example.dev.util.QueryPlan;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.apache.http.HttpHost;
+import org.elasticsearch.client.RestClient;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency with the ranking rescore at several window sizes; {@code windowSize=0} is the text score alone.
+ * The {@code text} mix always carries a free-text query, the {@code filters} mix never does and should not move
+ * with the window. Needs the {@code teachers} index loaded on a cluster at {@code -Dbench.es.url}
+ * (default {@code http://localhost:9200}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RescoreBenchmark {
+
+    @Param({"0", "10", "50", "200", "1000"})
+    public int windowSize;
+
+    @Param({"text", "filters"})
+    public String mix;
+
+    private RestClient restClient;
+    private ElasticsearchTemplate template;
+    private RankingProperties ranking;
+    private List<SearchRequestParams> requests;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        var url = System.getProperty("bench.es.url", "http://localhost:9200");
+        restClient = RestClient.builder(HttpHost.create(url)).build();
+        template = new ElasticsearchTemplate(new ElasticsearchClient(new RestClientTransport(restClient,
+                new JacksonJsonpMapper(JsonMapper.builder().findAndAddModules().build()))));
+        ranking = new RankingProperties(windowSize > 0, windowSize, 1f, 1f, 1f, 1f, "", 0f);
+
+        requests = new ArrayList<>();
+        var tutors = BenchmarkData.teachers();
+        for (var p : BenchmarkData.requestMix(1024, 42)) {
+            var query = "text".equals(mix)
+                    ? tutors.get(requests.size() % tutors.size()).description().split("\\s+")[0]
+                    : null;
+            requests.add(p.toBuilder().query(query).build());
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        restClient.close();
+    }
+
+    @Benchmark
+    public long search() {
+        var params = requests.get(next);
+        next = next + 1 == requests.size() ? 0 : next + 1;
+        var query = NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(params), params, 10000, ranking);
+        return template.search(query, Teacher.class, Constants.Index.TUTORS).getTotalHits();
+    }
+}
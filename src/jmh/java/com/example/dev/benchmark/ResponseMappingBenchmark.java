@@ -0,0 +1,128 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.dto.Teacher;
+import com.example.dev.service.SearchService;
+import com.example.dev.util.NativeQueryBuilder;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the work done after Elasticsearch answers: mapping hits into {@link SearchResponse} and writing JSON.
+ * {@code view=card} models a source-filtered response with highlighted fragments instead of full documents;
+ * the per-page payload size of each view is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"10", "50"})
+    public int pageSize;
+
+    @Param({"full", "card"})
+    public String view;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private SearchRequestParams params;
+    private SearchHits<Teacher> searchHits;
+    private SearchResponse response;
+    private List<byte[]> sources;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        params = SearchRequestParams.builder().subject("Mathematics").size(pageSize).view(view).build();
+        var teachers = BenchmarkData.teachers().subList(0, pageSize);
+        searchHits = params.isCardView() ? cardHits(teachers, 500) : searchHits(teachers, 500);
+        response = SearchService.buildResponse(params, searchHits);
+        sources = new ArrayList<>(pageSize);
+        for (var hit : searchHits.getSearchHits()) {
+            sources.add(objectMapper.writeValueAsBytes(hit.getContent()));
+        }
+        System.out.printf("%n%s view, %d hits: %d response bytes, %d _source bytes%n", view, pageSize,
+                objectMapper.writeValueAsBytes(response).length, sources.stream().mapToInt(b -> b.length).sum());
+    }
+
+    static SearchHits<Teacher> searchHits(List<Teacher> teachers, long totalHits) {
+        return wrap(teachers.stream()
+                .map(t -> new SearchHit<>("teachers", t.id(), null, 1.0f, null, Map.<String, List<String>>of(),
+                        Map.of(), null, null, List.of(), t))
+                .toList(), totalHits);
+    }
+
+    /**
+     * What the card source filter and highlighter return: no description or availabilities, one fragment.
+     */
+    static SearchHits<Teacher> cardHits(List<Teacher> teachers, long totalHits) {
+        return wrap(teachers.stream()
+                .map(t -> new SearchHit<>("teachers", t.id(), null, 1.0f, null,
+                        Map.of(Constants.Tutor.DESCRIPTION, List.of(fragment(t.description()))), Map.of(),
+                        null, null, List.of(),
+                        new Teacher(t.id(), t.name(), null, t.subject(), t.level(), t.rating(), null)))
+                .toList(), totalHits);
+    }
+
+    private static String fragment(String description) {
+        return description.substring(0, Math.min(NativeQueryBuilder.CARD_FRAGMENT_SIZE, description.length()));
+    }
+
+    private static SearchHits<Teacher> wrap(List<SearchHit<Teacher>> hits, long totalHits) {
+        return new SearchHitsImpl<>(totalHits, TotalHitsRelation.EQUAL_TO, 1.0f, Duration.ofMillis(3),
+                null, null, hits, null, null, null);
+    }
+
+    @Benchmark
+    public SearchResponse mapHits() {
+        return SearchService.buildResponse(params, searchHits);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    /**
+     * Stand-in for the client decoding each hit's {@code _source}.
+     */
+    @Benchmark
+    public int decodeSources() throws IOException {
+        int decoded = 0;
+        for (var source : sources) {
+            decoded += objectMapper.readValue(source, Teacher.class).name().length();
+        }
+        return decoded;
+    }
+
+    @Benchmark
+    public byte[] mapAndSerialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(SearchService.buildResponse(params, searchHits));
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.dev.benchmark;
+
+import com.example.dev.dto.Teacher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes any number of synthetic tutors as NDJSON, streaming, so millions fit in a few MB of heap. Vocabulary comes
+ * from a sample of real tutors (names, description sentences, subjects, levels); the distributions are skewed the
+ * way a marketplace is:
+ * <ul>
+ *     <li>subjects by rank, 1/rank (the most common subject in the sample gets about half the tutors)</li>
+ *     <li>levels as they co-occur with the subject in the sample</li>
+ *     <li>ratings piled up towards 5.0, floor 3.0</li>
+ *     <li>1-8 weekly entries, weekday evenings and weekend days most popular, mostly on the half hour</li>
+ * </ul>
+ * Usage: {@code TutorGenerator <count> <out-file> [seed] [bulk]}; {@code bulk} adds {@code _bulk} action lines so
+ * the file can also be posted to Elasticsearch as is.
+ */
+public final class TutorGenerator {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final List<String> DAYS = List.of("Monday", "Tuesday", "Wednesday", "Thursday", "Friday",
+            "Saturday", "Sunday");
+    private static final int FIRST_HOUR = 8;
+    private static final int LAST_HOUR = 22;
+
+    private final Random random;
+    private final List<String> subjects;
+    private final double[] subjectWeights;
+    private final Map<String, List<String>> levelsBySubject;
+    private final List<String> firstNames;
+    private final List<String> lastNames;
+    private final List<String> sentences;
+
+    public TutorGenerator(List<Teacher> sample, long seed) {
+        random = new Random(seed);
+        var bySubject = sample.stream().collect(Collectors.groupingBy(Teacher::subject, LinkedHashMap::new,
+                Collectors.toList()));
+        subjects = bySubject.keySet().stream()
+                .sorted(Comparator.comparing((String s) -> bySubject.get(s).size()).reversed())
+                .toList();
+        subjectWeights = new double[subjects.size()];
+        for (int i = 0; i < subjectWeights.length; i++) {
+            subjectWeights[i] = (i == 0 ? 0 : subjectWeights[i - 1]) + 1.0 / (i + 1);
+        }
+        levelsBySubject = bySubject.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey,
+                e -> e.getValue().stream().map(Teacher::level).toList()));
+        firstNames = distinct(sample, t -> t.name().split(" ")[0]);
+        lastNames = distinct(sample, t -> t.name().substring(t.name().lastIndexOf(' ') + 1));
+        sentences = sample.stream()
+                .flatMap(t -> List.of(t.description().split("(?<=\\.)\\s+")).stream())
+                .filter(s -> !s.isBlank())
+                .distinct()
+                .toList();
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: TutorGenerator <count> <out-file> [seed] [bulk]");
+            System.exit(2);
+        }
+        var count = Integer.parseInt(args[0].replace("_", ""));
+        var out = Path.of(args[1]);
+        var seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        var bulk = args.length > 3 && "bulk".equals(args[3]);
+
+        var started = System.nanoTime();
+        if (out.getParent() != null) {
+            Files.createDirectories(out.getParent());
+        }
+        try (var stream = new BufferedOutputStream(Files.newOutputStream(out), 1 << 16)) {
+            new TutorGenerator(BenchmarkData.teachers(), seed).write(stream, count, bulk);
+        }
+        System.out.printf("wrote %,d tutors (%,d bytes) to %s in %d ms%n", count, Files.size(out), out,
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Writes {@code count} tutors, one document per line, each preceded by an {@code index} action when
+     * {@code bulk} is set.
+     */
+    public void write(OutputStream out, int count, boolean bulk) throws IOException {
+        for (int i = 0; i < count; i++) {
+            var id = new UUID(random.nextLong(), random.nextLong()).toString();
+            if (bulk) {
+                var action = MAPPER.createObjectNode();
+                action.putObject("index").put("_id", id);
+                out.write(MAPPER.writeValueAsBytes(action));
+                out.write('\n');
+            }
+            out.write(MAPPER.writeValueAsBytes(tutor(id)));
+            out.write('\n');
+        }
+    }
+
+    private ObjectNode tutor(String id) {
+        var subject = subject();
+        var levels = levelsBySubject.get(subject);
+        var tutor = MAPPER.createObjectNode()
+                .put("id", id)
+                .put("name", pick(firstNames) + " " + pick(lastNames))
+                .put("description", description())
+                .put("subject", subject)
+                .put("level", pick(levels))
+                .put("rating", Math.round((5.0 - 2.0 * Math.pow(random.nextDouble(), 2.5)) * 10) / 10.0);
+        var availability = tutor.putArray("availability");
+        // Mostly one to three entries, a long tail up to eight.
+        for (int entries = 1 + (int) Math.min(7, -Math.log(1 - random.nextDouble()) * 1.5); entries > 0; entries--) {
+            var day = day();
+            var weekend = day >= 5;
+            int start = startMinute(weekend);
+            int end = Math.min(LAST_HOUR * 60, start + 60 * (1 + random.nextInt(4)));
+            availability.addObject()
+                    .put("day", DAYS.get(day))
+                    .put("start_time", time(start))
+                    .put("end_time", time(end));
+        }
+        return tutor;
+    }
+
+    private String subject() {
+        var total = subjectWeights[subjectWeights.length - 1];
+        var target = random.nextDouble() * total;
+        for (int i = 0; i < subjectWeights.length; i++) {
+            if (target < subjectWeights[i]) {
+                return subjects.get(i);
+            }
+        }
+        return subjects.get(subjects.size() - 1);
+    }
+
+    private String description() {
+        var text = new StringBuilder();
+        for (int n = 2 + random.nextInt(5); n > 0; n--) {
+            text.append(text.isEmpty() ? "" : " ").append(pick(sentences));
+        }
+        return text.toString();
+    }
+
+    private int day() {
+        // Weekdays weigh 10, Saturday 8, Sunday 6.
+        var target = random.nextInt(5 * 10 + 8 + 6);
+        return target < 50 ? target / 10 : target < 58 ? 5 : 6;
+    }
+
+    private int startMinute(boolean weekend) {
+        int hour;
+        if (weekend) {
+            hour = 9 + random.nextInt(9);
+        } else {
+            hour = random.nextInt(4) == 0 ? FIRST_HOUR + random.nextInt(8) : 16 + random.nextInt(5);
+        }
+        var roll = random.nextInt(100);
+        // A few entries sit off the half-hour grid, like hand-entered ones do.
+        var minute = roll < 70 ? 0 : roll < 98 ? 30 : 15;
+        return hour * 60 + minute;
+    }
+
+    private <T> T pick(List<T> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    private static String time(int minutes) {
+        return "%02d:%02d".formatted(minutes / 60, minutes % 60);
+    }
+
+    private static List<String> distinct(List<Teacher> sample, Function<Teacher, String> part) {
+        return sample.stream().map(part).distinct().toList();
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.dev.Controller;
+
+import com.example.dev.cache.CacheStats;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.TutorUpdate;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.index.TutorIndexManager;
+import com.example.dev.index.TutorUpdatePipeline;
+import com.example.dev.index.TutorUpdateStats;
+import com.example.dev.resilience.SearchGuard;
+import com.example.dev.service.AsyncSearchService;
+import com.example.dev.service.SearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/admin")
+public class AdminController {
+    final ElasticsearchOperations elasticsearchOperations;
+    final IndexGeneration indexGeneration;
+    final SearchResultCache searchResultCache;
+    final TutorIndexManager tutorIndexManager;
+    final AsyncSearchService asyncSearchService;
+    final SearchService searchService;
+    final TutorUpdatePipeline tutorUpdatePipeline;
+    final SearchGuard searchGuard;
+
+    @PostMapping("/index/refresh")
+    public Map<String, Long> refreshIndex() {
+        elasticsearchOperations.indexOps(Constants.Index.TUTORS).refresh();
+        return Map.of("generation", indexGeneration.advance("manual refresh"));
+    }
+
+    @PostMapping("/index/rebuild")
+    public ResponseEntity<Map<String, Object>> rebuildIndex() {
+        if (!tutorIndexManager.startRebuild()) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("rebuilding", true));
+        }
+        return ResponseEntity.accepted().body(Map.of("rebuilding", true));
+    }
+
+    @GetMapping("/index/rebuild")
+    public Map<String, Object> rebuildStatus() {
+        var status = new LinkedHashMap<String, Object>();
+        status.put("rebuilding", tutorIndexManager.isRebuilding());
+        tutorIndexManager.lastRebuild().ifPresent(report -> status.put("lastRebuild", report));
+        return status;
+    }
+
+    @PostMapping("/tutors/updates")
+    public ResponseEntity<Map<String, Object>> updateTutors(@RequestBody List<TutorUpdate> updates) {
+        return ResponseEntity.accepted().body(Map.of("accepted", updates.size(),
+                "pending", tutorUpdatePipeline.submit(updates)));
+    }
+
+    @GetMapping("/tutors/updates")
+    public TutorUpdateStats tutorUpdateStats() {
+        return tutorUpdatePipeline.stats();
+    }
+
+    @GetMapping("/cache/stats")
+    public CacheStats cacheStats() {
+        return searchResultCache.stats();
+    }
+
+    @GetMapping("/search/stats")
+    public Map<String, Object> searchStats() {
+        return Map.of(
+                "inFlight", asyncSearchService.inFlight(),
+                "rejected", asyncSearchService.rejected(),
+                "timedOut", asyncSearchService.timedOut(),
+                "coalescing", searchService.coalescingStats(),
+                "resilience", searchGuard.stats()
+        );
+    }
+}
@@ -1,25 +1,58 @@
 package com.example.dev.Controller;
 
+import com.example.dev.dto.BatchSearchResponse;
 import com.example.dev.dto.SearchRequestParams;
 import com.example.dev.dto.SearchResponse;
-import com.example.dev.service.SearchService;
+import com.example.dev.dto.SuggestResponse;
+import com.example.dev.service.AsyncSearchService;
+import com.example.dev.service.SearchHttpCaching;
+import com.example.dev.suggest.SuggestionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Controller;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api")
 public class MyController {
-    final SearchService searchService;
+    final AsyncSearchService asyncSearchService;
+    final SuggestionService suggestionService;
+    final SearchHttpCaching searchHttpCaching;
 
     @GetMapping("/search")
     @ResponseBody
-    public SearchResponse search(SearchRequestParams searchRequestParams) {
-        return searchService.search(searchRequestParams);
+    public CompletableFuture<SearchResponse> search(SearchRequestParams searchRequestParams,
+                                                    ServletWebRequest webRequest) {
+        var etag = searchHttpCaching.etag(searchRequestParams);
+        if (searchHttpCaching.checkNotModified(searchRequestParams, etag, webRequest)) {
+            // Status and ETag are already set; a null return value ends the request with an empty 304.
+            return null;
+        }
+        return asyncSearchService.search(searchRequestParams)
+                .thenApply(response -> searchHttpCaching.beforeSend(searchRequestParams, etag, response, webRequest));
+    }
+
+    @PostMapping("/search/batch")
+    @ResponseBody
+    public CompletableFuture<BatchSearchResponse> searchBatch(@RequestBody List<SearchRequestParams> searches) {
+        return asyncSearchService.searchBatch(searches);
+    }
+
+    @GetMapping("/suggest")
+    @ResponseBody
+    public SuggestResponse suggest(@RequestParam(required = false) String prefix,
+                                   @RequestParam(required = false) Integer size) {
+        return suggestionService.suggest(prefix, size);
     }
 }
 
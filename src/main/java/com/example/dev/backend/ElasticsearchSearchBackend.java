@@ -0,0 +1,168 @@
+package com.example.dev.backend;
+
+import com.example.dev.cache.BaseFacetCache;
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SearchPagingProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.FacetBucket;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.dto.Teacher;
+import com.example.dev.index.AvailabilityModeSelector;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.service.SearchCursor;
+import com.example.dev.service.SearchMetrics;
+import com.example.dev.service.SearchService;
+import com.example.dev.util.Facets;
+import com.example.dev.util.NativeQueryBuilder;
+import com.example.dev.util.QueryPlan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.UncategorizedElasticsearchException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ElasticsearchSearchBackend implements SearchBackend {
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final BaseFacetCache baseFacetCache;
+    private final IndexGeneration indexGeneration;
+    private final AvailabilityModeSelector availabilityMode;
+    private final SearchPagingProperties pagingProperties;
+    private final RankingProperties rankingProperties;
+    private final SearchMetrics searchMetrics;
+
+    @Override
+    public SearchResponse search(SearchRequestParams params) {
+        if (params.isCursorPaging()) {
+            return searchWithCursor(params);
+        }
+        return params.wantsFacets() ? doFacetedSearch(params, indexGeneration.current()) : doSearch(params);
+    }
+
+    private SearchResponse doSearch(SearchRequestParams params) {
+        var plan = availabilityMode.plan(params);
+        var query = searchMetrics.time(SearchMetrics.STAGE_BUILD, plan.shape(),
+                () -> NativeQueryBuilder.toSearchQuery(plan, params, pagingProperties.trackTotalHitsUpTo(),
+                        rankingProperties));
+
+        var searchHits = execute(plan, params, query);
+        return searchMetrics.time(SearchMetrics.STAGE_MAPPING, plan.shape(),
+                () -> SearchService.buildResponse(params, searchHits));
+    }
+
+    private SearchHits<Teacher> execute(QueryPlan plan, SearchRequestParams params, NativeQuery query) {
+        log.debug("{} query: {}", plan.shape().label(), query.getQuery());
+        return searchMetrics.search(plan.shape(), params, query,
+                () -> elasticsearchOperations.search(query, Teacher.class, Constants.Index.TUTORS));
+    }
+
+    private SearchResponse doFacetedSearch(SearchRequestParams params, long generation) {
+        var plan = availabilityMode.plan(params);
+        var cached = new HashMap<String, List<FacetBucket>>();
+        for (var facet : Facets.FACETS) {
+            if (Facets.isBase(plan, facet)) {
+                baseFacetCache.get(facet.name()).ifPresent(buckets -> cached.put(facet.name(), buckets));
+            }
+        }
+        var query = searchMetrics.time(SearchMetrics.STAGE_BUILD, plan.shape(),
+                () -> NativeQueryBuilder.toFacetedSearchQuery(plan, params, pagingProperties.trackTotalHitsUpTo(),
+                        cached.keySet(), rankingProperties));
+
+        var searchHits = execute(plan, params, query);
+        return searchMetrics.time(SearchMetrics.STAGE_MAPPING, plan.shape(),
+                () -> SearchService.buildResponse(params, searchHits)
+                        .withFacets(mergeFacets(plan, searchHits, cached, generation)));
+    }
+
+    private Map<String, List<FacetBucket>> mergeFacets(QueryPlan plan, SearchHits<Teacher> searchHits,
+                                                       Map<String, List<FacetBucket>> cached, long generation) {
+        var computed = Facets.read(searchHits.getAggregations());
+        var facets = new LinkedHashMap<String, List<FacetBucket>>();
+        for (var facet : Facets.FACETS) {
+            var buckets = cached.get(facet.name());
+            if (buckets == null) {
+                buckets = computed.getOrDefault(facet.name(), List.of());
+                if (Facets.isBase(plan, facet)) {
+                    baseFacetCache.put(facet.name(), buckets, generation);
+                }
+            }
+            facets.put(facet.name(), buckets);
+        }
+        return facets;
+    }
+
+    private SearchResponse searchWithCursor(SearchRequestParams params) {
+        var keepAlive = pagingProperties.pitKeepAlive();
+        var fingerprint = SearchRequestKey.of(params).withoutPaging().hashCode();
+        var cursor = SearchCursor.FIRST.equals(params.cursor().trim())
+                ? null
+                : SearchCursor.decode(params.cursor(), fingerprint);
+
+        var pitId = cursor != null
+                ? cursor.pitId()
+                : elasticsearchOperations.openPointInTime(Constants.Index.TUTORS, keepAlive);
+        var plan = availabilityMode.plan(params);
+        var query = searchMetrics.time(SearchMetrics.STAGE_BUILD, plan.shape(),
+                () -> NativeQueryBuilder.toCursorQuery(plan, params,
+                        new PointInTime(pitId, keepAlive),
+                        cursor != null ? cursor.searchAfter() : null,
+                        cursor != null ? null : pagingProperties.trackTotalHitsUpTo()));
+
+        SearchHits<Teacher> searchHits;
+        try {
+            searchHits = execute(plan, params, query);
+        } catch (RuntimeException e) {
+            if (cursor != null && isMissingPointInTime(e)) {
+                throw SearchCursor.expired();
+            }
+            throw e;
+        }
+        var page = cursor != null ? cursor.page() + 1 : 0;
+        var totalHits = cursor != null ? cursor.totalHits() : searchHits.getTotalHits();
+        var hits = searchHits.getSearchHits();
+        var nextPitId = searchHits.getPointInTimeId() != null ? searchHits.getPointInTimeId() : pitId;
+
+        String nextCursor = null;
+        if (hits.size() == params.size()) {
+            var last = hits.get(hits.size() - 1);
+            nextCursor = new SearchCursor(nextPitId, last.getSortValues(), page, totalHits, fingerprint).encode();
+        } else {
+            elasticsearchOperations.closePointInTime(nextPitId);
+        }
+
+        var pagination = new Pagination(page, hits.size(), totalHits,
+                (int) ((totalHits + params.size() - 1) / params.size()), nextCursor);
+        return searchMetrics.time(SearchMetrics.STAGE_MAPPING, plan.shape(),
+                () -> SearchService.toResponse(params, hits, pagination,
+                        searchHits.getExecutionDuration().toMillis()));
+    }
+
+    /**
+     * Elasticsearch answers a search against an expired or closed point-in-time with 404
+     * ({@code search_context_missing_exception}), which Spring Data translates to {@link ResourceNotFoundException};
+     * a missing index is translated separately.
+     */
+    private static boolean isMissingPointInTime(RuntimeException e) {
+        if (e instanceof NoSuchIndexException) {
+            return false;
+        }
+        return e instanceof ResourceNotFoundException
+                || e instanceof UncategorizedElasticsearchException uncategorized
+                && Integer.valueOf(404).equals(uncategorized.getStatusCode());
+    }
+}
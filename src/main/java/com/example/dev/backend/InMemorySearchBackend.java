@@ -0,0 +1,146 @@
+package com.example.dev.backend;
+
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SearchBackendProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.index.IndexChangedEvent;
+import com.example.dev.service.SearchCursor;
+import com.example.dev.service.SearchMetrics;
+import com.example.dev.service.SearchService;
+import com.example.dev.util.QueryPlan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Answers searches from an {@link InMemoryTutorIndex} loaded from {@code search.backend.file}, without
+ * Elasticsearch. The file is read on first use and again after every {@link IndexChangedEvent}. Cursors carry an
+ * offset into the loaded snapshot instead of a point-in-time, and expire when the snapshot is replaced.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class InMemorySearchBackend implements SearchBackend {
+    private static final String SNAPSHOT_PREFIX = "memory@";
+
+    private final SearchBackendProperties properties;
+    private final RankingProperties rankingProperties;
+    private final SearchMetrics searchMetrics;
+
+    private record Snapshot(InMemoryTutorIndex index, String id) {
+    }
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile Snapshot snapshot;
+
+    @Override
+    public SearchResponse search(SearchRequestParams params) {
+        var current = snapshot();
+        var plan = QueryPlan.forParams(params);
+        return searchMetrics.time(SearchMetrics.STAGE_MEMORY, plan.shape(),
+                () -> params.isCursorPaging()
+                        ? searchWithCursor(current, plan, params)
+                        : search(current, plan, params, rankingProperties));
+    }
+
+    /**
+     * Loads the snapshot now instead of on the first search.
+     *
+     * @return tutors loaded
+     */
+    public int preload() {
+        return snapshot().index().size();
+    }
+
+    /**
+     * True when the request continues a cursor this backend issued.
+     */
+    public static boolean issued(SearchRequestParams params) {
+        if (!params.isCursorPaging() || SearchCursor.FIRST.equals(params.cursor().trim())) {
+            return false;
+        }
+        try {
+            var cursor = SearchCursor.decode(params.cursor(), SearchRequestKey.of(params).withoutPaging().hashCode());
+            return cursor.pitId().startsWith(SNAPSHOT_PREFIX);
+        } catch (BadRequestException e) {
+            return false;
+        }
+    }
+
+    @EventListener(IndexChangedEvent.class)
+    public void invalidate() {
+        snapshot = null;
+    }
+
+    private static SearchResponse search(Snapshot snapshot, QueryPlan plan, SearchRequestParams params,
+                                         RankingProperties ranking) {
+        var result = snapshot.index().search(plan, params, params.page() * params.size(), params.size(),
+                params.wantsFacets(), ranking);
+        var response = SearchService.buildResponse(params, result.hits());
+        return result.facets() == null ? response : response.withFacets(result.facets());
+    }
+
+    private static SearchResponse searchWithCursor(Snapshot snapshot, QueryPlan plan, SearchRequestParams params) {
+        var fingerprint = SearchRequestKey.of(params).withoutPaging().hashCode();
+        var cursor = SearchCursor.FIRST.equals(params.cursor().trim())
+                ? null
+                : SearchCursor.decode(params.cursor(), fingerprint);
+        if (cursor != null && !snapshot.id().equals(cursor.pitId())) {
+            throw SearchCursor.expired();
+        }
+        var offset = cursor == null ? 0 : offset(cursor);
+        var result = snapshot.index().search(plan, params, offset, params.size(), false);
+
+        var page = cursor != null ? cursor.page() + 1 : 0;
+        var totalHits = result.hits().getTotalHits();
+        var hits = result.hits().getSearchHits();
+        var nextOffset = offset + hits.size();
+        var nextCursor = hits.size() == params.size() && nextOffset < totalHits
+                ? new SearchCursor(snapshot.id(), List.of(nextOffset), page, totalHits, fingerprint).encode()
+                : null;
+        var pagination = new Pagination(page, hits.size(), totalHits,
+                (int) ((totalHits + params.size() - 1) / params.size()), nextCursor);
+        return SearchService.toResponse(params, hits, pagination, result.hits().getExecutionDuration().toMillis());
+    }
+
+    private static int offset(SearchCursor cursor) {
+        var searchAfter = cursor.searchAfter();
+        if (searchAfter == null || searchAfter.size() != 1 || !(searchAfter.get(0) instanceof Number offset)
+                || offset.longValue() < 0 || offset.longValue() > Integer.MAX_VALUE) {
+            throw new BadRequestException("invalid cursor");
+        }
+        return offset.intValue();
+    }
+
+    private Snapshot snapshot() {
+        var current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                var started = System.nanoTime();
+                try {
+                    var index = InMemoryTutorIndex.load(properties.file());
+                    snapshot = new Snapshot(index, SNAPSHOT_PREFIX + versions.incrementAndGet());
+                    log.info("loaded {} tutors from {} into the in-memory backend in {} ms", index.size(),
+                            properties.file(), Duration.ofNanos(System.nanoTime() - started).toMillis());
+                } catch (IOException e) {
+                    throw new UncheckedIOException("cannot load tutors from " + properties.file(), e);
+                }
+            }
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,614 @@
+package com.example.dev.backend;
+
+import com.example.dev.config.RankingProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.Availability;
+import com.example.dev.dto.FacetBucket;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.dto.Teacher;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.util.Facets;
+import com.example.dev.util.NativeQueryBuilder;
+import com.example.dev.util.QueryPlan;
+import com.example.dev.util.QueryRule;
+import com.example.dev.util.QueryRules;
+import com.example.dev.util.Ranking;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.dev.constants.Constants.Tutor.*;
+
+/**
+ * Immutable in-process copy of the tutors index that evaluates the same {@link QueryPlan}s as Elasticsearch.
+ * Ratings are a float column; subject, level and availability day are dictionary-encoded with one posting bitset
+ * per value; availability entries are flattened into minute arrays for the overlap check; name and description
+ * each get a {@link TextIndex}. Hits are ordered by score, then by position in the source file.
+ */
+public class InMemoryTutorIndex {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    // Same format as the start_time/end_time mapping.
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+    private static final String INDEX_NAME = Constants.Index.TUTORS.getIndexName();
+    private static final int NO_TIME = -1;
+    private static final int[] NO_ENTRIES = new int[0];
+
+    public record Result(SearchHits<Teacher> hits, Map<String, List<FacetBucket>> facets) {
+    }
+
+    private final Teacher[] teachers;
+    private final float[] ratings;
+    private final Dictionary subjects;
+    private final Dictionary levels;
+    private final Dictionary days;
+    // Availability entries of tutor i are entryOffsets[i] until entryOffsets[i + 1].
+    private final int[] entryOffsets;
+    private final int[] entryDays;
+    private final int[] entryStarts;
+    private final int[] entryEnds;
+    private final int[] entryDocs;
+    // Entry numbers per lower-cased day, so a range with a day only visits that day's entries.
+    private final Map<String, int[]> entriesByDay;
+    private final TextIndex names;
+    private final TextIndex descriptions;
+    // The no_match_size fragment of each description, which most card requests return unchanged.
+    private final List<List<String>> descriptionHeads;
+    private final BitSet all;
+
+    public InMemoryTutorIndex(List<Teacher> tutors) {
+        int count = tutors.size();
+        teachers = tutors.toArray(Teacher[]::new);
+        ratings = new float[count];
+        subjects = new Dictionary(count);
+        levels = new Dictionary(count);
+        days = new Dictionary(count);
+        entryOffsets = new int[count + 1];
+        var entries = tutors.stream()
+                .mapToInt(t -> t.availabilities() == null ? 0 : t.availabilities().size())
+                .sum();
+        entryDays = new int[entries];
+        entryStarts = new int[entries];
+        entryEnds = new int[entries];
+        entryDocs = new int[entries];
+
+        int entry = 0;
+        for (int doc = 0; doc < count; doc++) {
+            var teacher = teachers[doc];
+            ratings[doc] = (float) teacher.rating();
+            subjects.add(doc, teacher.subject());
+            levels.add(doc, teacher.level());
+            entryOffsets[doc] = entry;
+            if (teacher.availabilities() != null) {
+                for (var availability : teacher.availabilities()) {
+                    entryDays[entry] = days.add(doc, availability.day());
+                    entryStarts[entry] = minutes(availability.start());
+                    entryEnds[entry] = minutes(availability.end());
+                    entryDocs[entry] = doc;
+                    entry++;
+                }
+            }
+        }
+        entryOffsets[count] = entry;
+        entriesByDay = new HashMap<>();
+        var byDay = new HashMap<String, List<Integer>>();
+        for (int e = 0; e < entries; e++) {
+            if (entryDays[e] >= 0) {
+                byDay.computeIfAbsent(days.value(entryDays[e]).toLowerCase(Locale.ROOT), d -> new ArrayList<>()).add(e);
+            }
+        }
+        byDay.forEach((day, list) -> entriesByDay.put(day, list.stream().mapToInt(Integer::intValue).toArray()));
+        names = new TextIndex(tutors.stream().map(Teacher::name).toList());
+        descriptions = new TextIndex(tutors.stream().map(Teacher::description).toList());
+        descriptionHeads = tutors.stream().map(t -> highlight(t.description(), Set.of())).toList();
+        all = new BitSet(count);
+        all.set(0, count);
+    }
+
+    /**
+     * Reads a {@code _bulk} file (action line followed by document) or one document per line.
+     */
+    public static InMemoryTutorIndex load(Path file) throws IOException {
+        var tutors = new ArrayList<Teacher>();
+        try (var reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                var node = MAPPER.readTree(line);
+                if (node.size() == 1 && (node.has("index") || node.has("create"))) {
+                    continue;
+                }
+                tutors.add(toTeacher(node));
+            }
+        }
+        return new InMemoryTutorIndex(tutors);
+    }
+
+    static Teacher toTeacher(JsonNode node) {
+        var availabilities = new ArrayList<Availability>();
+        for (var entry : node.path(AVAILABILITY)) {
+            availabilities.add(new Availability(text(entry, "day"),
+                    time(text(entry, "start_time")), time(text(entry, "end_time"))));
+        }
+        return new Teacher(text(node, ID), text(node, NAME), text(node, DESCRIPTION), text(node, SUBJECT),
+                text(node, LEVEL), node.path(RATING).asDouble(), List.copyOf(availabilities));
+    }
+
+    public int size() {
+        return teachers.length;
+    }
+
+    /**
+     * Hits {@code from} until {@code from + size} in relevance order, plus every facet when asked for.
+     */
+    public Result search(QueryPlan plan, SearchRequestParams params, int from, int size, boolean withFacets) {
+        return search(plan, params, from, size, withFacets, null);
+    }
+
+    /**
+     * @param ranking rescoring of text searches, as far as this index can follow {@link Ranking}; null for none
+     */
+    public Result search(QueryPlan plan, SearchRequestParams params, int from, int size, boolean withFacets,
+                         RankingProperties ranking) {
+        var started = System.nanoTime();
+        var matchAll = plan.mustRules().isEmpty() && plan.shouldRules().isEmpty();
+        var scores = matchAll ? null : new float[teachers.length];
+        var matched = matchAll ? all : scoringMatches(plan, params, scores);
+
+        var filters = new LinkedHashMap<String, BitSet>();
+        for (var rule : plan.filterRules()) {
+            filters.put(rule.name(), evaluate(rule, params, null));
+        }
+        var hits = (BitSet) matched.clone();
+        filters.values().forEach(hits::and);
+
+        var facets = withFacets ? facets(matched, filters) : null;
+        var order = order(hits, scores);
+        if (scores != null && Ranking.applies(plan, ranking)) {
+            rescore(order, scores, ranking);
+        }
+        var tokens = params.isCardView() && scores != null ? TextIndex.tokenize(params.query()) : null;
+        var highlighted = tokens == null ? Set.<String>of() : descriptions.matchingTerms(tokens);
+
+        var page = new ArrayList<SearchHit<Teacher>>(Math.max(0, Math.min(size, order.length - from)));
+        for (int i = from; i < order.length && i < from + size; i++) {
+            var doc = order[i];
+            var teacher = teachers[doc];
+            Map<String, List<String>> highlight = params.isCardView()
+                    ? Map.of(DESCRIPTION, highlighted.isEmpty()
+                            ? descriptionHeads.get(doc)
+                            : highlight(teacher.description(), highlighted))
+                    : Map.of();
+            // A query made of filters only scores 0, like a bool query with filter clauses alone.
+            var score = scores != null ? scores[doc] : plan.filterRules().isEmpty() ? 1f : 0f;
+            page.add(new SearchHit<>(INDEX_NAME, teacher.id(), null, score, null, highlight, Map.of(),
+                    null, null, List.of(), teacher));
+        }
+        var maxScore = page.isEmpty() ? Float.NaN : page.get(0).getScore();
+        var took = Duration.ofNanos(System.nanoTime() - started);
+        return new Result(new SearchHitsImpl<>(order.length, TotalHitsRelation.EQUAL_TO, maxScore, took, null, null,
+                page, null, null, null), facets);
+    }
+
+    private BitSet scoringMatches(QueryPlan plan, SearchRequestParams params, float[] scores) {
+        BitSet matched = null;
+        for (var rule : plan.mustRules()) {
+            var docs = evaluate(rule, params, scores);
+            if (matched == null) {
+                matched = docs;
+            } else {
+                matched.and(docs);
+            }
+        }
+        BitSet anyShould = plan.shouldRules().isEmpty() ? null : new BitSet();
+        for (var rule : plan.shouldRules()) {
+            anyShould.or(evaluate(rule, params, scores));
+        }
+        if (matched == null) {
+            return anyShould;
+        }
+        return matched;
+    }
+
+    /**
+     * One rule of {@link NativeQueryBuilder}, by name. Rules added there need a counterpart here.
+     */
+    private BitSet evaluate(QueryRule rule, SearchRequestParams params, float[] scores) {
+        return switch (rule.name()) {
+            case SUBJECT -> subjects.postings(params.subject());
+            case LEVEL -> levels.postings(params.level());
+            case RATING -> atLeast(params.rating());
+            case AVAILABILITY -> available(params.availabilities());
+            case QueryRules.SEARCH_RULE -> text(params.query(), scores != null ? scores : new float[teachers.length]);
+            default -> throw new IllegalStateException("no in-memory evaluation for query rule " + rule.name());
+        };
+    }
+
+    private BitSet atLeast(double rating) {
+        // The rating field is a float, so the bound is compared as one.
+        var floor = (float) rating;
+        var docs = new BitSet(teachers.length);
+        for (int doc = 0; doc < ratings.length; doc++) {
+            if (ratings[doc] >= floor) {
+                docs.set(doc);
+            }
+        }
+        return docs;
+    }
+
+    /**
+     * Tutors with an entry on the day (if given) that ends at or after the range start and starts at or before
+     * the range end, for any of the ranges.
+     */
+    private BitSet available(List<AvailabilityRange> ranges) {
+        var docs = new BitSet(teachers.length);
+        for (var range : ranges) {
+            if (range == null) {
+                continue;
+            }
+            var hasDay = hasText(range.day());
+            int start = hasText(range.startTime()) ? minutes(range.startTime()) : NO_TIME;
+            int end = hasText(range.endTime()) ? minutes(range.endTime()) : NO_TIME;
+            if (!hasDay && start == NO_TIME && end == NO_TIME) {
+                continue;
+            }
+            if (hasDay) {
+                for (var entry : entriesByDay.getOrDefault(range.day().toLowerCase(Locale.ROOT), NO_ENTRIES)) {
+                    if (overlaps(entry, start, end)) {
+                        docs.set(entryDocs[entry]);
+                    }
+                }
+            } else {
+                for (int entry = 0; entry < entryDocs.length; entry++) {
+                    if (overlaps(entry, start, end)) {
+                        docs.set(entryDocs[entry]);
+                    }
+                }
+            }
+        }
+        return docs;
+    }
+
+    private boolean overlaps(int entry, int start, int end) {
+        return (start == NO_TIME || entryEnds[entry] != NO_TIME && entryEnds[entry] >= start)
+                && (end == NO_TIME || entryStarts[entry] != NO_TIME && entryStarts[entry] <= end);
+    }
+
+    /**
+     * {@code most_fields} with operator AND: a tutor matches when one field holds every token, and scores the
+     * sum over the fields that do.
+     */
+    private BitSet text(String query, float[] scores) {
+        var tokens = TextIndex.tokenize(query);
+        var docs = names.score(tokens, scores);
+        docs.or(descriptions.score(tokens, scores));
+        return docs;
+    }
+
+    private int[] order(BitSet hits, float[] scores) {
+        var docs = new int[hits.cardinality()];
+        for (int doc = hits.nextSetBit(0), i = 0; doc >= 0; doc = hits.nextSetBit(doc + 1)) {
+            docs[i++] = doc;
+        }
+        if (scores == null) {
+            return docs;
+        }
+        sort(docs, docs.length, scores);
+        return docs;
+    }
+
+    /**
+     * Re-ranks the top {@code windowSize} hits like the Elasticsearch rescore. There is no popularity column, and
+     * the boosted-field match is approximated by the text score already computed.
+     */
+    private void rescore(int[] order, float[] scores, RankingProperties ranking) {
+        int window = Math.min(order.length, ranking.windowSize());
+        for (int i = 0; i < window; i++) {
+            var doc = order[i];
+            var rescore = 1 + ranking.fieldsWeight() * scores[doc]
+                    + ranking.ratingWeight() * (float) Math.log1p(ratings[doc]);
+            scores[doc] = ranking.queryWeight() * scores[doc] + ranking.rescoreQueryWeight() * rescore;
+        }
+        sort(order, window, scores);
+    }
+
+    /**
+     * Sorts the first {@code length} docs by score descending, then document order, packed into one sortable
+     * long per hit.
+     */
+    private static void sort(int[] docs, int length, float[] scores) {
+        var keys = new long[length];
+        for (int i = 0; i < length; i++) {
+            keys[i] = (long) (Integer.MAX_VALUE - Float.floatToIntBits(scores[docs[i]])) << 32 | docs[i];
+        }
+        Arrays.sort(keys);
+        for (int i = 0; i < length; i++) {
+            docs[i] = (int) keys[i];
+        }
+    }
+
+    /**
+     * Same buckets as {@link Facets#read}: each facet counts the text matches under every filter but its own.
+     */
+    private Map<String, List<FacetBucket>> facets(BitSet matched, Map<String, BitSet> filters) {
+        var facets = new LinkedHashMap<String, List<FacetBucket>>();
+        for (var facet : Facets.FACETS) {
+            var docs = (BitSet) matched.clone();
+            filters.forEach((rule, filter) -> {
+                if (!rule.equals(facet.excludedRule())) {
+                    docs.and(filter);
+                }
+            });
+            facets.put(facet.name(), switch (facet.name()) {
+                case Facets.SUBJECT_FACET -> subjects.terms(docs, Facets.SUBJECT_BUCKETS);
+                case Facets.LEVEL_FACET -> levels.terms(docs, Facets.LEVEL_BUCKETS);
+                case Facets.RATING_FACET -> ratingBuckets(docs);
+                case Facets.DAY_FACET -> dayBuckets(docs);
+                default -> throw new IllegalStateException("no in-memory evaluation for facet " + facet.name());
+            });
+        }
+        return facets;
+    }
+
+    private List<FacetBucket> ratingBuckets(BitSet docs) {
+        var floors = Facets.RATING_FLOORS.stream().sorted().toList();
+        var bounds = floors.stream().mapToDouble(Double::doubleValue).toArray();
+        var counts = new long[bounds.length];
+        for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+            for (int i = 0; i < bounds.length; i++) {
+                if (ratings[doc] >= bounds[i]) {
+                    counts[i]++;
+                }
+            }
+        }
+        var buckets = new ArrayList<FacetBucket>(floors.size());
+        for (int i = 0; i < counts.length; i++) {
+            buckets.add(new FacetBucket(floors.get(i).toString(), counts[i]));
+        }
+        return List.copyOf(buckets);
+    }
+
+    /**
+     * Days are ranked by availability entries, like the nested terms aggregation, and report distinct tutors.
+     */
+    private List<FacetBucket> dayBuckets(BitSet docs) {
+        var entries = new long[days.size()];
+        var tutors = new long[days.size()];
+        var lastTutor = new int[days.size()];
+        Arrays.fill(lastTutor, -1);
+        for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+            for (int entry = entryOffsets[doc]; entry < entryOffsets[doc + 1]; entry++) {
+                var day = entryDays[entry];
+                if (day < 0) {
+                    continue;
+                }
+                entries[day]++;
+                if (lastTutor[day] != doc) {
+                    lastTutor[day] = doc;
+                    tutors[day]++;
+                }
+            }
+        }
+        var buckets = new ArrayList<FacetBucket>();
+        for (var day : days.ranked(entries, Facets.DAY_BUCKETS)) {
+            buckets.add(new FacetBucket(days.value(day), tutors[day]));
+        }
+        return List.copyOf(buckets);
+    }
+
+    /**
+     * One description fragment of at most {@link NativeQueryBuilder#CARD_FRAGMENT_SIZE} characters per match
+     * cluster, up to {@link NativeQueryBuilder#CARD_FRAGMENTS}, HTML-escaped with the matches in {@code <em>}.
+     * Without matches, the start of the description, like {@code no_match_size}.
+     */
+    static List<String> highlight(String text, Set<String> terms) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        var matches = new ArrayList<int[]>();
+        if (!terms.isEmpty()) {
+            TextIndex.tokenize(text, (token, start, end) -> {
+                if (terms.contains(token)) {
+                    matches.add(new int[]{start, end});
+                }
+            });
+        }
+        if (matches.isEmpty()) {
+            return List.of(HtmlUtils.htmlEscape(text.substring(0, fragmentEnd(text, 0, 0))));
+        }
+        var fragments = new ArrayList<String>(NativeQueryBuilder.CARD_FRAGMENTS);
+        int next = 0;
+        while (next < matches.size() && fragments.size() < NativeQueryBuilder.CARD_FRAGMENTS) {
+            int start = fragmentStart(text, matches.get(next)[0]);
+            int end = fragmentEnd(text, start, matches.get(next)[1]);
+            var fragment = new StringBuilder(end - start + 16);
+            int position = start;
+            while (next < matches.size() && matches.get(next)[1] <= end) {
+                var match = matches.get(next++);
+                fragment.append(HtmlUtils.htmlEscape(text.substring(position, match[0])))
+                        .append("<em>").append(HtmlUtils.htmlEscape(text.substring(match[0], match[1])))
+                        .append("</em>");
+                position = match[1];
+            }
+            fragment.append(HtmlUtils.htmlEscape(text.substring(position, end)));
+            fragments.add(fragment.toString().strip());
+        }
+        return List.copyOf(fragments);
+    }
+
+    /**
+     * The start of the sentence holding {@code match} when it is close enough to fit in one fragment.
+     */
+    private static int fragmentStart(String text, int match) {
+        int limit = Math.max(0, match - NativeQueryBuilder.CARD_FRAGMENT_SIZE / 2);
+        for (int i = match - 1; i >= limit; i--) {
+            var c = text.charAt(i);
+            if (c == '\n' || (c == '.' || c == '!' || c == '?') && i + 1 < match) {
+                return i + 1;
+            }
+        }
+        return limit == 0 ? 0 : match;
+    }
+
+    /**
+     * {@code start} plus at most one fragment, cut at a word boundary but never before {@code atLeast}.
+     */
+    private static int fragmentEnd(String text, int start, int atLeast) {
+        int end = Math.min(text.length(), start + NativeQueryBuilder.CARD_FRAGMENT_SIZE);
+        if (end == text.length()) {
+            return end;
+        }
+        for (int i = end; i > Math.max(start, atLeast); i--) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                return i;
+            }
+        }
+        return Math.max(end, atLeast);
+    }
+
+    private static int minutes(LocalTime time) {
+        return time == null ? NO_TIME : time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int minutes(String time) {
+        // Parsed by hand: this runs for every availability range of every request.
+        if (time.length() == 5 && time.charAt(2) == ':') {
+            int hours = digits(time, 0);
+            int minutes = digits(time, 3);
+            if (hours >= 0 && hours < 24 && minutes >= 0 && minutes < 60) {
+                return hours * 60 + minutes;
+            }
+        }
+        throw new BadRequestException("invalid time '" + time + "', expected HH:mm");
+    }
+
+    private static int digits(String text, int at) {
+        var tens = text.charAt(at) - '0';
+        var ones = text.charAt(at + 1) - '0';
+        return tens < 0 || tens > 9 || ones < 0 || ones > 9 ? -1 : tens * 10 + ones;
+    }
+
+    private static LocalTime time(String value) {
+        return value == null ? null : LocalTime.parse(value, TIME);
+    }
+
+    private static String text(JsonNode node, String field) {
+        var value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
+    /**
+     * Keyword column: each distinct value gets an ordinal and a posting bitset. Term queries are case-insensitive,
+     * so lookups go through the lower-cased value, which may cover several ordinals.
+     */
+    private static final class Dictionary {
+        private final int documents;
+        private final List<String> values = new ArrayList<>();
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<BitSet> postings = new ArrayList<>();
+        private final Map<String, BitSet> postingsByLowerCase = new HashMap<>();
+        private final int[] docOrdinals;
+
+        Dictionary(int documents) {
+            this.documents = documents;
+            docOrdinals = new int[documents];
+            Arrays.fill(docOrdinals, -1);
+        }
+
+        /**
+         * @return the value's ordinal, or -1 for null
+         */
+        int add(int doc, String value) {
+            if (value == null) {
+                return -1;
+            }
+            var ordinal = ordinals.computeIfAbsent(value, v -> {
+                values.add(v);
+                postings.add(new BitSet(documents));
+                return values.size() - 1;
+            });
+            postings.get(ordinal).set(doc);
+            postingsByLowerCase.computeIfAbsent(lowerCase(value), v -> new BitSet(documents)).set(doc);
+            // Availability days are multi-valued; the column only serves single-valued subject and level.
+            docOrdinals[doc] = ordinal;
+            return ordinal;
+        }
+
+        int size() {
+            return values.size();
+        }
+
+        String value(int ordinal) {
+            return values.get(ordinal);
+        }
+
+        /**
+         * A copy the caller may modify.
+         */
+        BitSet postings(String value) {
+            var docs = postingsByLowerCase.get(lowerCase(value));
+            return docs == null ? new BitSet() : (BitSet) docs.clone();
+        }
+
+        List<FacetBucket> terms(BitSet docs, int size) {
+            var counts = new long[values.size()];
+            for (int doc = docs.nextSetBit(0); doc >= 0; doc = docs.nextSetBit(doc + 1)) {
+                if (docOrdinals[doc] >= 0) {
+                    counts[docOrdinals[doc]]++;
+                }
+            }
+            var buckets = new ArrayList<FacetBucket>();
+            for (var ordinal : ranked(counts, size)) {
+                buckets.add(new FacetBucket(values.get(ordinal), counts[ordinal]));
+            }
+            return List.copyOf(buckets);
+        }
+
+        /**
+         * Ordinals with a non-zero count, highest count first and ties by value, like a terms aggregation.
+         */
+        List<Integer> ranked(long[] counts, int size) {
+            var ranked = new ArrayList<Integer>();
+            for (int ordinal = 0; ordinal < counts.length; ordinal++) {
+                if (counts[ordinal] > 0) {
+                    ranked.add(ordinal);
+                }
+            }
+            ranked.sort((a, b) -> counts[a] != counts[b]
+                    ? Long.compare(counts[b], counts[a])
+                    : values.get(a).compareTo(values.get(b)));
+            return ranked.size() > size ? ranked.subList(0, size) : ranked;
+        }
+
+        private static String lowerCase(String value) {
+            return value.toLowerCase(Locale.ROOT);
+        }
+    }
+}
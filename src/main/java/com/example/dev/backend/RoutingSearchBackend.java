@@ -0,0 +1,94 @@
+package com.example.dev.backend;
+
+import com.example.dev.config.SearchBackendProperties;
+import com.example.dev.config.SearchBackendProperties.Mode;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.resilience.SearchGuard;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * The {@link SearchBackend} the application uses, picked by {@code search.backend.mode}. Every Elasticsearch call
+ * runs through {@link SearchGuard#protect}. In {@code failover} mode a search is answered in memory when that call
+ * fails for any reason other than a bad request, including when the guard refuses it, so an open breaker sends
+ * searches straight to memory instead of waiting on the cluster. The first failure is logged, later ones only until
+ * Elasticsearch answers again. Those answers
+ * come from the file snapshot rather than the index, so they are marked {@link SearchResponse#stale()} and never
+ * cached against the index generation.
+ */
+@Component
+@Primary
+@RequiredArgsConstructor
+@Slf4j
+public class RoutingSearchBackend implements SearchBackend {
+    private final ElasticsearchSearchBackend elasticsearch;
+    private final InMemorySearchBackend memory;
+    private final SearchBackendProperties properties;
+    private final SearchGuard searchGuard;
+
+    private final AtomicBoolean failingOver = new AtomicBoolean();
+
+    @Override
+    public SearchResponse search(SearchRequestParams params) {
+        // Cursors are bound to the backend that issued them.
+        if (isFailover() && InMemorySearchBackend.issued(params)) {
+            return memory.search(params).asStale();
+        }
+        return route(() -> elasticsearch.search(params),
+                () -> isFailover() ? memory.search(params).asStale() : memory.search(params));
+    }
+
+    /**
+     * True when the in-memory backend only stands in for a failing Elasticsearch.
+     */
+    public boolean isFailover() {
+        return properties.mode() == Mode.FAILOVER;
+    }
+
+    /**
+     * Runs {@code onElasticsearch} or {@code inMemory} the way {@link #search} would route a request.
+     */
+    public <T> T route(Supplier<T> onElasticsearch, Supplier<T> inMemory) {
+        return switch (properties.mode()) {
+            case ELASTICSEARCH -> searchGuard.protect(onElasticsearch);
+            case MEMORY -> inMemory.get();
+            case FAILOVER -> failover(() -> searchGuard.protect(onElasticsearch), inMemory);
+        };
+    }
+
+    private <T> T failover(Supplier<T> onElasticsearch, Supplier<T> inMemory) {
+        T result;
+        try {
+            result = onElasticsearch.get();
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            if (failingOver.compareAndSet(false, true)) {
+                log.warn("Elasticsearch search failed, answering from the in-memory backend", e);
+            } else {
+                log.debug("Elasticsearch search failed again: {}", e.toString());
+            }
+            return inMemory.get();
+        }
+        if (failingOver.compareAndSet(true, false)) {
+            log.info("Elasticsearch is answering again, leaving the in-memory backend");
+        }
+        return result;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        if (properties.mode() != Mode.ELASTICSEARCH) {
+            log.info("search backend mode {}, {} tutors in memory", properties.mode(), memory.preload());
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.dev.backend;
+
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+
+/**
+ * Engine underneath {@link com.example.dev.service.SearchService}. Implementations answer one request completely,
+ * including facets, {@code view=card} and cursor paging; caching and coalescing stay in the service.
+ */
+public interface SearchBackend {
+
+    SearchResponse search(SearchRequestParams params);
+}
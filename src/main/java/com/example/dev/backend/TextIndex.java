@@ -0,0 +1,235 @@
+package com.example.dev.backend;
+
+import com.example.dev.constants.Constants;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Inverted index over one text field, standing in for a {@code match} query with the fuzziness of
+ * {@link Constants.Fuzzy}: every query token must match, either exactly or as a term within one edit that shares
+ * its first {@link Constants.Fuzzy#PREFIX_LENGTH} characters. Scores are BM25 with Lucene's defaults, fuzzy
+ * expansions discounted the way {@code FuzzyQuery} does.
+ */
+class TextIndex {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_EDITS = Integer.parseInt(Constants.Fuzzy.LEVEL);
+    private static final int MAX_EXPANSIONS = 50;
+    private static final int EXPANSION_CACHE_LIMIT = 10_000;
+
+    interface TokenConsumer {
+        void accept(String token, int start, int end);
+    }
+
+    /**
+     * @param termIds matching terms, exact match first
+     * @param boosts  score multiplier per term, 1 for the exact one
+     */
+    private record Expansion(int[] termIds, float[] boosts) {
+    }
+
+    // Sorted, so the terms sharing a prefix are one contiguous range.
+    private final String[] terms;
+    private final int[][] postings;
+    // Precomputed BM25 weight of the term in each posting.
+    private final float[][] weights;
+    private final int documents;
+    private final Map<String, Expansion> expansions = new ConcurrentHashMap<>();
+
+    TextIndex(List<String> values) {
+        documents = values.size();
+        var lengths = new int[documents];
+        var frequencies = new TreeMap<String, Map<Integer, Integer>>();
+        long totalLength = 0;
+        for (int doc = 0; doc < documents; doc++) {
+            for (var token : tokenize(values.get(doc))) {
+                frequencies.computeIfAbsent(token, t -> new HashMap<>()).merge(doc, 1, Integer::sum);
+                lengths[doc]++;
+            }
+            totalLength += lengths[doc];
+        }
+        var averageLength = documents == 0 ? 1f : Math.max(1f, (float) totalLength / documents);
+
+        terms = frequencies.keySet().toArray(String[]::new);
+        postings = new int[terms.length][];
+        weights = new float[terms.length][];
+        for (int term = 0; term < terms.length; term++) {
+            var docs = frequencies.get(terms[term]);
+            var idf = (float) Math.log(1 + (documents - docs.size() + 0.5) / (docs.size() + 0.5));
+            postings[term] = docs.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+            weights[term] = new float[postings[term].length];
+            for (int i = 0; i < postings[term].length; i++) {
+                int doc = postings[term][i];
+                float tf = docs.get(doc);
+                weights[term][i] = idf * tf / (tf + K1 * (1 - B + B * lengths[doc] / averageLength));
+            }
+        }
+    }
+
+    /**
+     * Adds this field's score to {@code scores} for every document containing all {@code tokens}.
+     *
+     * @return the documents that matched
+     */
+    BitSet score(List<String> tokens, float[] scores) {
+        if (tokens.isEmpty()) {
+            return new BitSet();
+        }
+        var fieldScores = new float[documents];
+        var best = new float[documents];
+        BitSet matched = null;
+        for (var token : tokens) {
+            var expansion = expand(token);
+            var tokenDocs = new BitSet(documents);
+            for (int k = 0; k < expansion.termIds().length; k++) {
+                var docs = postings[expansion.termIds()[k]];
+                var termWeights = weights[expansion.termIds()[k]];
+                var boost = expansion.boosts()[k];
+                for (int i = 0; i < docs.length; i++) {
+                    var score = boost * termWeights[i];
+                    if (!tokenDocs.get(docs[i]) || score > best[docs[i]]) {
+                        best[docs[i]] = score;
+                        tokenDocs.set(docs[i]);
+                    }
+                }
+            }
+            for (int doc = tokenDocs.nextSetBit(0); doc >= 0; doc = tokenDocs.nextSetBit(doc + 1)) {
+                fieldScores[doc] += best[doc];
+            }
+            if (matched == null) {
+                matched = tokenDocs;
+            } else {
+                matched.and(tokenDocs);
+            }
+            if (matched.isEmpty()) {
+                return matched;
+            }
+        }
+        for (int doc = matched.nextSetBit(0); doc >= 0; doc = matched.nextSetBit(doc + 1)) {
+            scores[doc] += fieldScores[doc];
+        }
+        return matched;
+    }
+
+    /**
+     * Every indexed term some of the {@code tokens} match, for highlighting.
+     */
+    Set<String> matchingTerms(Collection<String> tokens) {
+        var matching = new HashSet<String>();
+        for (var token : tokens) {
+            for (var termId : expand(token).termIds()) {
+                matching.add(terms[termId]);
+            }
+        }
+        return matching;
+    }
+
+    private Expansion expand(String token) {
+        var cached = expansions.get(token);
+        if (cached != null) {
+            return cached;
+        }
+        var expansion = computeExpansion(token);
+        if (expansions.size() < EXPANSION_CACHE_LIMIT) {
+            expansions.putIfAbsent(token, expansion);
+        }
+        return expansion;
+    }
+
+    private Expansion computeExpansion(String token) {
+        var prefix = token.substring(0, Math.min(Constants.Fuzzy.PREFIX_LENGTH, token.length()));
+        int first = Arrays.binarySearch(terms, prefix);
+        var candidates = new ArrayList<int[]>();
+        for (int term = first < 0 ? -first - 1 : first; term < terms.length && terms[term].startsWith(prefix); term++) {
+            int edits = edits(token, terms[term]);
+            if (edits == 0 || edits <= MAX_EDITS && boost(token, terms[term], edits) > 0) {
+                candidates.add(new int[]{edits, term});
+            }
+        }
+        candidates.sort((a, b) -> a[0] != b[0] ? Integer.compare(a[0], b[0]) : Integer.compare(a[1], b[1]));
+
+        int count = Math.min(candidates.size(), MAX_EXPANSIONS);
+        var termIds = new int[count];
+        var boosts = new float[count];
+        for (int i = 0; i < count; i++) {
+            termIds[i] = candidates.get(i)[1];
+            boosts[i] = boost(token, terms[termIds[i]], candidates.get(i)[0]);
+        }
+        return new Expansion(termIds, boosts);
+    }
+
+    private static float boost(String token, String term, int edits) {
+        return edits == 0 ? 1f : 1f - (float) edits / Math.min(token.length(), term.length());
+    }
+
+    /**
+     * Optimal string alignment distance, exact up to one edit; anything further apart is reported as 2.
+     */
+    static int edits(String a, String b) {
+        if (a.equals(b)) {
+            return 0;
+        }
+        if (Math.abs(a.length() - b.length()) > 1) {
+            return 2;
+        }
+        int i = 0;
+        int shorter = Math.min(a.length(), b.length());
+        while (i < shorter && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (a.length() != b.length()) {
+            var longer = a.length() > b.length() ? a : b;
+            var other = longer == a ? b : a;
+            return longer.regionMatches(i + 1, other, i, other.length() - i) ? 1 : 2;
+        }
+        if (a.regionMatches(i + 1, b, i + 1, a.length() - i - 1)) {
+            return 1;
+        }
+        boolean transposed = i + 1 < a.length() && a.charAt(i) == b.charAt(i + 1) && a.charAt(i + 1) == b.charAt(i)
+                && a.regionMatches(i + 2, b, i + 2, a.length() - i - 2);
+        return transposed ? 1 : 2;
+    }
+
+    /**
+     * Lower-cased runs of letters and digits, apostrophes inside a word included, roughly what the standard
+     * analyzer emits for the catalog's English text.
+     */
+    static List<String> tokenize(String text) {
+        var tokens = new ArrayList<String>();
+        tokenize(text, (token, start, end) -> tokens.add(token));
+        return tokens;
+    }
+
+    static void tokenize(String text, TokenConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            while (i < length && !Character.isLetterOrDigit(text.charAt(i))) {
+                i++;
+            }
+            int start = i;
+            while (i < length && (Character.isLetterOrDigit(text.charAt(i))
+                    || text.charAt(i) == '\'' && i > start && i + 1 < length
+                    && Character.isLetterOrDigit(text.charAt(i + 1)))) {
+                i++;
+            }
+            if (i > start) {
+                consumer.accept(text.substring(start, i).toLowerCase(Locale.ROOT), start, i);
+            }
+        }
+    }
+}
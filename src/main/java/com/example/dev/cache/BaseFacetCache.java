@@ -0,0 +1,57 @@
+package com.example.dev.cache;
+
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.dto.FacetBucket;
+import com.example.dev.index.IndexChangedEvent;
+import com.example.dev.index.IndexGeneration;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Facet counts over the whole index, shared by every request without a text query or other filters
+ * (see {@link com.example.dev.util.Facets#isBase}). One entry per facet, tied to the index generation.
+ */
+@Component
+@RequiredArgsConstructor
+public class BaseFacetCache {
+    private final SearchCacheProperties properties;
+    private final IndexGeneration indexGeneration;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private record Entry(List<FacetBucket> buckets, long generation, long expiresAt) {
+    }
+
+    public Optional<List<FacetBucket>> get(String facet) {
+        if (!properties.enabled()) {
+            return Optional.empty();
+        }
+        var entry = entries.get(facet);
+        if (entry == null || entry.generation() != indexGeneration.current()
+                || System.nanoTime() - entry.expiresAt() >= 0) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.buckets());
+    }
+
+    public void put(String facet, List<FacetBucket> buckets, long generation) {
+        if (properties.enabled() && generation == indexGeneration.current()) {
+            entries.put(facet, new Entry(buckets, generation, System.nanoTime() + properties.ttl().toNanos()));
+        }
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    @EventListener
+    public void onIndexChanged(IndexChangedEvent event) {
+        invalidateAll();
+    }
+}
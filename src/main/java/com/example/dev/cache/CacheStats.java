@@ -0,0 +1,10 @@
+package com.example.dev.cache;
+
+public record CacheStats(long size, long hits, long misses, long evictions, long expirations,
+                         long invalidations, long generation) {
+
+    public double hitRatio() {
+        var lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.dev.cache;
+
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Canonical form of {@link SearchRequestParams}: strings are trimmed and lower-cased, blank values
+ * collapse to null and availabilities are sorted, so equivalent requests share one key.
+ */
+public record SearchRequestKey(String query, String subject, String level, Double rating,
+                               List<Range> availabilities, Integer page, Integer size, String cursor,
+                               boolean facets, boolean cardView) {
+
+    private static final Comparator<Range> RANGE_ORDER = Comparator
+            .comparing(Range::day, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Range::startTime, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Range::endTime, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    public record Range(String day, String startTime, String endTime) {
+    }
+
+    public static SearchRequestKey of(SearchRequestParams params) {
+        return new SearchRequestKey(
+                normalize(params.query()),
+                normalize(params.subject()),
+                normalize(params.level()),
+                params.rating(),
+                normalize(params.availabilities()),
+                params.page(),
+                params.size(),
+                params.isCursorPaging() ? params.cursor().trim() : null,
+                params.wantsFacets(),
+                params.isCardView()
+        );
+    }
+
+    /**
+     * The same request with page, cursor, facets and view dropped: identifies the result set that is being paged
+     * through.
+     */
+    public SearchRequestKey withoutPaging() {
+        return new SearchRequestKey(query, subject, level, rating, availabilities, null, size, null, false, false);
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        var trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<Range> normalize(List<AvailabilityRange> availabilities) {
+        if (availabilities == null || availabilities.isEmpty()) {
+            return List.of();
+        }
+        return availabilities.stream()
+                .filter(Objects::nonNull)
+                .map(a -> new Range(normalize(a.day()), normalize(a.startTime()), normalize(a.endTime())))
+                .filter(r -> r.day() != null || r.startTime() != null || r.endTime() != null)
+                .sorted(RANGE_ORDER)
+                .distinct()
+                .toList();
+    }
+}
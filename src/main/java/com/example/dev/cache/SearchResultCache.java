@@ -0,0 +1,196 @@
+package com.example.dev.cache;
+
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.index.IndexChangedEvent;
+import com.example.dev.index.IndexGeneration;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded LRU cache of {@link SearchResponse}s keyed by {@link SearchRequestKey}.
+ * Entries expire after the configured TTL and are dropped as soon as the index generation moves. Each entry is also
+ * indexed by the tutors among its hits, so an update to a few tutors drops their entries without a scan.
+ */
+@Component
+@Slf4j
+public class SearchResultCache {
+    private final SearchCacheProperties properties;
+    private final IndexGeneration indexGeneration;
+    private final LongSupplier clock;
+    private final Map<SearchRequestKey, Entry> entries;
+    // Both guarded by entries.
+    private final Map<String, Set<SearchRequestKey>> byTutor = new HashMap<>();
+    private final Set<SearchRequestKey> faceted = new HashSet<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    private record Entry(SearchResponse response, long generation, long expiresAt) {
+    }
+
+    @Autowired
+    public SearchResultCache(SearchCacheProperties properties, IndexGeneration indexGeneration) {
+        this(properties, indexGeneration, System::nanoTime);
+    }
+
+    SearchResultCache(SearchCacheProperties properties, IndexGeneration indexGeneration, LongSupplier clock) {
+        this.properties = properties;
+        this.indexGeneration = indexGeneration;
+        this.clock = clock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<SearchRequestKey, Entry> eldest) {
+                if (size() > properties.maxSize()) {
+                    evictions.increment();
+                    unindex(eldest.getKey(), eldest.getValue().response());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled() && properties.maxSize() > 0;
+    }
+
+    public Optional<SearchResponse> get(SearchRequestKey key) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+        var generation = indexGeneration.current();
+        synchronized (entries) {
+            var entry = entries.get(key);
+            if (entry == null) {
+                misses.increment();
+                return Optional.empty();
+            }
+            if (entry.generation() != generation || clock.getAsLong() - entry.expiresAt() >= 0) {
+                remove(key);
+                expirations.increment();
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(entry.response());
+        }
+    }
+
+    public void put(SearchRequestKey key, SearchResponse response, long generation) {
+        if (!isEnabled() || generation != indexGeneration.current()) {
+            // The response was computed against an older index; caching it would resurrect stale data.
+            return;
+        }
+        var entry = new Entry(response, generation, clock.getAsLong() + properties.ttl().toNanos());
+        synchronized (entries) {
+            var previous = entries.put(key, entry);
+            if (previous != null) {
+                unindex(key, previous.response());
+            }
+            index(key, response);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            byTutor.clear();
+            faceted.clear();
+        }
+        invalidations.increment();
+    }
+
+    /**
+     * Drops the entries whose hits include any of the tutors, plus every entry carrying facet counts, which a change
+     * to any tutor can shift. Leaves the rest of the cache warm; results the change would newly let a tutor into
+     * age out with the TTL.
+     *
+     * @return entries dropped
+     */
+    public int invalidateTutors(Set<String> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        synchronized (entries) {
+            var keys = new HashSet<>(faceted);
+            for (var id : ids) {
+                keys.addAll(byTutor.getOrDefault(id, Set.of()));
+            }
+            for (var key : keys) {
+                remove(key);
+            }
+            return keys.size();
+        }
+    }
+
+    private void remove(SearchRequestKey key) {
+        var entry = entries.remove(key);
+        if (entry != null) {
+            unindex(key, entry.response());
+        }
+    }
+
+    private void index(SearchRequestKey key, SearchResponse response) {
+        if (response.facets() != null) {
+            faceted.add(key);
+        }
+        for (var id : tutorIds(response)) {
+            byTutor.computeIfAbsent(id, i -> new HashSet<>()).add(key);
+        }
+    }
+
+    private void unindex(SearchRequestKey key, SearchResponse response) {
+        faceted.remove(key);
+        for (var id : tutorIds(response)) {
+            var keys = byTutor.get(id);
+            if (keys != null && keys.remove(key) && keys.isEmpty()) {
+                byTutor.remove(id);
+            }
+        }
+    }
+
+    private static Set<String> tutorIds(SearchResponse response) {
+        var ids = new HashSet<String>();
+        if (response.teachers() != null) {
+            for (var teacher : response.teachers()) {
+                ids.add(teacher.id());
+            }
+        }
+        if (response.cards() != null) {
+            for (var card : response.cards()) {
+                ids.add(card.id());
+            }
+        }
+        return ids;
+    }
+
+    @EventListener
+    public void onIndexChanged(IndexChangedEvent event) {
+        log.debug("invalidating search result cache for generation {}", event.generation());
+        invalidateAll();
+    }
+
+    public CacheStats stats() {
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return new CacheStats(size, hits.sum(), misses.sum(), evictions.sum(), expirations.sum(),
+                invalidations.sum(), indexGeneration.current());
+    }
+}
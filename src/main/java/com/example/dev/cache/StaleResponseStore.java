@@ -0,0 +1,138 @@
+package com.example.dev.cache;
+
+import com.example.dev.config.SearchResilienceProperties;
+import com.example.dev.dto.SearchResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Last good {@link SearchResponse} per request, kept to answer with while the backend cannot. Unlike
+ * {@link SearchResultCache} entries outlive index reloads and updates: an answer that is a little old beats an error.
+ * <p>
+ * Written on every fresh search, so it takes no global lock. It is bounded by the approximate heap of its responses
+ * rather than their number, and pages over {@code search.resilience.stale-max-entry} are not kept at all. When full,
+ * the oldest of a few sampled entries make room; this is a fallback, not a cache, so approximate order is enough.
+ */
+@Component
+public class StaleResponseStore {
+    private static final int EVICTION_SAMPLE = 8;
+    // Rough per-object costs of the JSON-shaped records, headers and references included.
+    private static final int OBJECT_BYTES = 48;
+    private static final int CHAR_BYTES = 2;
+
+    private final SearchResilienceProperties properties;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<SearchRequestKey, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong bytes = new AtomicLong();
+
+    private record Entry(SearchResponse response, long storedAt, long bytes) {
+    }
+
+    @Autowired
+    public StaleResponseStore(SearchResilienceProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    StaleResponseStore(SearchResilienceProperties properties, LongSupplier clock) {
+        this.properties = properties;
+        this.clock = clock;
+    }
+
+    public void put(SearchRequestKey key, SearchResponse response) {
+        var weight = weigh(response);
+        if (weight > properties.staleMaxEntry().toBytes() || weight > properties.staleMaxBytes().toBytes()) {
+            return;
+        }
+        var previous = entries.put(key, new Entry(response, clock.getAsLong(), weight));
+        bytes.addAndGet(weight - (previous == null ? 0 : previous.bytes()));
+        while (bytes.get() > properties.staleMaxBytes().toBytes() && !entries.isEmpty()) {
+            evictOldestOfSample();
+        }
+    }
+
+    /**
+     * @return the last good response, already marked {@link SearchResponse#stale()}
+     */
+    public Optional<SearchResponse> get(SearchRequestKey key) {
+        var entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (clock.getAsLong() - entry.storedAt() > properties.staleMaxAge().toNanos()) {
+            remove(key, entry);
+            return Optional.empty();
+        }
+        return Optional.of(entry.response().asStale());
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long bytes() {
+        return bytes.get();
+    }
+
+    private void evictOldestOfSample() {
+        SearchRequestKey oldestKey = null;
+        Entry oldest = null;
+        int sampled = 0;
+        for (var it = entries.entrySet().iterator(); it.hasNext() && sampled < EVICTION_SAMPLE; sampled++) {
+            var candidate = it.next();
+            if (oldest == null || candidate.getValue().storedAt() - oldest.storedAt() < 0) {
+                oldestKey = candidate.getKey();
+                oldest = candidate.getValue();
+            }
+        }
+        if (oldest != null) {
+            remove(oldestKey, oldest);
+        }
+    }
+
+    private void remove(SearchRequestKey key, Entry entry) {
+        if (entries.remove(key, entry)) {
+            bytes.addAndGet(-entry.bytes());
+        }
+    }
+
+    static long weigh(SearchResponse response) {
+        long weight = OBJECT_BYTES * 2L;
+        if (response.teachers() != null) {
+            for (var teacher : response.teachers()) {
+                weight += OBJECT_BYTES + chars(teacher.id()) + chars(teacher.name()) + chars(teacher.description())
+                        + chars(teacher.subject()) + chars(teacher.level());
+                if (teacher.availabilities() != null) {
+                    weight += (long) teacher.availabilities().size() * OBJECT_BYTES * 3;
+                }
+            }
+        }
+        if (response.cards() != null) {
+            for (var card : response.cards()) {
+                weight += OBJECT_BYTES + chars(card.id()) + chars(card.name()) + chars(card.subject())
+                        + chars(card.level());
+                if (card.highlights() != null) {
+                    for (var highlight : card.highlights()) {
+                        weight += chars(highlight);
+                    }
+                }
+            }
+        }
+        if (response.facets() != null) {
+            for (var buckets : response.facets().values()) {
+                for (var bucket : buckets) {
+                    weight += OBJECT_BYTES + chars(bucket.value());
+                }
+            }
+        }
+        return weight;
+    }
+
+    private static long chars(String value) {
+        return value == null ? 0 : OBJECT_BYTES + (long) value.length() * CHAR_BYTES;
+    }
+}
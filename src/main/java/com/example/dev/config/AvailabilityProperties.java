@@ -0,0 +1,15 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param mode {@code slots} or {@code nested} to force a filter strategy; {@code auto} uses slots whenever the
+ *             serving index maps {@code availability_slots}
+ */
+@ConfigurationProperties(prefix = "search.availability")
+public record AvailabilityProperties(@DefaultValue("auto") Mode mode) {
+    public enum Mode {
+        AUTO, SLOTS, NESTED
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "search.bulk")
+public record BulkLoadProperties(@DefaultValue("data-loader/teachers_bulk.json") Path file,
+                                 @DefaultValue("false") boolean loadOnStartup,
+                                 @DefaultValue("1000") int batchDocs,
+                                 @DefaultValue("5MB") DataSize batchBytes,
+                                 @DefaultValue("4") int concurrency,
+                                 @DefaultValue("6") int maxRetries,
+                                 @DefaultValue("200ms") Duration initialBackoff,
+                                 @DefaultValue("10s") Duration maxBackoff) {
+}
@@ -0,0 +1,23 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.List;
+
+/**
+ * Settings for versioned tutor indices ({@code teachers_v1}, {@code teachers_v2}...) behind the read alias.
+ *
+ * @param retainVersions  previous versions kept after a swap, for quick rollback
+ * @param refreshInterval refresh interval once a version is serving
+ * @param replicas        replica count once a version is serving
+ * @param warmupSubjects  subjects queried against a new version before it takes traffic
+ */
+@ConfigurationProperties(prefix = "search.index")
+public record IndexVersionProperties(@DefaultValue("1") int retainVersions,
+                                     @DefaultValue("1s") String refreshInterval,
+                                     @DefaultValue("1") String replicas,
+                                     @DefaultValue("true") boolean forceMerge,
+                                     @DefaultValue({"Mathematics", "Physics", "English Literature"})
+                                     List<String> warmupSubjects) {
+}
@@ -0,0 +1,30 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Second-pass ranking of free-text searches, run as a {@code rescore} over each shard's top {@code windowSize}
+ * hits. Filter-only searches are never rescored.
+ *
+ * @param queryWeight        weight of the original text score
+ * @param rescoreQueryWeight weight of the rescore query as a whole
+ * @param fieldsWeight       boost of the query matched against the boosted name, description, subject and level
+ * @param ratingWeight       weight of {@code log1p(rating)}
+ * @param popularityField    numeric field holding a popularity or recency signal; blank when the index has none
+ * @param popularityWeight   weight of {@code log1p(popularityField)}; 0 leaves it out
+ */
+@ConfigurationProperties(prefix = "search.ranking")
+public record RankingProperties(@DefaultValue("true") boolean enabled,
+                                @DefaultValue("50") int windowSize,
+                                @DefaultValue("1.0") float queryWeight,
+                                @DefaultValue("1.0") float rescoreQueryWeight,
+                                @DefaultValue("1.0") float fieldsWeight,
+                                @DefaultValue("1.0") float ratingWeight,
+                                @DefaultValue("") String popularityField,
+                                @DefaultValue("0") float popularityWeight) {
+
+    public boolean hasPopularity() {
+        return popularityField != null && !popularityField.isBlank() && popularityWeight > 0;
+    }
+}
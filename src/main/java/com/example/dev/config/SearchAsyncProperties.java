@@ -0,0 +1,19 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maxInFlight    searches running or queued at once; anything beyond is rejected with 503 instead of queueing
+ * @param threads        platform threads running searches when virtual threads are off or unavailable
+ * @param virtualThreads run each search on a virtual thread when the JVM supports them (Java 21+)
+ * @param timeout        per-request deadline; the caller gets 504 once it passes
+ */
+@ConfigurationProperties(prefix = "search.async")
+public record SearchAsyncProperties(@DefaultValue("256") int maxInFlight,
+                                    @DefaultValue("64") int threads,
+                                    @DefaultValue("true") boolean virtualThreads,
+                                    @DefaultValue("2s") Duration timeout) {
+}
@@ -0,0 +1,19 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+/**
+ * @param mode {@code elasticsearch} only, {@code memory} to serve everything from the in-process engine, or
+ *             {@code failover} to use Elasticsearch and fall back to the in-process engine while it fails
+ * @param file tutors the in-process engine loads, in the same format as {@code search.bulk.file}
+ */
+@ConfigurationProperties(prefix = "search.backend")
+public record SearchBackendProperties(@DefaultValue("elasticsearch") Mode mode,
+                                      @DefaultValue("data-loader/teachers_bulk.json") Path file) {
+    public enum Mode {
+        ELASTICSEARCH, MEMORY, FAILOVER
+    }
+}
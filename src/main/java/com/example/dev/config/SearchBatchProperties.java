@@ -0,0 +1,11 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param maxSize searches accepted in one {@code POST /api/search/batch}; larger batches are rejected with 400
+ */
+@ConfigurationProperties(prefix = "search.batch")
+public record SearchBatchProperties(@DefaultValue("20") int maxSize) {
+}
@@ -0,0 +1,12 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "search.cache")
+public record SearchCacheProperties(@DefaultValue("true") boolean enabled,
+                                    @DefaultValue("10000") int maxSize,
+                                    @DefaultValue("60s") Duration ttl) {
+}
@@ -0,0 +1,69 @@
+package com.example.dev.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@Slf4j
+public class SearchExecutorConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService searchExecutor(SearchAsyncProperties properties) {
+        if (properties.virtualThreads()) {
+            var virtual = virtualThreadExecutor();
+            if (virtual != null) {
+                log.info("searches run on virtual threads");
+                return virtual;
+            }
+            log.info("virtual threads need Java 21+, searches run on {} platform threads", properties.threads());
+        }
+        var threadNumber = new AtomicInteger();
+        return Executors.newFixedThreadPool(properties.threads(), runnable -> {
+            var thread = new Thread(runnable, "search-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs the backend calls {@link com.example.dev.resilience.SearchGuard} waits on. Unbounded on purpose: every
+     * call holds a concurrency-limit permit, so at most {@code search.resilience.max-limit} threads exist.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService searchBackendExecutor(SearchAsyncProperties properties) {
+        if (properties.virtualThreads()) {
+            var virtual = virtualThreadExecutor();
+            if (virtual != null) {
+                return virtual;
+            }
+        }
+        var threadNumber = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            var thread = new Thread(runnable, "search-backend-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Looked up reflectively so the project still builds and runs on Java 17.
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            var factory = MethodHandles.publicLookup().findStatic(Executors.class, "newVirtualThreadPerTaskExecutor",
+                    MethodType.methodType(ExecutorService.class));
+            return (ExecutorService) factory.invoke();
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        } catch (Throwable e) {
+            throw new IllegalStateException("cannot create virtual thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching of {@code GET /api/search}.
+ *
+ * @param etags          send ETags and answer matching {@code If-None-Match} with 304
+ * @param maxAge         how long browsers and shared caches may reuse a filter-only page without asking again
+ * @param versionRefresh how often the index version behind the tags is re-read, to notice other replicas' changes
+ */
+@ConfigurationProperties(prefix = "search.http")
+public record SearchHttpProperties(@DefaultValue("true") boolean etags,
+                                   @DefaultValue("30s") Duration maxAge,
+                                   @DefaultValue("5s") Duration versionRefresh) {
+}
@@ -0,0 +1,89 @@
+package com.example.dev.config;
+
+import com.example.dev.dto.BatchSearchResponse;
+import com.example.dev.dto.SearchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@RequiredArgsConstructor
+public class SearchMetricsConfig implements WebMvcConfigurer {
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+
+    /**
+     * Puts the timed converter ahead of Boot's, which keeps reading and writing every other JSON body.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(0, new TimedSearchResponseConverter(objectMapper, registry));
+    }
+
+    /**
+     * Writes {@link SearchResponse} and {@link BatchSearchResponse} bodies, timing each as
+     * {@code search.serialization{response=<type>}}. Reads nothing.
+     */
+    static class TimedSearchResponseConverter extends MappingJackson2HttpMessageConverter {
+        private final MeterRegistry registry;
+        private final Map<Class<?>, Timer> timers = new ConcurrentHashMap<>();
+
+        TimedSearchResponseConverter(ObjectMapper objectMapper, MeterRegistry registry) {
+            super(objectMapper);
+            this.registry = registry;
+        }
+
+        @Override
+        public boolean canRead(Class<?> clazz, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+            return false;
+        }
+
+        @Override
+        public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+            return isSearchResponse(clazz) && super.canWrite(clazz, mediaType);
+        }
+
+        @Override
+        public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+            return canWrite(clazz, mediaType);
+        }
+
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+            var timer = timers.computeIfAbsent(object.getClass(), c -> Timer.builder("search.serialization")
+                    .tag("response", c.getSimpleName())
+                    .publishPercentileHistogram()
+                    .register(registry));
+            var started = System.nanoTime();
+            try {
+                super.writeInternal(object, type, outputMessage);
+            } finally {
+                timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private static boolean isSearchResponse(Class<?> clazz) {
+            return clazz != null && (SearchResponse.class.isAssignableFrom(clazz)
+                    || BatchSearchResponse.class.isAssignableFrom(clazz));
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param trackTotalHitsUpTo hits are counted exactly up to this number; later cursor pages skip counting entirely
+ * @param pitKeepAlive       how long a point-in-time stays open between two cursor pages
+ */
+@ConfigurationProperties(prefix = "search.paging")
+public record SearchPagingProperties(@DefaultValue("10000") int trackTotalHitsUpTo,
+                                     @DefaultValue("1m") Duration pitKeepAlive) {
+}
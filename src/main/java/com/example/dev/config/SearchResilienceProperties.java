@@ -0,0 +1,42 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * Protection of the search backend call (see {@link com.example.dev.resilience.SearchGuard}).
+ *
+ * @param enabled          guard backend calls; when off they run on the caller's thread without limits
+ * @param deadline         longest a caller waits for one backend call; keep it below {@code search.async.timeout}
+ *                         so a stale answer can still be sent
+ * @param initialLimit     concurrent backend calls allowed at startup
+ * @param minLimit         floor the limit backs off to
+ * @param maxLimit         ceiling the limit grows to
+ * @param slowCall         a call slower than this counts as congestion and shrinks the limit
+ * @param windowSize       recent calls the circuit breaker judges; it opens once the window is full
+ * @param failureRate      share of failed or timed-out calls in the window that opens the breaker
+ * @param openFor          how long an open breaker refuses calls before letting probes through
+ * @param halfOpenCalls    probes that must all succeed to close the breaker again
+ * @param staleMaxBytes    approximate heap for the last good responses kept to answer with while the backend
+ *                         cannot
+ * @param staleMaxEntry    responses larger than this (big pages, facets) are not kept
+ * @param staleMaxAge      oldest response still served as stale
+ */
+@ConfigurationProperties(prefix = "search.resilience")
+public record SearchResilienceProperties(@DefaultValue("true") boolean enabled,
+                                         @DefaultValue("1s") Duration deadline,
+                                         @DefaultValue("20") int initialLimit,
+                                         @DefaultValue("2") int minLimit,
+                                         @DefaultValue("200") int maxLimit,
+                                         @DefaultValue("500ms") Duration slowCall,
+                                         @DefaultValue("20") int windowSize,
+                                         @DefaultValue("0.5") double failureRate,
+                                         @DefaultValue("5s") Duration openFor,
+                                         @DefaultValue("3") int halfOpenCalls,
+                                         @DefaultValue("64MB") DataSize staleMaxBytes,
+                                         @DefaultValue("256KB") DataSize staleMaxEntry,
+                                         @DefaultValue("10m") Duration staleMaxAge) {
+}
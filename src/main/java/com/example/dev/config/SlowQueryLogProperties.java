@@ -0,0 +1,17 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param threshold   searches slower than this, measured around the Elasticsearch call, are logged
+ * @param minInterval at most one slow search per query shape is logged in this interval; the rest are counted
+ * @param profile     re-run each logged search once with {@code profile: true} and log the profile
+ */
+@ConfigurationProperties(prefix = "search.slowlog")
+public record SlowQueryLogProperties(@DefaultValue("500ms") Duration threshold,
+                                     @DefaultValue("60s") Duration minInterval,
+                                     @DefaultValue("true") boolean profile) {
+}
@@ -0,0 +1,21 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param trieSize          top suggestions by weight kept in memory
+ * @param maxTrackedQueries distinct search queries counted between two flushes; more are dropped until the next one
+ * @param minQueryCount     times a query must be searched before it is offered as a suggestion
+ * @param refreshInterval   how often counted queries are flushed to the index and the trie rebuilt
+ */
+@ConfigurationProperties(prefix = "search.suggest")
+public record SuggestProperties(@DefaultValue("10000") int trieSize,
+                                @DefaultValue("50000") int maxTrackedQueries,
+                                @DefaultValue("2") int minQueryCount,
+                                @DefaultValue("5") int defaultSize,
+                                @DefaultValue("20") int maxSize,
+                                @DefaultValue("60s") Duration refreshInterval) {
+}
@@ -0,0 +1,33 @@
+package com.example.dev.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Incremental tutor updates (see {@code POST /api/admin/tutors/updates}).
+ *
+ * @param window          how long updates are collected, and repeated updates to one tutor merged, before they
+ *                        are sent
+ * @param batchDocs       partial updates per {@code _bulk} request
+ * @param maxPending      tutors waiting to be sent before new updates are refused with 503
+ * @param maxRetries      attempts for an update Elasticsearch pushes back (429, 5xx, version conflict)
+ * @param refresh         when updates become searchable: {@code none} waits for the index refresh interval,
+ *                        {@code wait-for} holds each batch until a refresh makes it visible, {@code immediate}
+ *                        forces a refresh per batch (freshest, and the most expensive for the cluster)
+ * @param visibilityDelay with {@code refresh=none}, how long after a batch its tutors are dropped from the result
+ *                        cache a second time, once the index refresh has made the change visible
+ */
+@ConfigurationProperties(prefix = "search.updates")
+public record TutorUpdateProperties(@DefaultValue("250ms") Duration window,
+                                    @DefaultValue("1000") int batchDocs,
+                                    @DefaultValue("100000") int maxPending,
+                                    @DefaultValue("3") int maxRetries,
+                                    @DefaultValue("none") Refresh refresh,
+                                    @DefaultValue("1s") Duration visibilityDelay) {
+
+    public enum Refresh {
+        NONE, WAIT_FOR, IMMEDIATE
+    }
+}
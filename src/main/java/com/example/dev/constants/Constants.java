@@ -7,6 +7,7 @@ import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
 public class Constants {
     public static class Index {
         public static final IndexCoordinates SUGGESTION = IndexCoordinates.of("suggestions");
+        // Read alias; the data lives in versioned indices (teachers_v1, teachers_v2...) managed by TutorIndexManager
         public static final IndexCoordinates TUTORS = IndexCoordinates.of("teachers");
     }
 
@@ -31,5 +32,7 @@ public class Constants {
         public static final String AVAILABILITY_DAY = "availability.day";
         public static final String AVAILABILITY_START = "availability.start_time";
         public static final String AVAILABILITY_END = "availability.end_time";
+        public static final String AVAILABILITY_SLOTS = "availability_slots";
+        public static final String UPDATED_AT = "updated_at";
     }
 }
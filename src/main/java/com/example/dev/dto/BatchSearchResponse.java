@@ -0,0 +1,9 @@
+package com.example.dev.dto;
+
+import java.util.List;
+
+/**
+ * @param results one entry per requested search, in request order
+ */
+public record BatchSearchResponse(List<BatchSearchResult> results, long timeTaken) {
+}
@@ -0,0 +1,19 @@
+package com.example.dev.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one search in a batch: either {@code response}, or the HTTP-style {@code status} and {@code error}
+ * that search alone would have failed with.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchSearchResult(SearchResponse response, Integer status, String error) {
+
+    public static BatchSearchResult of(SearchResponse response) {
+        return new BatchSearchResult(response, null, null);
+    }
+
+    public static BatchSearchResult failed(int status, String error) {
+        return new BatchSearchResult(null, status, error);
+    }
+}
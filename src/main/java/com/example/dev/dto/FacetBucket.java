@@ -0,0 +1,7 @@
+package com.example.dev.dto;
+
+/**
+ * @param count tutors matching the request with this value, ignoring the request's own filter on the facet
+ */
+public record FacetBucket(String value, long count) {
+}
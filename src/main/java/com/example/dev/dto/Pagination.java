@@ -1,4 +1,11 @@
 package com.example.dev.dto;
 
-public record Pagination(int page, int size, long totalElements, int totalPages) {
+/**
+ * @param nextCursor token for the following page in cursor mode, null on the last page or in page/size mode
+ */
+public record Pagination(int page, int size, long totalElements, int totalPages, String nextCursor) {
+
+    public Pagination(int page, int size, long totalElements, int totalPages) {
+        this(page, size, totalElements, totalPages, null);
+    }
 }
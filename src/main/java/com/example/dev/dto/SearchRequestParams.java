@@ -4,9 +4,113 @@ import org.springframework.boot.context.properties.bind.DefaultValue;
 
 import java.util.List;
 
+/**
+ * @param cursor opaque token from {@link Pagination#nextCursor()}; pass {@code *} to start cursor paging,
+ *               leave empty for classic page/size paging
+ * @param facets include {@link SearchResponse#facets()} counts
+ * @param view   {@code card} returns {@link TeacherCard}s with highlighted description fragments,
+ *               anything else full {@link Teacher} documents
+ */
 public record SearchRequestParams(String query, String subject, String level, Double rating,
-                                  List<AvailabilityRange> availabilities, Integer page, @DefaultValue("10") Integer size) {
+                                  List<AvailabilityRange> availabilities, Integer page, @DefaultValue("10") Integer size,
+                                  String cursor, Boolean facets, String view) {
+    public static final String CARD_VIEW = "card";
+
     public record AvailabilityRange(String day, String startTime, String endTime) {
     }
 
+    /**
+     * Starts a request for page 0 with 10 results and nothing else set, for code that builds searches itself.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Builder toBuilder() {
+        return new Builder().query(query).subject(subject).level(level).rating(rating).availabilities(availabilities)
+                .page(page).size(size).cursor(cursor).facets(facets).view(view);
+    }
+
+    public boolean isCursorPaging() {
+        return cursor != null && !cursor.isBlank();
+    }
+
+    public boolean wantsFacets() {
+        return Boolean.TRUE.equals(facets);
+    }
+
+    public boolean isCardView() {
+        return view != null && CARD_VIEW.equalsIgnoreCase(view.trim());
+    }
+
+    public static final class Builder {
+        private String query;
+        private String subject;
+        private String level;
+        private Double rating;
+        private List<AvailabilityRange> availabilities;
+        private Integer page = 0;
+        private Integer size = 10;
+        private String cursor;
+        private Boolean facets;
+        private String view;
+
+        private Builder() {
+        }
+
+        public Builder query(String query) {
+            this.query = query;
+            return this;
+        }
+
+        public Builder subject(String subject) {
+            this.subject = subject;
+            return this;
+        }
+
+        public Builder level(String level) {
+            this.level = level;
+            return this;
+        }
+
+        public Builder rating(Double rating) {
+            this.rating = rating;
+            return this;
+        }
+
+        public Builder availabilities(List<AvailabilityRange> availabilities) {
+            this.availabilities = availabilities;
+            return this;
+        }
+
+        public Builder page(Integer page) {
+            this.page = page;
+            return this;
+        }
+
+        public Builder size(Integer size) {
+            this.size = size;
+            return this;
+        }
+
+        public Builder cursor(String cursor) {
+            this.cursor = cursor;
+            return this;
+        }
+
+        public Builder facets(Boolean facets) {
+            this.facets = facets;
+            return this;
+        }
+
+        public Builder view(String view) {
+            this.view = view;
+            return this;
+        }
+
+        public SearchRequestParams build() {
+            return new SearchRequestParams(query, subject, level, rating, availabilities, page, size, cursor, facets,
+                    view);
+        }
+    }
 }
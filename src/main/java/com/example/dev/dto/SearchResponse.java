@@ -1,6 +1,38 @@
 package com.example.dev.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
+import java.util.Map;
+
+/**
+ * @param teachers full documents, null for {@code view=card}
+ * @param cards    lean projections, only for {@code view=card}
+ * @param facets   buckets per facet name ({@code subject}, {@code level}, {@code rating}, {@code day}); only present
+ *                 when the request asked for them
+ * @param stale    true when the answer may lag the index: the last good response to the same request, replayed
+ *                 while the backend cannot answer, or a failover answer from the in-process snapshot
+ */
+public record SearchResponse(@JsonInclude(JsonInclude.Include.NON_NULL) List<Teacher> teachers,
+                             Pagination pagination, long timeTaken,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) Map<String, List<FacetBucket>> facets,
+                             @JsonInclude(JsonInclude.Include.NON_NULL) List<TeacherCard> cards,
+                             @JsonInclude(JsonInclude.Include.NON_DEFAULT) boolean stale) {
+
+    public SearchResponse(List<Teacher> teachers, Pagination pagination, long timeTaken) {
+        this(teachers, pagination, timeTaken, null, null);
+    }
+
+    public SearchResponse(List<Teacher> teachers, Pagination pagination, long timeTaken,
+                          Map<String, List<FacetBucket>> facets, List<TeacherCard> cards) {
+        this(teachers, pagination, timeTaken, facets, cards, false);
+    }
+
+    public SearchResponse withFacets(Map<String, List<FacetBucket>> facets) {
+        return new SearchResponse(teachers, pagination, timeTaken, facets, cards, stale);
+    }
 
-public record SearchResponse(List<Teacher> teachers, Pagination pagination, long timeTaken) {
+    public SearchResponse asStale() {
+        return new SearchResponse(teachers, pagination, timeTaken, facets, cards, true);
+    }
 }
@@ -0,0 +1,9 @@
+package com.example.dev.dto;
+
+import java.util.List;
+
+/**
+ * @param source {@code memory} when answered from the in-process trie, {@code elasticsearch} otherwise
+ */
+public record SuggestResponse(List<Suggestion> suggestions, String source, long timeTaken) {
+}
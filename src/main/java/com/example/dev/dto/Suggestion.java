@@ -0,0 +1,7 @@
+package com.example.dev.dto;
+
+/**
+ * @param type where the term comes from: {@code name}, {@code subject} or {@code query}
+ */
+public record Suggestion(String text, String type, long weight) {
+}
@@ -0,0 +1,13 @@
+package com.example.dev.dto;
+
+import java.util.List;
+
+/**
+ * Result list projection of {@link Teacher}: no availabilities, and the description reduced to a few fragments.
+ *
+ * @param highlights HTML-escaped description fragments with query matches wrapped in {@code <em>}; the opening
+ *                   of the description when nothing matched
+ */
+public record TeacherCard(String id, String name, String subject, String level, double rating,
+                          List<String> highlights) {
+}
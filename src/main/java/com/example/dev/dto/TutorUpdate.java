@@ -0,0 +1,25 @@
+package com.example.dev.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Partial change to one tutor. Fields left null keep their indexed value.
+ *
+ * @param availability the complete new weekly availability, in the {@code _bulk} document format
+ */
+public record TutorUpdate(String id, Double rating, List<Slot> availability) {
+
+    public record Slot(String day, @JsonProperty("start_time") String startTime,
+                       @JsonProperty("end_time") String endTime) {
+    }
+
+    /**
+     * This update with the fields set in {@code later} taking precedence.
+     */
+    public TutorUpdate merge(TutorUpdate later) {
+        return new TutorUpdate(id, later.rating != null ? later.rating : rating,
+                later.availability != null ? later.availability : availability);
+    }
+}
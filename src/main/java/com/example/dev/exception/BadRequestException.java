@@ -1,5 +1,9 @@
 package com.example.dev.exception;
 
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
 public class BadRequestException extends RuntimeException{
     public BadRequestException(String message) {
         super(message);
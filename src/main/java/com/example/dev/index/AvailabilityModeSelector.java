@@ -0,0 +1,53 @@
+package com.example.dev.index;
+
+import com.example.dev.config.AvailabilityProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.util.QueryPlan;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Switches availability filters between slot keywords and nested queries. Indices loaded by older loaders have
+ * no {@code availability_slots}, so in {@code auto} mode the mapping of the serving index decides. Searches against
+ * the serving index take their {@link QueryPlan} from here so the plan carries the mode.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class AvailabilityModeSelector {
+    private final AvailabilityProperties properties;
+    private final BulkIndexClient client;
+
+    private volatile boolean useSlots;
+
+    @EventListener({ApplicationReadyEvent.class, IndexChangedEvent.class})
+    public void select() {
+        useSlots = switch (properties.mode()) {
+            case SLOTS -> true;
+            case NESTED -> false;
+            case AUTO -> servingIndexHasSlots();
+        };
+        log.info("availability filters use {}", useSlots ? "slot keywords" : "nested queries");
+    }
+
+    public QueryPlan plan(SearchRequestParams params) {
+        return QueryPlan.forParams(params, useSlots);
+    }
+
+    private boolean servingIndexHasSlots() {
+        try {
+            return client.mappedFields(Constants.Index.TUTORS.getIndexName())
+                    .contains(Constants.Tutor.AVAILABILITY_SLOTS);
+        } catch (IOException | RuntimeException e) {
+            log.warn("cannot read mapping of '{}', falling back to nested availability queries: {}",
+                    Constants.Index.TUTORS.getIndexName(), e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.dev.index;
+
+import com.example.dev.constants.Constants;
+import com.example.dev.util.AvailabilitySlots;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+
+/**
+ * Adds the {@code availability_slots} keywords to a tutor document before it is indexed.
+ */
+public class AvailabilitySlotEnricher {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public static BulkDocument enrich(BulkDocument document) {
+        try {
+            var node = MAPPER.readTree(document.source());
+            if (!(node instanceof ObjectNode tutor) || !tutor.has(Constants.Tutor.AVAILABILITY)) {
+                return document;
+            }
+            enrich(tutor);
+            return new BulkDocument(document.id(), MAPPER.writeValueAsBytes(tutor));
+        } catch (IOException e) {
+            throw new UncheckedIOException("cannot read tutor document " + document.id(), e);
+        }
+    }
+
+    public static void enrich(ObjectNode tutor) {
+        var entries = new ArrayList<String[]>();
+        for (var slot : tutor.path(Constants.Tutor.AVAILABILITY)) {
+            entries.add(new String[]{text(slot, "day"), text(slot, "start_time"), text(slot, "end_time")});
+        }
+        var slots = tutor.putArray(Constants.Tutor.AVAILABILITY_SLOTS);
+        AvailabilitySlots.slotsFor(entries).forEach(slots::add);
+    }
+
+    private static String text(JsonNode node, String field) {
+        var value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
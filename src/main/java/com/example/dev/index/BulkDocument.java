@@ -0,0 +1,7 @@
+package com.example.dev.index;
+
+/**
+ * One tutor document exactly as read from the input, so it can be forwarded without re-serializing.
+ */
+public record BulkDocument(String id, byte[] source) {
+}
@@ -0,0 +1,74 @@
+package com.example.dev.index;
+
+import com.example.dev.config.TutorUpdateProperties;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * The few Elasticsearch calls the indexing side needs (bulk loads, versioned indices and the read alias),
+ * kept narrow so it can run against a stub.
+ */
+public interface BulkIndexClient {
+
+    boolean exists(String index) throws IOException;
+
+    /**
+     * Creates the index with the tutors mapping and the given settings.
+     */
+    void createIndex(String index, IndexingSettings settings) throws IOException;
+
+    void deleteIndex(String index) throws IOException;
+
+    /**
+     * Names of the concrete indices matching a wildcard pattern; empty if none match.
+     */
+    Set<String> indicesMatching(String pattern) throws IOException;
+
+    /**
+     * Indices the alias currently points at; empty if the alias does not exist.
+     */
+    Set<String> aliasTargets(String alias) throws IOException;
+
+    /**
+     * Atomically points the alias at {@code index} and detaches it from {@code previous}. If a concrete index
+     * already owns the alias name it is dropped in the same request, which migrates unversioned setups.
+     */
+    void swapAlias(String alias, String index, Collection<String> previous, boolean dropConcreteIndex) throws IOException;
+
+    /**
+     * Top-level fields mapped in every index behind the name (an alias may point at several).
+     */
+    Set<String> mappedFields(String index) throws IOException;
+
+    /**
+     * Merges a freshly loaded, read-mostly index down to one segment.
+     */
+    void forceMerge(String index) throws IOException;
+
+    /**
+     * Highest value of a numeric or date field among the searchable documents, or empty when none has one.
+     */
+    OptionalLong max(String index, String field) throws IOException;
+
+    IndexingSettings getIndexingSettings(String index) throws IOException;
+
+    void putIndexingSettings(String index, IndexingSettings settings) throws IOException;
+
+    /**
+     * Indexes the batch and returns one HTTP status per document, in batch order.
+     * A rejected request as a whole is reported as every item having that status.
+     */
+    int[] bulk(String index, List<BulkDocument> documents) throws IOException;
+
+    /**
+     * Applies partial documents to existing tutors and returns one HTTP status per document, in batch order, like
+     * {@link #bulk}. Tutors that do not exist are reported as 404 and not created.
+     */
+    int[] update(String index, List<BulkDocument> partials, TutorUpdateProperties.Refresh refresh) throws IOException;
+
+    void refresh(String index) throws IOException;
+}
@@ -0,0 +1,267 @@
+package com.example.dev.index;
+
+import com.example.dev.config.BulkLoadProperties;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Streams newline-delimited tutors into Elasticsearch. Accepts either {@code _bulk} files (action line followed by
+ * document) or one document per line. Batches are bounded by document count and bytes, several are kept in flight,
+ * and items rejected with 429 are retried with exponential backoff. A batch that fails outright stops the load as soon
+ * as the reader notices, without reading the rest of the file. Documents get their availability slot keywords
+ * added on the way (see {@link AvailabilitySlotEnricher}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BulkIndexer {
+    private static final int TOO_MANY_REQUESTS = 429;
+    private static final Set<String> ACTIONS = Set.of("index", "create");
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final BulkIndexClient client;
+    private final BulkLoadProperties properties;
+
+    public BulkLoadReport load(Path file, String index) throws IOException {
+        try (var input = Files.newInputStream(file)) {
+            return load(input, index);
+        }
+    }
+
+    public BulkLoadReport load(InputStream input, String index) throws IOException {
+        var started = System.nanoTime();
+        if (!client.exists(index)) {
+            client.createIndex(index, IndexingSettings.DEFAULT);
+        }
+        var original = client.getIndexingSettings(index);
+        client.putIndexingSettings(index, IndexingSettings.BULK_LOAD);
+
+        var load = new Load(index);
+        try {
+            load.run(new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8)));
+        } finally {
+            client.putIndexingSettings(index, original);
+        }
+        client.refresh(index);
+
+        var report = load.report(Duration.ofNanos(System.nanoTime() - started));
+        log.info("bulk load into '{}' finished: {} docs, {} failed, {} batches, {} retries in {} ms ({} docs/s)",
+                index, report.documents(), report.failed(), report.batches(), report.retries(),
+                report.elapsed().toMillis(), Math.round(report.docsPerSecond()));
+        return report;
+    }
+
+    private class Load {
+        private final String index;
+        private final Semaphore inFlight = new Semaphore(properties.concurrency());
+        private final List<Future<?>> pending = new ArrayList<>();
+        private final LongAdder indexed = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final AtomicInteger batches = new AtomicInteger();
+
+        Load(String index) {
+            this.index = index;
+        }
+
+        void run(BufferedReader reader) throws IOException {
+            var threadNumber = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(properties.concurrency(), runnable -> {
+                var thread = new Thread(runnable, "bulk-" + index + "-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                readBatches(reader, executor);
+                for (var future : pending) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("bulk load into '" + index + "' interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IOException("bulk load into '" + index + "' failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        private void readBatches(BufferedReader reader, ExecutorService executor)
+                throws IOException, InterruptedException, ExecutionException {
+            var batch = new ArrayList<BulkDocument>(properties.batchDocs());
+            long batchBytes = 0;
+            String actionId = null;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                var bytes = line.getBytes(StandardCharsets.UTF_8);
+                var parsed = parseLine(bytes);
+                if (parsed.action()) {
+                    actionId = parsed.id();
+                    continue;
+                }
+                batch.add(new BulkDocument(actionId != null ? actionId : parsed.id(), bytes));
+                batchBytes += bytes.length;
+                actionId = null;
+
+                if (batch.size() >= properties.batchDocs() || batchBytes >= properties.batchBytes().toBytes()) {
+                    submit(batch, executor);
+                    batch = new ArrayList<>(properties.batchDocs());
+                    batchBytes = 0;
+                }
+            }
+            if (!batch.isEmpty()) {
+                submit(batch, executor);
+            }
+        }
+
+        private void submit(List<BulkDocument> batch, ExecutorService executor)
+                throws InterruptedException, ExecutionException {
+            // Blocks the reader once `concurrency` batches are in flight, which is the backpressure on the input.
+            inFlight.acquire();
+            checkCompleted();
+            batches.incrementAndGet();
+            pending.add(executor.submit(() -> {
+                try {
+                    send(enrich(batch));
+                    return null;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+
+        /**
+         * Rethrows the failure of any batch that has finished, so a broken load stops while the file is still being
+         * read; finished batches are dropped from {@code pending}.
+         */
+        private void checkCompleted() throws InterruptedException, ExecutionException {
+            for (var it = pending.iterator(); it.hasNext(); ) {
+                var future = it.next();
+                if (future.isDone()) {
+                    future.get();
+                    it.remove();
+                }
+            }
+        }
+
+        private List<BulkDocument> enrich(List<BulkDocument> batch) {
+            var enriched = new ArrayList<BulkDocument>(batch.size());
+            for (var document : batch) {
+                enriched.add(AvailabilitySlotEnricher.enrich(document));
+            }
+            return enriched;
+        }
+
+        private void send(List<BulkDocument> batch) throws IOException, InterruptedException {
+            var remaining = batch;
+            var backoff = properties.initialBackoff();
+            for (int attempt = 0; ; attempt++) {
+                var statuses = client.bulk(index, remaining);
+                var rejected = new ArrayList<BulkDocument>();
+                for (int i = 0; i < statuses.length; i++) {
+                    var status = statuses[i];
+                    if (status == TOO_MANY_REQUESTS) {
+                        rejected.add(remaining.get(i));
+                    } else if (status >= 200 && status < 300) {
+                        indexed.increment();
+                    } else {
+                        failed.increment();
+                        log.warn("document {} rejected by '{}' with status {}", remaining.get(i).id(), index, status);
+                    }
+                }
+                if (rejected.isEmpty()) {
+                    return;
+                }
+                if (attempt >= properties.maxRetries()) {
+                    failed.add(rejected.size());
+                    log.warn("giving up on {} documents for '{}' after {} retries", rejected.size(), index, attempt);
+                    return;
+                }
+                retries.increment();
+                sleep(backoff);
+                backoff = backoff.multipliedBy(2).compareTo(properties.maxBackoff()) > 0
+                        ? properties.maxBackoff()
+                        : backoff.multipliedBy(2);
+                remaining = rejected;
+            }
+        }
+
+        private static void sleep(Duration backoff) throws InterruptedException {
+            var millis = backoff.toMillis();
+            // Full jitter (anywhere up to the backoff) so concurrent batches don't retry in lockstep.
+            Thread.sleep(millis <= 0 ? 0 : ThreadLocalRandom.current().nextLong(0, millis + 1));
+        }
+
+        BulkLoadReport report(Duration elapsed) {
+            return new BulkLoadReport(index, indexed.sum(), failed.sum(), batches.get(), retries.sum(), elapsed);
+        }
+    }
+
+    private record ParsedLine(boolean action, String id) {
+    }
+
+    /**
+     * Reads just enough of a line to tell an action from a document and to find its id; the rest is skipped.
+     */
+    static ParsedLine parseLine(byte[] line) {
+        try (var parser = JSON.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("expected a JSON object per line");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                var field = parser.currentName();
+                var token = parser.nextToken();
+                if (ACTIONS.contains(field) && token == JsonToken.START_OBJECT) {
+                    return new ParsedLine(true, findField(parser, "_id"));
+                }
+                if ("id".equals(field) && token.isScalarValue()) {
+                    return new ParsedLine(false, parser.getText());
+                }
+                parser.skipChildren();
+            }
+            return new ParsedLine(false, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("malformed bulk line", e);
+        }
+    }
+
+    private static String findField(JsonParser parser, String name) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            var token = parser.nextToken();
+            if (name.equals(field) && token.isScalarValue()) {
+                return parser.getText();
+            }
+            parser.skipChildren();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.dev.index;
+
+import java.time.Duration;
+
+public record BulkLoadReport(String index, long documents, long failed, long batches, long retries, Duration elapsed) {
+
+    public double docsPerSecond() {
+        var millis = elapsed.toMillis();
+        return millis == 0 ? documents : documents * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.dev.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Builds the first tutors index version from {@code search.bulk.file} when the cluster has none,
+ * replacing the curl loader for local setups.
+ */
+@Component
+@ConditionalOnProperty(prefix = "search.bulk", name = "load-on-startup", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class BulkLoadRunner implements ApplicationRunner {
+    private final TutorIndexManager tutorIndexManager;
+    private final BulkIndexClient bulkIndexClient;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        var alias = TutorIndexManager.alias();
+        if (bulkIndexClient.exists(alias)) {
+            log.info("'{}' already exists, skipping startup load", alias);
+            return;
+        }
+        tutorIndexManager.rebuild();
+    }
+}
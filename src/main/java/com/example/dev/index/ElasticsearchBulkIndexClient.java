@@ -0,0 +1,228 @@
+package com.example.dev.index;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.ElasticsearchException;
+import co.elastic.clients.elasticsearch._types.Refresh;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.indices.IndexSettings;
+import co.elastic.clients.elasticsearch.indices.update_aliases.Action;
+import co.elastic.clients.transport.TransportException;
+import co.elastic.clients.util.BinaryData;
+import com.example.dev.config.TutorUpdateProperties;
+import lombok.RequiredArgsConstructor;
+import org.elasticsearch.client.ResponseException;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+@Component
+@RequiredArgsConstructor
+public class ElasticsearchBulkIndexClient implements BulkIndexClient {
+    public static final String MAPPING_RESOURCE = "elasticsearch/teachers-mapping.json";
+    private static final String CONTENT_TYPE = "application/json";
+    private static final int UPDATE_RETRIES_ON_CONFLICT = 3;
+    private static final byte[] UPDATE_DOC_PREFIX = "{\"doc\":".getBytes(StandardCharsets.UTF_8);
+    private static final int TOO_MANY_REQUESTS = 429;
+
+    private final ElasticsearchClient client;
+
+    @Override
+    public boolean exists(String index) throws IOException {
+        return client.indices().exists(e -> e.index(index)).value();
+    }
+
+    @Override
+    public void createIndex(String index, IndexingSettings settings) throws IOException {
+        try (var mapping = new ClassPathResource(MAPPING_RESOURCE).getInputStream()) {
+            client.indices().create(c -> c.index(index)
+                    .mappings(m -> m.withJson(mapping))
+                    .settings(toIndexSettings(settings)));
+        }
+    }
+
+    @Override
+    public void deleteIndex(String index) throws IOException {
+        client.indices().delete(d -> d.index(index));
+    }
+
+    @Override
+    public Set<String> indicesMatching(String pattern) throws IOException {
+        return client.indices().get(g -> g.index(pattern).allowNoIndices(true).ignoreUnavailable(true))
+                .result()
+                .keySet();
+    }
+
+    @Override
+    public Set<String> aliasTargets(String alias) throws IOException {
+        if (!client.indices().existsAlias(e -> e.name(alias)).value()) {
+            return Set.of();
+        }
+        return client.indices().getAlias(g -> g.name(alias)).result().keySet();
+    }
+
+    @Override
+    public void swapAlias(String alias, String index, Collection<String> previous, boolean dropConcreteIndex)
+            throws IOException {
+        var actions = new ArrayList<Action>();
+        actions.add(Action.of(a -> a.add(add -> add.index(index).alias(alias))));
+        for (var old : previous) {
+            actions.add(Action.of(a -> a.remove(remove -> remove.index(old).alias(alias))));
+        }
+        if (dropConcreteIndex) {
+            actions.add(Action.of(a -> a.removeIndex(remove -> remove.index(alias))));
+        }
+        client.indices().updateAliases(u -> u.actions(actions));
+    }
+
+    @Override
+    public Set<String> mappedFields(String index) throws IOException {
+        Set<String> common = null;
+        for (var mapping : client.indices().getMapping(g -> g.index(index)).result().values()) {
+            var fields = new HashSet<>(mapping.mappings().properties().keySet());
+            if (common == null) {
+                common = fields;
+            } else {
+                common.retainAll(fields);
+            }
+        }
+        return common == null ? Set.of() : common;
+    }
+
+    @Override
+    public void forceMerge(String index) throws IOException {
+        client.indices().forcemerge(f -> f.index(index).maxNumSegments(1L));
+    }
+
+    @Override
+    public OptionalLong max(String index, String field) throws IOException {
+        var response = client.search(s -> s.index(index).size(0)
+                .aggregations(field, a -> a.max(m -> m.field(field))), Void.class);
+        var value = response.aggregations().get(field).max().value();
+        return Double.isFinite(value) ? OptionalLong.of((long) value) : OptionalLong.empty();
+    }
+
+    @Override
+    public IndexingSettings getIndexingSettings(String index) throws IOException {
+        var state = client.indices().getSettings(g -> g.index(index)).get(index);
+        var settings = state == null ? null : state.settings();
+        if (settings != null && settings.index() != null) {
+            settings = settings.index();
+        }
+        if (settings == null) {
+            return IndexingSettings.DEFAULT;
+        }
+        var refreshInterval = settings.refreshInterval() == null
+                ? IndexingSettings.DEFAULT.refreshInterval()
+                : settings.refreshInterval().time();
+        var replicas = settings.numberOfReplicas() == null
+                ? IndexingSettings.DEFAULT.numberOfReplicas()
+                : settings.numberOfReplicas();
+        return new IndexingSettings(refreshInterval, replicas);
+    }
+
+    @Override
+    public void putIndexingSettings(String index, IndexingSettings settings) throws IOException {
+        client.indices().putSettings(p -> p.index(index).settings(toIndexSettings(settings)));
+    }
+
+    private static IndexSettings toIndexSettings(IndexingSettings settings) {
+        return IndexSettings.of(s -> s
+                .refreshInterval(t -> t.time(settings.refreshInterval()))
+                .numberOfReplicas(settings.numberOfReplicas()));
+    }
+
+    @Override
+    public int[] bulk(String index, List<BulkDocument> documents) throws IOException {
+        var operations = new ArrayList<BulkOperation>(documents.size());
+        for (var document : documents) {
+            var source = BinaryData.of(document.source(), CONTENT_TYPE);
+            operations.add(BulkOperation.of(op -> op.index(i -> i.id(document.id()).document(source))));
+        }
+
+        var statuses = new int[documents.size()];
+        try {
+            var response = client.bulk(b -> b.index(index).operations(operations));
+            var items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                statuses[i] = items.get(i).status();
+            }
+        } catch (ElasticsearchException e) {
+            Arrays.fill(statuses, e.status());
+        } catch (IOException e) {
+            if (httpStatus(e) != TOO_MANY_REQUESTS) {
+                throw e;
+            }
+            Arrays.fill(statuses, TOO_MANY_REQUESTS);
+        }
+        return statuses;
+    }
+
+    @Override
+    public int[] update(String index, List<BulkDocument> partials, TutorUpdateProperties.Refresh refresh)
+            throws IOException {
+        var operations = new ArrayList<BulkOperation>(partials.size());
+        for (var partial : partials) {
+            // The action line is {"doc": <partial>}, assembled from the bytes so the partial is not re-serialized.
+            var action = new byte[UPDATE_DOC_PREFIX.length + partial.source().length + 1];
+            System.arraycopy(UPDATE_DOC_PREFIX, 0, action, 0, UPDATE_DOC_PREFIX.length);
+            System.arraycopy(partial.source(), 0, action, UPDATE_DOC_PREFIX.length, partial.source().length);
+            action[action.length - 1] = '}';
+            var source = BinaryData.of(action, CONTENT_TYPE);
+            operations.add(BulkOperation.of(op -> op.update(u -> u.id(partial.id())
+                    .retryOnConflict(UPDATE_RETRIES_ON_CONFLICT)
+                    .binaryAction(source))));
+        }
+
+        var statuses = new int[partials.size()];
+        try {
+            var response = client.bulk(b -> b.index(index).operations(operations).refresh(switch (refresh) {
+                case NONE -> Refresh.False;
+                case WAIT_FOR -> Refresh.WaitFor;
+                case IMMEDIATE -> Refresh.True;
+            }));
+            var items = response.items();
+            for (int i = 0; i < items.size(); i++) {
+                statuses[i] = items.get(i).status();
+            }
+        } catch (ElasticsearchException e) {
+            Arrays.fill(statuses, e.status());
+        } catch (IOException e) {
+            if (httpStatus(e) != TOO_MANY_REQUESTS) {
+                throw e;
+            }
+            Arrays.fill(statuses, TOO_MANY_REQUESTS);
+        }
+        return statuses;
+    }
+
+    @Override
+    public void refresh(String index) throws IOException {
+        client.indices().refresh(r -> r.index(index));
+    }
+
+    /**
+     * The status of a request the transport rejected as a whole, or -1. A 429 from a proxy or a node shedding load
+     * often has no Elasticsearch error body, so it arrives as one of these instead of an
+     * {@link ElasticsearchException}.
+     */
+    static int httpStatus(Throwable error) {
+        for (var cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransportException transport && transport.response() != null) {
+                return transport.statusCode();
+            }
+            if (cause instanceof ResponseException response) {
+                return response.getResponse().getStatusLine().getStatusCode();
+            }
+        }
+        return -1;
+    }
+}
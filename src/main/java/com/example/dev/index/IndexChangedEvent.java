@@ -0,0 +1,8 @@
+package com.example.dev.index;
+
+/**
+ * Published whenever the data behind the tutors index changes (refresh, bulk load, alias swap...).
+ * Anything that holds derived state, such as the result cache, should drop it on this event.
+ */
+public record IndexChangedEvent(long generation, String reason) {
+}
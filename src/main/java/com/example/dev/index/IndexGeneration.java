@@ -0,0 +1,32 @@
+package com.example.dev.index;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Monotonic counter that moves every time the tutors index is refreshed or reloaded. In-place tutor updates don't
+ * move it, since they should not drop every cache the way a new generation does. It is process-local and starts
+ * over on restart; anything handed to clients uses {@link ServingIndexVersion} instead.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IndexGeneration {
+    private final ApplicationEventPublisher eventPublisher;
+    private final AtomicLong generation = new AtomicLong();
+
+    public long current() {
+        return generation.get();
+    }
+
+    public long advance(String reason) {
+        var next = generation.incrementAndGet();
+        log.info("index generation advanced to {} ({})", next, reason);
+        eventPublisher.publishEvent(new IndexChangedEvent(next, reason));
+        return next;
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.dev.index;
+
+public record IndexingSettings(String refreshInterval, String numberOfReplicas) {
+    public static final IndexingSettings BULK_LOAD = new IndexingSettings("-1", "0");
+    public static final IndexingSettings DEFAULT = new IndexingSettings("1s", "1");
+}
@@ -0,0 +1,7 @@
+package com.example.dev.index;
+
+import java.time.Duration;
+import java.util.List;
+
+public record RebuildReport(String index, int version, BulkLoadReport load, List<String> retired, Duration elapsed) {
+}
@@ -0,0 +1,57 @@
+package com.example.dev.index;
+
+import com.example.dev.constants.Constants;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.TreeSet;
+
+/**
+ * Version of the data searches currently see, read from state Elasticsearch keeps: the concrete indices behind the
+ * alias and the newest {@code updated_at} that has become searchable in them. It survives restarts and every
+ * replica reading the same cluster derives the same value, unlike the process-local {@link IndexGeneration}.
+ * <p>
+ * Re-read on every generation change, after applied tutor updates and every {@code search.http.version-refresh},
+ * which bounds how long changes made by another replica go unnoticed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ServingIndexVersion {
+    private final BulkIndexClient client;
+
+    private volatile String current;
+
+    /**
+     * @return the version, or null while it has never been read
+     */
+    public String current() {
+        return current;
+    }
+
+    @EventListener({ApplicationReadyEvent.class, IndexChangedEvent.class})
+    @Scheduled(fixedDelayString = "${search.http.version-refresh:5s}",
+            initialDelayString = "${search.http.version-refresh:5s}")
+    public void refresh() {
+        var alias = TutorIndexManager.alias();
+        try {
+            var indices = new TreeSet<>(client.aliasTargets(alias));
+            if (indices.isEmpty() && client.exists(alias)) {
+                indices.add(alias);
+            }
+            if (indices.isEmpty()) {
+                current = null;
+                return;
+            }
+            var updatedAt = client.max(alias, Constants.Tutor.UPDATED_AT);
+            current = String.join("+", indices) + "." + (updatedAt.isPresent() ? updatedAt.getAsLong() : 0);
+        } catch (IOException | RuntimeException e) {
+            log.debug("cannot read the version of '{}', keeping {}: {}", alias, current, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.dev.index;
+
+import com.example.dev.config.BulkLoadProperties;
+import com.example.dev.config.IndexVersionProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.util.NativeQueryBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Rebuilds the tutors data into a new versioned index and swaps the read alias onto it.
+ * Searches keep hitting the previous version through the alias until the swap, which is a single atomic
+ * {@code _aliases} call; older versions beyond {@code search.index.retain-versions} are deleted afterwards.
+ * Incremental updates are paused meanwhile, so none is written to the old index and lost with it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TutorIndexManager {
+    private final BulkIndexClient client;
+    private final BulkIndexer bulkIndexer;
+    private final BulkLoadProperties bulkLoadProperties;
+    private final IndexVersionProperties properties;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final IndexGeneration indexGeneration;
+    private final TutorUpdatePipeline updatePipeline;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final AtomicReference<RebuildReport> lastRebuild = new AtomicReference<>();
+
+    public static String alias() {
+        return Constants.Index.TUTORS.getIndexName();
+    }
+
+    public static String versionName(int version) {
+        return alias() + "_v" + version;
+    }
+
+    public boolean isRebuilding() {
+        return rebuilding.get();
+    }
+
+    public Optional<RebuildReport> lastRebuild() {
+        return Optional.ofNullable(lastRebuild.get());
+    }
+
+    public RebuildReport rebuild() throws IOException {
+        return rebuild(bulkLoadProperties.file());
+    }
+
+    public RebuildReport rebuild(Path file) throws IOException {
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("a rebuild of '" + alias() + "' is already running");
+        }
+        return runRebuild(file);
+    }
+
+    /**
+     * Starts a rebuild of the configured bulk file in the background.
+     *
+     * @return false if a rebuild is already running
+     */
+    public boolean startRebuild() {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        var thread = new Thread(() -> {
+            try {
+                runRebuild(bulkLoadProperties.file());
+            } catch (IOException | RuntimeException e) {
+                log.error("background rebuild of '{}' failed", alias(), e);
+            }
+        }, "rebuild-" + alias());
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    private RebuildReport runRebuild(Path file) throws IOException {
+        updatePipeline.pause();
+        try {
+            var report = doRebuild(file);
+            lastRebuild.set(report);
+            return report;
+        } finally {
+            // Whatever queued up is written to the index that serves now, new or old.
+            updatePipeline.resume();
+            rebuilding.set(false);
+        }
+    }
+
+    private RebuildReport doRebuild(Path file) throws IOException {
+        var started = System.nanoTime();
+        var alias = alias();
+        var versions = existingVersions();
+        var version = versions.isEmpty() ? 1 : versions.get(versions.size() - 1) + 1;
+        var index = versionName(version);
+
+        var serving = new IndexingSettings(properties.refreshInterval(), properties.replicas());
+        client.createIndex(index, serving);
+        BulkLoadReport load;
+        try {
+            // BulkIndexer drops refresh and replicas for the load and puts `serving` back afterwards.
+            load = bulkIndexer.load(file, index);
+            // Rejected documents and 429s that ran out of retries don't fail the load; they must not be served.
+            if (load.failed() > 0) {
+                throw new IOException("%d of %d documents could not be loaded into '%s'"
+                        .formatted(load.failed(), load.documents() + load.failed(), index));
+            }
+            if (properties.forceMerge()) {
+                client.forceMerge(index);
+            }
+            warmUp(index);
+        } catch (IOException | RuntimeException e) {
+            log.warn("rebuild of '{}' failed, deleting partial index '{}'", alias, index, e);
+            client.deleteIndex(index);
+            throw e;
+        }
+
+        var previous = client.aliasTargets(alias);
+        var concreteIndex = previous.isEmpty() && client.exists(alias);
+        client.swapAlias(alias, index, previous, concreteIndex);
+        indexGeneration.advance("alias " + alias + " -> " + index);
+
+        var retired = retireOldVersions(version);
+        var report = new RebuildReport(index, version, load, retired, Duration.ofNanos(System.nanoTime() - started));
+        log.info("alias '{}' now serves '{}' ({} docs), retired {}", alias, index, load.documents(), retired);
+        return report;
+    }
+
+    /**
+     * Runs the common query shapes once so the first real requests don't pay for cold caches.
+     */
+    private void warmUp(String index) {
+        var coordinates = IndexCoordinates.of(index);
+        var requests = new ArrayList<SearchRequestParams>();
+        requests.add(SearchRequestParams.builder().build());
+        for (var subject : properties.warmupSubjects()) {
+            requests.add(SearchRequestParams.builder().subject(subject).build());
+        }
+        for (var params : requests) {
+            elasticsearchOperations.search(NativeQueryBuilder.toSearchQuery(params), Teacher.class, coordinates);
+        }
+    }
+
+    private List<String> retireOldVersions(int current) throws IOException {
+        var retired = new ArrayList<String>();
+        var keepFrom = current - properties.retainVersions();
+        var serving = new HashSet<>(client.aliasTargets(alias()));
+        for (var version : existingVersions()) {
+            var index = versionName(version);
+            if (version < keepFrom && !serving.contains(index)) {
+                client.deleteIndex(index);
+                retired.add(index);
+            }
+        }
+        return retired;
+    }
+
+    private List<Integer> existingVersions() throws IOException {
+        var pattern = Pattern.compile(Pattern.quote(alias() + "_v") + "(\\d+)");
+        return client.indicesMatching(alias() + "_v*").stream()
+                .map(pattern::matcher)
+                .filter(Matcher::matches)
+                .map(m -> Integer.parseInt(m.group(1)))
+                .sorted(Comparator.naturalOrder())
+                .toList();
+    }
+}
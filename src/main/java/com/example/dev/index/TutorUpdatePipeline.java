@@ -0,0 +1,382 @@
+package com.example.dev.index;
+
+import com.example.dev.cache.BaseFacetCache;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.config.TutorUpdateProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.TutorUpdate;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.exception.SearchOverloadedException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.DayOfWeek;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Applies partial tutor changes (rating, availability) to the serving index without a reload. Updates wait up to
+ * {@code search.updates.window}; repeated updates to one tutor in that time are merged, so a tutor edited ten times
+ * is written once. Each flush sends the waiting tutors as partial {@code _bulk} updates from a thread of the
+ * pipeline's own, so indexing never competes with searches for more than one request at a time, and a
+ * {@code refresh=wait-for} batch never holds up other scheduled work.
+ * <p>
+ * Updated tutors are dropped from the result cache instead of advancing the index generation, which would empty
+ * the whole cache several times a second under a steady update stream.
+ * <p>
+ * Updates are written through the alias, so a rebuild would load a fresh index without the ones that arrive while
+ * it runs. {@link TutorIndexManager} {@link #pause pauses} the pipeline for the whole rebuild; updates keep queueing
+ * and are written to the new index once it serves. Updates applied before a rebuild must be in its bulk file.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TutorUpdatePipeline {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final double MAX_RATING = 5.0;
+
+    private final BulkIndexClient client;
+    private final TutorUpdateProperties properties;
+    private final SearchResultCache searchResultCache;
+    private final BaseFacetCache baseFacetCache;
+    private final ServingIndexVersion servingIndexVersion;
+
+    private record Pending(TutorUpdate update, int attempts) {
+    }
+
+    private record Invalidation(long dueAt, Set<String> ids) {
+    }
+
+    // Guarded by itself; a merged update keeps its tutor's place, so the longest waiting go first.
+    private final LinkedHashMap<String, Pending> pending = new LinkedHashMap<>();
+    private final ArrayDeque<Invalidation> invalidations = new ArrayDeque<>();
+    private volatile Boolean slotsMapped;
+    // Held for a whole flush; pausing takes it too, so it waits for a batch already on its way to the old index.
+    private final Object flushLock = new Object();
+    private boolean paused;
+    private ScheduledExecutorService scheduler;
+
+    private final LongAdder received = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder applied = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder cacheEntriesDropped = new LongAdder();
+    private volatile long lastBatchMillis;
+
+    /**
+     * Queues the updates for the next flush.
+     *
+     * @return tutors waiting to be sent, including these
+     */
+    public int submit(List<TutorUpdate> updates) {
+        updates.forEach(TutorUpdatePipeline::validate);
+        if (updates.size() > properties.maxPending()) {
+            throw new BadRequestException("at most " + properties.maxPending() + " tutor updates per request");
+        }
+        synchronized (pending) {
+            if (pending.size() + added(updates) > properties.maxPending()) {
+                throw new SearchOverloadedException("too many tutor updates waiting, retry later");
+            }
+            for (var update : updates) {
+                var id = update.id().trim();
+                var previous = pending.get(id);
+                if (previous != null) {
+                    coalesced.increment();
+                }
+                pending.put(id, previous == null
+                        ? new Pending(update, 0)
+                        : new Pending(previous.update().merge(update), previous.attempts()));
+            }
+            received.add(updates.size());
+            return pending.size();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, "tutor-updates");
+            thread.setDaemon(true);
+            return thread;
+        });
+        var window = properties.window().toNanos();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, window, window, TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    public void flush() {
+        invalidateVisible();
+        synchronized (flushLock) {
+            if (paused) {
+                return;
+            }
+            // Only what is waiting now; retries go to the back of the line and wait for the next flush.
+            int remaining;
+            synchronized (pending) {
+                remaining = pending.size();
+            }
+            while (remaining > 0) {
+                var batch = take(Math.min(remaining, properties.batchDocs()));
+                if (batch.isEmpty()) {
+                    return;
+                }
+                remaining -= batch.size();
+                send(batch);
+            }
+        }
+    }
+
+    /**
+     * Stops writing updates, after the batch in flight if any; they keep queueing up to
+     * {@code search.updates.max-pending} until {@link #resume}.
+     */
+    public void pause() {
+        synchronized (flushLock) {
+            paused = true;
+        }
+    }
+
+    public void resume() {
+        synchronized (flushLock) {
+            paused = false;
+        }
+    }
+
+    public TutorUpdateStats stats() {
+        int waiting;
+        synchronized (pending) {
+            waiting = pending.size();
+        }
+        return new TutorUpdateStats(waiting, received.sum(), coalesced.sum(), applied.sum(), retried.sum(),
+                failed.sum(), batches.sum(), cacheEntriesDropped.sum(), lastBatchMillis);
+    }
+
+    @EventListener(IndexChangedEvent.class)
+    public void onIndexChanged() {
+        // The alias may now point at an index with a different mapping.
+        slotsMapped = null;
+    }
+
+    /**
+     * A periodic task that throws is never run again.
+     */
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("tutor update flush failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tutors these updates would add to the queue; updates to tutors already waiting are merged.
+     */
+    private int added(List<TutorUpdate> updates) {
+        var ids = new HashSet<String>();
+        for (var update : updates) {
+            var id = update.id().trim();
+            if (!pending.containsKey(id)) {
+                ids.add(id);
+            }
+        }
+        return ids.size();
+    }
+
+    private List<Pending> take(int max) {
+        synchronized (pending) {
+            var batch = new ArrayList<Pending>(Math.min(pending.size(), max));
+            for (var it = pending.values().iterator(); it.hasNext() && batch.size() < max; ) {
+                batch.add(it.next());
+                it.remove();
+            }
+            return batch;
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        var started = System.nanoTime();
+        var index = TutorIndexManager.alias();
+        var partials = new ArrayList<BulkDocument>(batch.size());
+        for (var item : batch) {
+            partials.add(partial(item.update()));
+        }
+
+        int[] statuses;
+        try {
+            statuses = client.update(index, partials, properties.refresh());
+        } catch (IOException | RuntimeException e) {
+            log.warn("tutor update batch of {} failed: {}", batch.size(), e.getMessage());
+            statuses = new int[batch.size()];
+            Arrays.fill(statuses, 503);
+        }
+
+        var updated = new HashSet<String>();
+        var rejected = new ArrayList<String>();
+        for (int i = 0; i < batch.size(); i++) {
+            var item = batch.get(i);
+            var status = statuses[i];
+            if (status >= 200 && status < 300) {
+                updated.add(item.update().id().trim());
+            } else if (retryable(status) && item.attempts() + 1 < properties.maxRetries()) {
+                requeue(item);
+            } else {
+                rejected.add(item.update().id() + " (" + status + ")");
+            }
+        }
+        if (!rejected.isEmpty()) {
+            failed.add(rejected.size());
+            log.warn("{} tutor updates failed, first: {}", rejected.size(), rejected.get(0));
+        }
+        applied.add(updated.size());
+        batches.increment();
+        lastBatchMillis = (System.nanoTime() - started) / 1_000_000;
+        invalidate(updated);
+        if (properties.refresh() == TutorUpdateProperties.Refresh.NONE && !updated.isEmpty()) {
+            synchronized (invalidations) {
+                invalidations.add(new Invalidation(System.nanoTime() + properties.visibilityDelay().toNanos(),
+                        updated));
+            }
+        }
+    }
+
+    private void requeue(Pending item) {
+        retried.increment();
+        var id = item.update().id().trim();
+        synchronized (pending) {
+            // An update that arrived meanwhile is newer and wins field by field.
+            var newer = pending.remove(id);
+            pending.put(id, new Pending(newer == null ? item.update() : item.update().merge(newer.update()),
+                    item.attempts() + 1));
+        }
+    }
+
+    /**
+     * Until a refresh, searches still see the old values and may cache them again; tutors are dropped once more
+     * when their change should have become visible.
+     */
+    private void invalidateVisible() {
+        var now = System.nanoTime();
+        var due = new HashSet<String>();
+        synchronized (invalidations) {
+            while (!invalidations.isEmpty() && now - invalidations.peek().dueAt() >= 0) {
+                due.addAll(invalidations.poll().ids());
+            }
+        }
+        invalidate(due);
+    }
+
+    private void invalidate(Set<String> ids) {
+        if (!ids.isEmpty()) {
+            servingIndexVersion.refresh();
+            cacheEntriesDropped.add(searchResultCache.invalidateTutors(ids));
+            baseFacetCache.invalidateAll();
+        }
+    }
+
+    private BulkDocument partial(TutorUpdate update) {
+        var doc = MAPPER.createObjectNode();
+        // Durable trace of the change; ServingIndexVersion reads the newest one once it is searchable.
+        doc.put(Constants.Tutor.UPDATED_AT, System.currentTimeMillis());
+        if (update.rating() != null) {
+            doc.put(Constants.Tutor.RATING, update.rating());
+        }
+        if (update.availability() != null) {
+            var availability = doc.putArray(Constants.Tutor.AVAILABILITY);
+            for (var slot : update.availability()) {
+                availability.addObject()
+                        .put("day", slot.day())
+                        .put("start_time", slot.startTime())
+                        .put("end_time", slot.endTime());
+            }
+            if (slotsMapped()) {
+                AvailabilitySlotEnricher.enrich(doc);
+            }
+        }
+        try {
+            return new BulkDocument(update.id().trim(), MAPPER.writeValueAsBytes(doc));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Only indices that map {@code availability_slots} get it; elsewhere dynamic mapping would add it as text.
+     */
+    private boolean slotsMapped() {
+        var mapped = slotsMapped;
+        if (mapped == null) {
+            try {
+                mapped = client.mappedFields(TutorIndexManager.alias()).contains(Constants.Tutor.AVAILABILITY_SLOTS);
+            } catch (IOException | RuntimeException e) {
+                log.warn("cannot read mapping of '{}', updating availability without slots: {}",
+                        TutorIndexManager.alias(), e.getMessage());
+                return false;
+            }
+            slotsMapped = mapped;
+        }
+        return mapped;
+    }
+
+    private static boolean retryable(int status) {
+        return status == 409 || status == 429 || status >= 500;
+    }
+
+    private static void validate(TutorUpdate update) {
+        if (update == null || update.id() == null || update.id().isBlank()) {
+            throw new BadRequestException("every update needs an id");
+        }
+        if (update.rating() == null && update.availability() == null) {
+            throw new BadRequestException("update for '" + update.id() + "' changes neither rating nor availability");
+        }
+        if (update.rating() != null && (update.rating() < 0 || update.rating() > MAX_RATING)) {
+            throw new BadRequestException("rating must be between 0 and " + MAX_RATING + ", got " + update.rating());
+        }
+        if (update.availability() != null) {
+            for (var slot : update.availability()) {
+                validate(update.id(), slot);
+            }
+        }
+    }
+
+    private static void validate(String id, TutorUpdate.Slot slot) {
+        if (slot == null || slot.day() == null || slot.startTime() == null || slot.endTime() == null) {
+            throw new BadRequestException("availability of '" + id + "' needs day, start_time and end_time");
+        }
+        try {
+            DayOfWeek.valueOf(slot.day().trim().toUpperCase(Locale.ROOT));
+            if (LocalTime.parse(slot.startTime()).isAfter(LocalTime.parse(slot.endTime()))) {
+                throw new BadRequestException("availability of '" + id + "' ends before it starts: " + slot);
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BadRequestException("invalid availability for '" + id + "': " + slot);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.dev.index;
+
+/**
+ * Counters of the incremental update pipeline since startup.
+ *
+ * @param coalesced           updates merged into one already waiting for the same tutor
+ * @param failed              updates given up on: unknown tutor, rejected document or out of retries
+ * @param cacheEntriesDropped cached search results dropped because they held an updated tutor
+ */
+public record TutorUpdateStats(long pending, long received, long coalesced, long applied, long retried,
+                               long failed, long batches, long cacheEntriesDropped, long lastBatchMillis) {
+}
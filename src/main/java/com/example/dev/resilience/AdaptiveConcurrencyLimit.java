@@ -0,0 +1,55 @@
+package com.example.dev.resilience;
+
+/**
+ * AIMD limit on concurrent backend calls. Every call that comes back quickly while the limit is at least half used
+ * raises it by {@code 1/limit}, so a full round trip of calls adds about one however high the limit is; a failed,
+ * timed-out or slow call cuts it by {@value #BACKOFF}. When Elasticsearch stalls, the
+ * calls stuck on it keep their permits, so the limit both stops new calls piling onto it and shrinks until it
+ * answers quickly again.
+ */
+public class AdaptiveConcurrencyLimit {
+    static final double BACKOFF = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long slowCallNanos;
+
+    // Guarded by this.
+    private double limit;
+    private int inFlight;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long slowCallNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.slowCallNanos = slowCallNanos;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Returns the permit of a call that has really ended, however long after its caller gave up.
+     */
+    public synchronized void release(long elapsedNanos, boolean failed) {
+        inFlight--;
+        if (failed || elapsedNanos > slowCallNanos) {
+            limit = Math.max(minLimit, limit * BACKOFF);
+        } else if ((inFlight + 1) * 2 >= limit) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int limit() {
+        return (int) limit;
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+}
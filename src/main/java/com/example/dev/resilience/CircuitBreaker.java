@@ -0,0 +1,115 @@
+package com.example.dev.resilience;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Count-based circuit breaker. Opens when at least {@code failureRate} of the last {@code windowSize} calls failed,
+ * refuses every call for {@code openFor}, then lets {@code halfOpenCalls} probes through: if all succeed it closes,
+ * the first failure opens it again.
+ */
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final boolean[] window;
+    private final int failureThreshold;
+    private final long openForNanos;
+    private final int halfOpenCalls;
+    private final LongSupplier clock;
+
+    // Guarded by this.
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int probes;
+    private int probeSuccesses;
+
+    public CircuitBreaker(int windowSize, double failureRate, long openForNanos, int halfOpenCalls,
+                          LongSupplier clock) {
+        this.window = new boolean[Math.max(1, windowSize)];
+        this.failureThreshold = Math.max(1, (int) Math.ceil(window.length * failureRate));
+        this.openForNanos = openForNanos;
+        this.halfOpenCalls = Math.max(1, halfOpenCalls);
+        this.clock = clock;
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.getAsLong() - openedAt < openForNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probes = 0;
+            probeSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probes >= halfOpenCalls) {
+                return false;
+            }
+            probes++;
+        }
+        return true;
+    }
+
+    /**
+     * Gives back a call that was allowed but never made.
+     */
+    public synchronized void cancel() {
+        if (state == State.HALF_OPEN && probes > 0) {
+            probes--;
+        }
+    }
+
+    public synchronized void record(boolean success) {
+        switch (state) {
+            case HALF_OPEN -> {
+                if (!success) {
+                    open();
+                } else if (++probeSuccesses >= halfOpenCalls) {
+                    close();
+                }
+            }
+            case CLOSED -> {
+                // The window is a ring: the oldest outcome makes room for this one.
+                if (calls == window.length && window[next]) {
+                    failures--;
+                }
+                window[next] = !success;
+                if (!success) {
+                    failures++;
+                }
+                next = (next + 1) % window.length;
+                calls = Math.min(calls + 1, window.length);
+                if (calls == window.length && failures >= failureThreshold) {
+                    open();
+                }
+            }
+            case OPEN -> {
+                // A call that started before the breaker opened; it says nothing new.
+            }
+        }
+    }
+
+    public synchronized State state() {
+        if (state == State.OPEN && clock.getAsLong() - openedAt >= openForNanos) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openedAt = clock.getAsLong();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.dev.resilience;
+
+/**
+ * @param limit       concurrent backend calls currently allowed
+ * @param inFlight    backend calls running, including ones their callers stopped waiting for
+ * @param circuit     breaker state
+ * @param shed        calls refused by the open breaker or the concurrency limit
+ * @param timedOut    calls their callers stopped waiting for at the deadline
+ * @param failed      calls that failed with an error
+ * @param staleServed responses answered from the stale store instead
+ * @param staleSize   requests with a stale response on hand
+ * @param staleBytes  approximate heap those responses take
+ */
+public record ResilienceStats(int limit, int inFlight, CircuitBreaker.State circuit, long shed, long timedOut,
+                              long failed, long staleServed, int staleSize, long staleBytes) {
+}
@@ -0,0 +1,185 @@
+package com.example.dev.resilience;
+
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.StaleResponseStore;
+import com.example.dev.config.SearchResilienceProperties;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.exception.SearchOverloadedException;
+import com.example.dev.exception.SearchTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a degraded Elasticsearch from taking the application down with it.
+ * <ul>
+ *     <li>{@link #protect} runs each Elasticsearch call behind a circuit breaker, an {@link AdaptiveConcurrencyLimit}
+ *     and a per-call deadline, so a stalled cluster costs callers at most {@code search.resilience.deadline} and
+ *     never more than the limit in threads. Refused calls fail with 503, calls past the deadline with 504.</li>
+ *     <li>{@link #orStale} answers a search that failed that way with the last good response to the same request,
+ *     marked stale.</li>
+ * </ul>
+ * Calls run on {@code searchBackendExecutor} so the caller can stop waiting at the deadline; the abandoned call keeps
+ * its permit until it really ends.
+ */
+@Component
+@Slf4j
+public class SearchGuard {
+    private final SearchResilienceProperties properties;
+    private final StaleResponseStore staleStore;
+    private final ExecutorService executor;
+    private final AdaptiveConcurrencyLimit limit;
+    private final CircuitBreaker breaker;
+
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+    private final AtomicBoolean degraded = new AtomicBoolean();
+
+    @Autowired
+    public SearchGuard(SearchResilienceProperties properties, StaleResponseStore staleStore,
+                       @Qualifier("searchBackendExecutor") ExecutorService executor) {
+        this(properties, staleStore, executor, System::nanoTime);
+    }
+
+    SearchGuard(SearchResilienceProperties properties, StaleResponseStore staleStore, ExecutorService executor,
+                LongSupplier clock) {
+        this.properties = properties;
+        this.staleStore = staleStore;
+        this.executor = executor;
+        // A call its caller gave up on is congestion however soon after the deadline it ends.
+        this.limit = new AdaptiveConcurrencyLimit(properties.initialLimit(), properties.minLimit(),
+                properties.maxLimit(), Math.min(properties.slowCall().toNanos(), properties.deadline().toNanos()));
+        this.breaker = new CircuitBreaker(properties.windowSize(), properties.failureRate(),
+                properties.openFor().toNanos(), properties.halfOpenCalls(), clock);
+    }
+
+    /**
+     * Runs one Elasticsearch call. Bad requests pass through and don't count against the backend.
+     *
+     * @throws SearchOverloadedException when the breaker is open or the limit is reached; the call never ran
+     * @throws SearchTimeoutException    when the call outlasts the deadline
+     */
+    public <T> T protect(Supplier<T> call) {
+        if (!properties.enabled()) {
+            return call.get();
+        }
+        if (!breaker.tryAcquire()) {
+            shed.increment();
+            throw degraded(new SearchOverloadedException("search backend is unavailable, retry later"));
+        }
+        if (!limit.tryAcquire()) {
+            breaker.cancel();
+            shed.increment();
+            throw degraded(new SearchOverloadedException("too many concurrent backend searches"));
+        }
+
+        var reported = new AtomicBoolean();
+        var started = System.nanoTime();
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(call, executor);
+        } catch (RejectedExecutionException e) {
+            limit.release(0, false);
+            breaker.cancel();
+            throw new SearchOverloadedException("search executor is shut down");
+        }
+        result.whenComplete((response, error) -> {
+            var cause = unwrap(error);
+            var failure = cause != null && !(cause instanceof BadRequestException);
+            limit.release(System.nanoTime() - started, failure);
+            report(reported, !failure);
+        });
+
+        try {
+            var response = result.get(properties.deadline().toNanos(), TimeUnit.NANOSECONDS);
+            if (degraded.compareAndSet(true, false)) {
+                log.info("search backend is answering again");
+            }
+            return response;
+        } catch (TimeoutException e) {
+            timedOut.increment();
+            // Counted against the breaker now, not when Elasticsearch finally answers.
+            report(reported, false);
+            throw degraded(new SearchTimeoutException(
+                    "search backend exceeded " + properties.deadline().toMillis() + " ms"));
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BadRequestException badRequest) {
+                throw badRequest;
+            }
+            failed.increment();
+            throw degraded(e.getCause() instanceof RuntimeException runtime
+                    ? runtime
+                    : new IllegalStateException(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SearchTimeoutException("interrupted while waiting for the search backend");
+        }
+    }
+
+    /**
+     * Runs a search, remembering its response; when it fails for any reason but a bad request, answers with the last
+     * good response instead, or rethrows when there is none.
+     *
+     * @param key the canonical request, or null for requests that must not be answered stale (cursor pages)
+     */
+    public SearchResponse orStale(SearchRequestKey key, Supplier<SearchResponse> search) {
+        if (!properties.enabled() || key == null) {
+            return search.get();
+        }
+        SearchResponse response;
+        try {
+            response = search.get();
+        } catch (BadRequestException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            var stale = staleStore.get(key);
+            if (stale.isEmpty()) {
+                throw e;
+            }
+            staleServed.increment();
+            return stale.get();
+        }
+        if (!response.stale()) {
+            staleStore.put(key, response);
+        }
+        return response;
+    }
+
+    public ResilienceStats stats() {
+        return new ResilienceStats(limit.limit(), limit.inFlight(), breaker.state(), shed.sum(), timedOut.sum(),
+                failed.sum(), staleServed.sum(), staleStore.size(), staleStore.bytes());
+    }
+
+    private void report(AtomicBoolean reported, boolean success) {
+        if (reported.compareAndSet(false, true)) {
+            breaker.record(success);
+        }
+    }
+
+    private RuntimeException degraded(RuntimeException error) {
+        if (degraded.compareAndSet(false, true)) {
+            log.warn("search backend degraded: {}", error.getMessage());
+        }
+        return error;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.dev.service;
+
+import com.example.dev.config.SearchAsyncProperties;
+import com.example.dev.dto.BatchSearchResponse;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.exception.SearchOverloadedException;
+import com.example.dev.exception.SearchTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Runs {@link TutorSearch#search} off the request thread so servlet threads are released while Elasticsearch
+ * answers. At most {@code search.async.max-in-flight} searches run or wait at once; beyond that requests are shed
+ * with 503 straight away, and a request that exceeds {@code search.async.timeout} gets 504.
+ */
+@Service
+@Slf4j
+public class AsyncSearchService {
+    private final TutorSearch search;
+    private final BatchSearchService batchSearchService;
+    private final ExecutorService executor;
+    private final SearchAsyncProperties properties;
+    private final Semaphore inFlight;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    public AsyncSearchService(TutorSearch search, BatchSearchService batchSearchService,
+                              @Qualifier("searchExecutor") ExecutorService executor, SearchAsyncProperties properties) {
+        this.search = search;
+        this.batchSearchService = batchSearchService;
+        this.executor = executor;
+        this.properties = properties;
+        this.inFlight = new Semaphore(properties.maxInFlight());
+    }
+
+    public CompletableFuture<SearchResponse> search(SearchRequestParams params) {
+        return submit(() -> search.search(params));
+    }
+
+    /**
+     * A batch is one {@code _msearch} call, so it takes a single in-flight slot.
+     */
+    public CompletableFuture<BatchSearchResponse> searchBatch(List<SearchRequestParams> batch) {
+        return submit(() -> batchSearchService.search(batch));
+    }
+
+    private <T> CompletableFuture<T> submit(Supplier<T> search) {
+        if (!inFlight.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new SearchOverloadedException("too many concurrent searches"));
+        }
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> {
+                try {
+                    return search.get();
+                } finally {
+                    // Released when the search really ends, not on timeout, so abandoned calls still count.
+                    inFlight.release();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            inFlight.release();
+            rejected.increment();
+            return CompletableFuture.failedFuture(new SearchOverloadedException("search executor is shut down"));
+        }
+        return result
+                .orTimeout(properties.timeout().toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionallyCompose(this::translate);
+    }
+
+    private <T> CompletableFuture<T> translate(Throwable error) {
+        var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof TimeoutException) {
+            timedOut.increment();
+            return CompletableFuture.failedFuture(
+                    new SearchTimeoutException("search exceeded " + properties.timeout().toMillis() + " ms"));
+        }
+        return CompletableFuture.failedFuture(cause);
+    }
+
+    public int inFlight() {
+        return properties.maxInFlight() - inFlight.availablePermits();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long timedOut() {
+        return timedOut.sum();
+    }
+}
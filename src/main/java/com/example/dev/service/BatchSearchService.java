@@ -0,0 +1,192 @@
+package com.example.dev.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.msearch.RequestItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import com.example.dev.backend.InMemorySearchBackend;
+import com.example.dev.backend.RoutingSearchBackend;
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SearchBatchProperties;
+import com.example.dev.config.SearchPagingProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.BatchSearchResponse;
+import com.example.dev.dto.BatchSearchResult;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.index.AvailabilityModeSelector;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.util.NativeQueryBuilder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs several searches in one {@code _msearch} round trip. Each search is built exactly as a single
+ * {@code /api/search} would be and answered from the result cache when possible; only the misses are sent.
+ * Facets are not computed in batches: {@code facets} is ignored, and results are cached under the request without it
+ * so a later faceted {@code /api/search} never gets them. Cursor paging is rejected per item. When
+ * {@code search.backend.mode}
+ * routes to the in-memory backend, the misses are answered there one by one instead.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BatchSearchService {
+    private final ElasticsearchClient client;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final SearchResultCache searchResultCache;
+    private final IndexGeneration indexGeneration;
+    private final AvailabilityModeSelector availabilityMode;
+    private final SearchPagingProperties pagingProperties;
+    private final RankingProperties rankingProperties;
+    private final SearchBatchProperties properties;
+    private final RoutingSearchBackend searchBackends;
+    private final InMemorySearchBackend memory;
+
+    public BatchSearchResponse search(List<SearchRequestParams> batch) {
+        var started = System.nanoTime();
+        if (batch == null || batch.isEmpty()) {
+            throw new BadRequestException("a batch needs at least one search");
+        }
+        if (batch.size() > properties.maxSize()) {
+            throw new BadRequestException("a batch holds at most " + properties.maxSize() + " searches");
+        }
+
+        var results = new BatchSearchResult[batch.size()];
+        var pending = new ArrayList<Integer>();
+        var requests = new ArrayList<RequestItem>();
+        var generation = indexGeneration.current();
+        var index = Constants.Index.TUTORS.getIndexName();
+        var normalized = new ArrayList<SearchRequestParams>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            var params = batch.get(i) == null ? null : normalize(batch.get(i));
+            normalized.add(params);
+            if (params == null) {
+                results[i] = BatchSearchResult.failed(400, "missing search");
+                continue;
+            }
+            if (params.isCursorPaging()) {
+                results[i] = BatchSearchResult.failed(400, "cursor paging is not supported in batches");
+                continue;
+            }
+            var cached = searchResultCache.get(SearchRequestKey.of(params));
+            if (cached.isPresent()) {
+                results[i] = BatchSearchResult.of(cached.get());
+                continue;
+            }
+            var body = NativeQueryBuilder.toMultisearchBody(availabilityMode.plan(params), params,
+                    pagingProperties.trackTotalHitsUpTo(), rankingProperties);
+            requests.add(RequestItem.of(r -> r.header(h -> h.index(index)).body(body)));
+            pending.add(i);
+        }
+
+        if (!requests.isEmpty()) {
+            // The guarded call only returns the items; one abandoned at the deadline must not write results.
+            var items = searchBackends.route(() -> multiSearch(requests), () -> {
+                for (var i : pending) {
+                    try {
+                        var response = memory.search(normalized.get(i));
+                        if (searchBackends.isFailover()) {
+                            // A snapshot answer must not be cached as the index's.
+                            response = response.asStale();
+                        } else {
+                            searchResultCache.put(SearchRequestKey.of(normalized.get(i)), response, generation);
+                        }
+                        results[i] = BatchSearchResult.of(response);
+                    } catch (BadRequestException e) {
+                        results[i] = BatchSearchResult.failed(400, e.getMessage());
+                    }
+                }
+                return null;
+            });
+            if (items != null) {
+                collect(items, pending, normalized, results, generation);
+            }
+        }
+        log.debug("batch of {} searches, {} sent to _msearch", batch.size(), requests.size());
+        return new BatchSearchResponse(Arrays.asList(results), Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    @SuppressWarnings("rawtypes")
+    private List<MultiSearchResponseItem<Map>> multiSearch(List<RequestItem> requests) {
+        try {
+            return client.msearch(m -> m.searches(requests), Map.class).responses();
+        } catch (IOException e) {
+            throw new UncheckedIOException("msearch of " + requests.size() + " searches failed", e);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private void collect(List<MultiSearchResponseItem<Map>> items, List<Integer> pending,
+                         List<SearchRequestParams> normalized, BatchSearchResult[] results, long generation) {
+        for (int j = 0; j < items.size(); j++) {
+            int i = pending.get(j);
+            var params = normalized.get(i);
+            var item = items.get(j);
+            if (item.isFailure()) {
+                var failure = item.failure();
+                results[i] = BatchSearchResult.failed(failure.status(), failure.error().reason());
+                continue;
+            }
+            var response = SearchService.buildResponse(params, toSearchHits(item));
+            searchResultCache.put(SearchRequestKey.of(params), response, generation);
+            results[i] = BatchSearchResult.of(response);
+        }
+    }
+
+    /**
+     * Items may leave out {@code page} and {@code size}; they get the first page of ten. {@code facets} is dropped
+     * because batches don't compute them.
+     */
+    static SearchRequestParams normalize(SearchRequestParams p) {
+        if (p.page() != null && p.size() != null && p.facets() == null) {
+            return p;
+        }
+        return p.toBuilder().page(p.page() == null ? 0 : p.page()).size(p.size() == null ? 10 : p.size()).facets(null)
+                .build();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private SearchHits<Teacher> toSearchHits(MultiSearchResponseItem<Map> item) {
+        var result = item.result();
+        var hits = new ArrayList<SearchHit<Teacher>>(result.hits().hits().size());
+        for (var hit : result.hits().hits()) {
+            hits.add(toSearchHit(hit));
+        }
+        var total = result.hits().total();
+        var totalHits = total == null ? hits.size() : total.value();
+        var relation = total == null || total.relation() == TotalHitsRelation.Eq
+                ? org.springframework.data.elasticsearch.core.TotalHitsRelation.EQUAL_TO
+                : org.springframework.data.elasticsearch.core.TotalHitsRelation.GREATER_THAN_OR_EQUAL_TO;
+        var maxScore = result.hits().maxScore() == null ? 0f : result.hits().maxScore().floatValue();
+        return new SearchHitsImpl<>(totalHits, relation, maxScore, Duration.ofMillis(result.took()), null, null,
+                hits, null, null, null);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private SearchHit<Teacher> toSearchHit(Hit<Map> hit) {
+        var source = hit.source() == null ? Map.<String, Object>of() : (Map<String, Object>) hit.source();
+        var content = elasticsearchOperations.getElasticsearchConverter().read(Teacher.class, Document.from(source));
+        var score = hit.score() == null ? Float.NaN : hit.score().floatValue();
+        return new SearchHit<>(hit.index(), hit.id(), hit.routing(), score, null, hit.highlight(), Map.of(),
+                null, null, List.of(), content);
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.dev.service;
+
+import com.example.dev.exception.BadRequestException;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * State behind the opaque {@code cursor} parameter: the point-in-time to read from, the sort values of the last hit
+ * returned, and the total counted on the first page so later pages can skip counting.
+ *
+ * @param fingerprint hash of the filters the cursor was issued for; a cursor can't be replayed against other filters
+ */
+public record SearchCursor(@JsonProperty("p") String pitId,
+                           @JsonProperty("a") List<Object> searchAfter,
+                           @JsonProperty("n") int page,
+                           @JsonProperty("t") long totalHits,
+                           @JsonProperty("f") int fingerprint) {
+    public static final String FIRST = "*";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (IOException e) {
+            throw new IllegalStateException("cannot encode search cursor", e);
+        }
+    }
+
+    public static SearchCursor decode(String token, int fingerprint) {
+        SearchCursor cursor;
+        try {
+            cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token.trim()), SearchCursor.class);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new BadRequestException("invalid cursor");
+        }
+        if (cursor.pitId() == null || cursor.searchAfter() == null || cursor.fingerprint() != fingerprint) {
+            throw new BadRequestException("cursor does not belong to this search");
+        }
+        return cursor;
+    }
+
+    /**
+     * For a cursor whose point-in-time is gone: it outlived {@code search.paging.pit-keep-alive}, was closed after
+     * the last page, or belongs to a snapshot that was replaced.
+     */
+    public static BadRequestException expired() {
+        return new BadRequestException("cursor expired, start again with cursor=" + FIRST);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.dev.service;
+
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.config.SearchHttpProperties;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.index.ServingIndexVersion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+/**
+ * Validators and freshness for {@code GET /api/search}. The ETag is derived from {@link ServingIndexVersion} and the
+ * canonical request, so a revalidation is answered with 304 before any search runs. Both survive restarts and agree
+ * between replicas, so a tag stays valid wherever it is sent back. It is weak: two 200s
+ * under one tag carry the same hits but may differ in {@code timeTaken}, and Tomcat will not gzip a response with a
+ * strong ETag.
+ * <p>
+ * Every request starts out {@code no-store}; the tag and freshness are only set once a fresh response exists, so an
+ * error page is never cached or revalidated.
+ * <ul>
+ *     <li>Filter-only pages may be cached by browsers and CDNs for {@code search.http.max-age}.</li>
+ *     <li>Free-text pages are private and revalidated on every use.</li>
+ *     <li>Cursor pages come from a point-in-time and are never stored.</li>
+ *     <li>Stale answers, sent while the backend is down, are never stored either.</li>
+ * </ul>
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchHttpCaching {
+    private static final String WEAK_PREFIX = "W/";
+
+    private final SearchHttpProperties properties;
+    private final ServingIndexVersion servingIndexVersion;
+
+    /**
+     * Answers with 304 when the client's copy matches {@code etag}; otherwise marks the response {@code no-store}
+     * until {@link #beforeSend} knows the search succeeded.
+     *
+     * @param etag from {@link #etag}, read before the search so it never vouches for newer data than it covers
+     * @return true when a 304 has been prepared; the search must not run
+     */
+    public boolean checkNotModified(SearchRequestParams params, String etag, ServletWebRequest request) {
+        var response = request.getResponse();
+        if (response == null) {
+            return false;
+        }
+        if (etag != null && matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpStatus.NOT_MODIFIED.value());
+            response.setHeader(HttpHeaders.ETAG, etag);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(params).getHeaderValue());
+            return true;
+        }
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+        return false;
+    }
+
+    /**
+     * Sets the tag and freshness on a fresh response; stale answers stay {@code no-store} without a tag.
+     */
+    public SearchResponse beforeSend(SearchRequestParams params, String etag, SearchResponse response,
+                                     ServletWebRequest request) {
+        var servletResponse = request.getResponse();
+        if (response.stale() || servletResponse == null || servletResponse.isCommitted()) {
+            return response;
+        }
+        servletResponse.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(params).getHeaderValue());
+        if (etag != null) {
+            servletResponse.setHeader(HttpHeaders.ETAG, etag);
+        }
+        return response;
+    }
+
+    /**
+     * @return the tag for the request at the current index version, or null when it gets none (cursor pages, an
+     * index version that could not be read yet, or {@code search.http.etags=false})
+     */
+    public String etag(SearchRequestParams params) {
+        var version = servingIndexVersion.current();
+        if (!properties.etags() || params.isCursorPaging() || version == null) {
+            return null;
+        }
+        var key = SearchRequestKey.of(params);
+        return WEAK_PREFIX + "\"" + version + "-" + Integer.toHexString(key.hashCode()) + "\"";
+    }
+
+    private CacheControl cacheControl(SearchRequestParams params) {
+        if (params.isCursorPaging()) {
+            return CacheControl.noStore();
+        }
+        var textQuery = params.query() != null && !params.query().isBlank();
+        return textQuery
+                ? CacheControl.noCache().cachePrivate()
+                : CacheControl.maxAge(properties.maxAge()).cachePublic();
+    }
+
+    /**
+     * Weak comparison, as RFC 9110 requires for {@code If-None-Match}.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        var opaque = etag.substring(WEAK_PREFIX.length());
+        for (var candidate : ifNoneMatch.split(",")) {
+            var tag = candidate.trim();
+            if (tag.equals("*") || (tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag)
+                    .equals(opaque)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dev.service;
+
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.util.QueryShape;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Per-stage search timers, tagged with the {@link QueryShape#label()} of the request:
+ * <ul>
+ *     <li>{@code search.stage{stage=build|elasticsearch|mapping|memory}}: query building, the Elasticsearch round trip
+ *     as seen by the application, and turning hits into the response; {@code memory} is a whole search answered
+ *     by the in-process backend</li>
+ *     <li>{@code search.took}: the {@code took} Elasticsearch reports, to compare against the round trip</li>
+ * </ul>
+ * Serialization happens after the response leaves the service and is timed as {@code search.serialization} by
+ * the message converter that writes search responses (see {@link com.example.dev.config.SearchMetricsConfig}).
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchMetrics {
+    public static final String STAGE_BUILD = "build";
+    public static final String STAGE_ELASTICSEARCH = "elasticsearch";
+    public static final String STAGE_MAPPING = "mapping";
+    public static final String STAGE_MEMORY = "memory";
+
+    private final MeterRegistry registry;
+    private final SlowQueryLog slowQueryLog;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    public <T> T time(String stage, QueryShape shape, Supplier<T> work) {
+        return stageTimer(stage, shape).record(work);
+    }
+
+    /**
+     * Runs the Elasticsearch call, records round trip and {@code took}, and hands outliers to the slow-query log.
+     */
+    public SearchHits<Teacher> search(QueryShape shape, SearchRequestParams params, NativeQuery query,
+                                      Supplier<SearchHits<Teacher>> call) {
+        var started = System.nanoTime();
+        var searchHits = call.get();
+        var wall = System.nanoTime() - started;
+        stageTimer(STAGE_ELASTICSEARCH, shape).record(wall, TimeUnit.NANOSECONDS);
+        var took = searchHits.getExecutionDuration();
+        timer("search.took", null, shape).record(took);
+        slowQueryLog.record(shape, params, query, wall, took, searchHits.getTotalHits());
+        return searchHits;
+    }
+
+    private Timer stageTimer(String stage, QueryShape shape) {
+        return timer("search.stage", stage, shape);
+    }
+
+    private Timer timer(String name, String stage, QueryShape shape) {
+        var label = shape.label();
+        return timers.computeIfAbsent(name + ':' + stage + ':' + label, k -> {
+            var builder = Timer.builder(name)
+                    .tag("shape", label)
+                    .publishPercentileHistogram();
+            if (stage != null) {
+                builder.tag("stage", stage);
+            }
+            return builder.register(registry);
+        });
+    }
+}
@@ -1,41 +1,79 @@
 package com.example.dev.service;
 
+import com.example.dev.backend.SearchBackend;
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.cache.SingleFlight;
 import com.example.dev.constants.Constants;
 import com.example.dev.dto.Pagination;
 import com.example.dev.dto.SearchRequestParams;
 import com.example.dev.dto.SearchResponse;
 import com.example.dev.dto.Teacher;
-import com.example.dev.util.NativeQueryBuilder;
+import com.example.dev.dto.TeacherCard;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.resilience.SearchGuard;
+import com.example.dev.suggest.SearchTermLog;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHitSupport;
 import org.springframework.data.elasticsearch.core.SearchHits;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class SearchService {
-    private final ElasticsearchOperations elasticsearchOperations;
+public class SearchService implements TutorSearch {
+    private final SearchResultCache searchResultCache;
+    private final IndexGeneration indexGeneration;
+    private final SearchTermLog searchTermLog;
+    private final SearchBackend searchBackend;
+    private final SearchGuard searchGuard;
+
+    // Keyed with the generation so a request arriving after a reload never joins a call against the old index.
+    private record Flight(SearchRequestKey key, long generation) {
+    }
+
+    private final SingleFlight<Flight, SearchResponse> inFlight = new SingleFlight<>();
 
+    @Override
     public SearchResponse search(SearchRequestParams params) {
-        log.info("Search request received with params: {}", params);
-        var query = NativeQueryBuilder.toSearchQuery(params);
-        log.info("bool query: {}", query.getQuery());
+        log.debug("Search request received with params: {}", params);
+        searchTermLog.record(params);
+        if (params.isCursorPaging()) {
+            // Cursor pages are tied to a point-in-time that expires, so they bypass the result cache.
+            return searchBackend.search(params);
+        }
+        var key = SearchRequestKey.of(params);
+        var cached = searchResultCache.get(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-        var searchHits = elasticsearchOperations.search(query, Teacher.class, Constants.Index.TUTORS);
-        log.info("hits found: {}", searchHits.getTotalHits());
-        return buildResponse(params, searchHits);
+        // Read the generation before querying so a concurrent reload can't be cached as fresh.
+        var generation = indexGeneration.current();
+        return inFlight.execute(new Flight(key, generation), () -> {
+            var response = searchGuard.orStale(key, () -> searchBackend.search(params));
+            if (!response.stale()) {
+                // A stale answer is served once per failed call, never cached as if it were fresh.
+                searchResultCache.put(key, response, generation);
+            }
+            return response;
+        });
     }
 
-    private SearchResponse buildResponse(SearchRequestParams params, SearchHits<Teacher> searchHits) {
-        var result = searchHits.getSearchHits()
-                .stream()
-                .map(SearchHit::getContent)
-                .toList();
+    /**
+     * Identical concurrent searches that shared another request's backend call instead of making their own.
+     */
+    public SingleFlight.Stats coalescingStats() {
+        return inFlight.stats();
+    }
+
+    public static SearchResponse buildResponse(SearchRequestParams params, SearchHits<Teacher> searchHits) {
         var searchPage = SearchHitSupport.searchPageFor(searchHits, PageRequest.of(params.page(), params.size()));
         var pagination = new Pagination(
                 searchPage.getNumber(),
@@ -44,12 +82,27 @@ public class SearchService {
                 searchPage.getTotalPages()
         );
 
-        return new SearchResponse(
-                result,
-                pagination,
-                searchHits.getExecutionDuration().toMillis()
-        );
+        return toResponse(params, searchHits.getSearchHits(), pagination, searchHits.getExecutionDuration().toMillis());
     }
 
+    public static SearchResponse toResponse(SearchRequestParams params, List<SearchHit<Teacher>> hits,
+                                             Pagination pagination, long timeTaken) {
+        if (params.isCardView()) {
+            return new SearchResponse(null, pagination, timeTaken, null, toCards(hits));
+        }
+        var result = hits.stream()
+                .map(SearchHit::getContent)
+                .toList();
+        return new SearchResponse(result, pagination, timeTaken);
+    }
 
+    private static List<TeacherCard> toCards(List<SearchHit<Teacher>> hits) {
+        var cards = new ArrayList<TeacherCard>(hits.size());
+        for (var hit : hits) {
+            var teacher = hit.getContent();
+            cards.add(new TeacherCard(teacher.id(), teacher.name(), teacher.subject(), teacher.level(),
+                    teacher.rating(), hit.getHighlightField(Constants.Tutor.DESCRIPTION)));
+        }
+        return cards;
+    }
 }
@@ -0,0 +1,160 @@
+package com.example.dev.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.search.Rescore;
+import co.elastic.clients.elasticsearch.core.search.ScoreMode;
+import co.elastic.clients.json.JsonpUtils;
+import co.elastic.clients.util.ObjectBuilder;
+import jakarta.annotation.PreDestroy;
+import com.example.dev.config.SlowQueryLogProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.util.QueryShape;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.query.RescorerQuery;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logs searches slower than {@code search.slowlog.threshold}, sampled to one per query shape per
+ * {@code search.slowlog.min-interval}. A logged search is replayed once with {@code profile: true} on a background
+ * thread so the log shows which clauses took the time, without profiling every request. The replay keeps the sort and
+ * rescore, so the profile is of the same work.
+ */
+@Component
+@Slf4j
+public class SlowQueryLog {
+    private static final int MAX_PROFILE_CHARS = 16_384;
+
+    private final SlowQueryLogProperties properties;
+    private final ElasticsearchClient client;
+    private final ExecutorService profiler;
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+
+    private static final class Window {
+        private final AtomicLong lastLogged = new AtomicLong(System.nanoTime() - Long.MAX_VALUE / 2);
+        private final AtomicLong suppressed = new AtomicLong();
+    }
+
+    public SlowQueryLog(SlowQueryLogProperties properties, ElasticsearchClient client) {
+        this.properties = properties;
+        this.client = client;
+        // One profile at a time; outliers arriving while the queue is full are logged without a profile.
+        this.profiler = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(4), r -> {
+            var thread = Executors.defaultThreadFactory().newThread(r);
+            thread.setName("slowlog-profiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public void record(QueryShape shape, SearchRequestParams params, NativeQuery query, long wallNanos,
+                       Duration took, long totalHits) {
+        if (wallNanos < properties.threshold().toNanos()) {
+            return;
+        }
+        var label = shape.label();
+        var window = windows.computeIfAbsent(label, l -> new Window());
+        var now = System.nanoTime();
+        var last = window.lastLogged.get();
+        if (now - last < properties.minInterval().toNanos() || !window.lastLogged.compareAndSet(last, now)) {
+            window.suppressed.incrementAndGet();
+            return;
+        }
+
+        log.warn("slow search [{}]: {} ms wall, {} ms took, {} hits, {} similar suppressed, params={}, query={}",
+                label, TimeUnit.NANOSECONDS.toMillis(wallNanos), took.toMillis(), totalHits,
+                window.suppressed.getAndSet(0), params, query.getQuery());
+        if (properties.profile()) {
+            try {
+                profiler.execute(() -> profile(label, query));
+            } catch (RejectedExecutionException e) {
+                log.debug("profiler busy, skipping profile of slow [{}] search", label);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        profiler.shutdownNow();
+    }
+
+    private void profile(String label, NativeQuery query) {
+        try {
+            var response = client.search(profileRequest(query), Void.class);
+            var profile = JsonpUtils.toJsonString(response.profile(), client._jsonpMapper());
+            if (profile.length() > MAX_PROFILE_CHARS) {
+                profile = profile.substring(0, MAX_PROFILE_CHARS) + "...";
+            }
+            log.warn("profile of slow search [{}] (took {} ms when replayed): {}", label, response.took(), profile);
+        } catch (Exception e) {
+            log.debug("cannot profile slow [{}] search: {}", label, e.getMessage());
+        }
+    }
+
+    /**
+     * The slow search as Elasticsearch ran it, with {@code profile: true}: query, post filter, aggregations, sort,
+     * rescore, hit counting and the page. Only source filtering and highlighting, which don't change where the query
+     * spends its time, are left out.
+     */
+    static SearchRequest profileRequest(NativeQuery query) {
+        return SearchRequest.of(s -> {
+            s.index(Constants.Index.TUTORS.getIndexName())
+                    .query(query.getQuery())
+                    .aggregations(query.getAggregations())
+                    .profile(true);
+            if (!query.getSortOptions().isEmpty()) {
+                s.sort(query.getSortOptions());
+            }
+            if (query.getPageable().isPaged()) {
+                s.from((int) query.getPageable().getOffset()).size(query.getPageable().getPageSize());
+            }
+            if (query.getFilter() != null) {
+                s.postFilter(query.getFilter());
+            }
+            if (Boolean.FALSE.equals(query.getTrackTotalHits())) {
+                s.trackTotalHits(t -> t.enabled(false));
+            } else if (query.getTrackTotalHitsUpTo() != null) {
+                s.trackTotalHits(t -> t.count(query.getTrackTotalHitsUpTo()));
+            }
+            for (var rescorer : query.getRescorerQueries()) {
+                if (rescorer.getQuery() instanceof NativeQuery rescoreQuery) {
+                    s.rescore(r -> rescore(r, rescorer, rescoreQuery));
+                }
+            }
+            return s;
+        });
+    }
+
+    private static ObjectBuilder<Rescore> rescore(Rescore.Builder builder, RescorerQuery rescorer, NativeQuery query) {
+        if (rescorer.getWindowSize() != null) {
+            builder.windowSize(rescorer.getWindowSize());
+        }
+        return builder.query(q -> {
+            q.query(query.getQuery());
+            if (rescorer.getQueryWeight() != null) {
+                q.queryWeight(rescorer.getQueryWeight().doubleValue());
+            }
+            if (rescorer.getRescoreQueryWeight() != null) {
+                q.rescoreQueryWeight(rescorer.getRescoreQueryWeight().doubleValue());
+            }
+            if (rescorer.getScoreMode() != RescorerQuery.ScoreMode.Default) {
+                q.scoreMode(ScoreMode.valueOf(rescorer.getScoreMode().name()));
+            }
+            return q;
+        });
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.dev.service;
+
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+
+/**
+ * A single search as {@link AsyncSearchService} runs it. {@link SearchService} is the one bean; tests and benchmarks
+ * pass a lambda instead of building the service.
+ */
+@FunctionalInterface
+public interface TutorSearch {
+
+    SearchResponse search(SearchRequestParams params);
+}
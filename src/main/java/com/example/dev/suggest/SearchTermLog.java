@@ -0,0 +1,64 @@
+package com.example.dev.suggest;
+
+import com.example.dev.config.SuggestProperties;
+import com.example.dev.dto.SearchRequestParams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counts free-text queries between two flushes to the suggestions index. Only first pages are counted so paging
+ * through one search doesn't inflate its popularity. Counts are updated and taken per term under the map's own
+ * locking, so an increment lands either in this drain or the next one, never in neither.
+ */
+@Component
+@RequiredArgsConstructor
+public class SearchTermLog {
+    private static final int MAX_TERM_LENGTH = 100;
+
+    private final SuggestProperties properties;
+
+    private final ConcurrentHashMap<String, Long> counts = new ConcurrentHashMap<>();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public void record(SearchRequestParams params) {
+        if (params.query() == null || params.isCursorPaging() || (params.page() != null && params.page() > 0)) {
+            return;
+        }
+        var term = params.query().trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+        if (term.isEmpty() || term.length() > MAX_TERM_LENGTH) {
+            return;
+        }
+        if (counts.computeIfPresent(term, (t, count) -> count + 1) != null) {
+            return;
+        }
+        if (counts.size() >= properties.maxTrackedQueries()) {
+            dropped.incrementAndGet();
+            return;
+        }
+        counts.merge(term, 1L, Long::sum);
+    }
+
+    /**
+     * Returns the counts recorded since the last drain and starts over.
+     */
+    public Map<String, Long> drain() {
+        var drained = new HashMap<String, Long>();
+        for (var term : counts.keySet()) {
+            var count = counts.remove(term);
+            if (count != null) {
+                drained.put(term, count);
+            }
+        }
+        return drained;
+    }
+
+    public long dropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.dev.suggest;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.json.JsonData;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.Suggestion;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads and writes the {@code suggestions} index. Each document is one suggestion with a completion field whose
+ * inputs are the text and every word suffix of it, weighted by popularity.
+ */
+@Component
+@RequiredArgsConstructor
+public class SuggestionIndex {
+    public static final String MAPPING_RESOURCE = "elasticsearch/suggestions-mapping.json";
+    public static final String TYPE_NAME = "name";
+    public static final String TYPE_SUBJECT = "subject";
+    public static final String TYPE_QUERY = "query";
+
+    private static final String TEXT = "text";
+    private static final String TYPE = "type";
+    private static final String WEIGHT = "weight";
+    private static final String SUBJECTS_AGG = "subjects";
+    private static final int MAX_SUBJECTS = 1000;
+    private static final String INCREMENT_SCRIPT =
+            "ctx._source.weight += params.n; ctx._source.search_term.weight = ctx._source.weight";
+
+    private final ElasticsearchClient client;
+
+    private record TutorName(String name, Double rating) {
+    }
+
+    public static String index() {
+        return Constants.Index.SUGGESTION.getIndexName();
+    }
+
+    public void ensureIndex() throws IOException {
+        if (client.indices().exists(e -> e.index(index())).value()) {
+            return;
+        }
+        try (var mapping = new ClassPathResource(MAPPING_RESOURCE).getInputStream()) {
+            client.indices().create(c -> c.index(index()).mappings(m -> m.withJson(mapping)));
+        }
+    }
+
+    /**
+     * Upserts every subject (weighted by tutor count) and up to {@code maxNames} tutor names (weighted by rating)
+     * from the serving tutors index. Re-seeding overwrites the same ids, so it is safe after every reload.
+     */
+    public int seedFromTutors(int maxNames) throws IOException {
+        var tutors = Constants.Index.TUTORS.getIndexName();
+        var operations = new ArrayList<BulkOperation>();
+
+        var subjects = client.search(s -> s.index(tutors).size(0)
+                .aggregations(SUBJECTS_AGG, a -> a.terms(t -> t.field(Constants.Tutor.SUBJECT).size(MAX_SUBJECTS))),
+                Void.class);
+        for (var bucket : subjects.aggregations().get(SUBJECTS_AGG).sterms().buckets().array()) {
+            operations.add(indexOperation(TYPE_SUBJECT, bucket.key().stringValue(), bucket.docCount()));
+        }
+
+        var names = client.search(s -> s.index(tutors).size(maxNames)
+                .sort(so -> so.field(f -> f.field(Constants.Tutor.RATING).order(SortOrder.Desc)))
+                .source(src -> src.filter(f -> f.includes(Constants.Tutor.NAME, Constants.Tutor.RATING))),
+                TutorName.class);
+        for (var hit : names.hits().hits()) {
+            var tutor = hit.source();
+            if (tutor != null && tutor.name() != null && !tutor.name().isBlank()) {
+                var rating = tutor.rating() == null ? 0 : tutor.rating();
+                operations.add(indexOperation(TYPE_NAME, tutor.name(), Math.round(rating * 10)));
+            }
+        }
+
+        bulk(operations);
+        return operations.size();
+    }
+
+    /**
+     * Adds {@code counts} to the weights of the given past queries, creating them when first seen.
+     */
+    public void addQueryCounts(Map<String, Long> counts) throws IOException {
+        var operations = new ArrayList<BulkOperation>(counts.size());
+        for (var entry : counts.entrySet()) {
+            var upsert = document(TYPE_QUERY, entry.getKey(), entry.getValue());
+            operations.add(BulkOperation.of(op -> op.update(u -> u.id(id(TYPE_QUERY, entry.getKey()))
+                    .action(a -> a.script(sc -> sc.source(INCREMENT_SCRIPT)
+                                    .params("n", JsonData.of(entry.getValue())))
+                            .upsert(upsert)))));
+        }
+        bulk(operations);
+    }
+
+    /**
+     * The heaviest suggestions, leaving out past queries searched fewer than {@code minQueryCount} times.
+     */
+    public Top top(int size, int minQueryCount) throws IOException {
+        var response = client.search(s -> s.index(index()).size(size).trackTotalHits(t -> t.enabled(true))
+                .query(q -> q.bool(b -> b
+                        .should(sh -> sh.bool(nb -> nb.mustNot(mn -> mn.term(t -> t.field(TYPE).value(TYPE_QUERY)))))
+                        .should(sh -> sh.range(r -> r.number(n -> n.field(WEIGHT).gte((double) minQueryCount))))))
+                .sort(so -> so.field(f -> f.field(WEIGHT).order(SortOrder.Desc))), Suggestion.class);
+        var suggestions = response.hits().hits().stream().map(h -> h.source()).toList();
+        var total = response.hits().total() == null ? suggestions.size() : response.hits().total().value();
+        return new Top(suggestions, total <= suggestions.size());
+    }
+
+    public record Top(List<Suggestion> suggestions, boolean complete) {
+    }
+
+    /**
+     * Asks the completion suggester for {@code prefix}. Returns a few extra options so rare past queries can be
+     * dropped without coming back short.
+     */
+    public List<Suggestion> complete(String prefix, int size, int minQueryCount) throws IOException {
+        var response = client.search(s -> s.index(index()).source(src -> src.filter(f -> f.includes(TEXT, TYPE, WEIGHT)))
+                .suggest(sg -> sg.suggesters(Constants.Suggestion.SUGGEST_NAME, fs -> fs.prefix(prefix)
+                        .completion(c -> c.field(Constants.Suggestion.SEARCH_TERM).size(size * 2).skipDuplicates(true)))),
+                Suggestion.class);
+        var suggestions = new ArrayList<Suggestion>();
+        for (var suggestion : response.suggest().getOrDefault(Constants.Suggestion.SUGGEST_NAME, List.of())) {
+            for (var option : suggestion.completion().options()) {
+                var source = option.source();
+                if (source != null && (!TYPE_QUERY.equals(source.type()) || source.weight() >= minQueryCount)) {
+                    suggestions.add(source);
+                }
+            }
+        }
+        return suggestions.size() > size ? suggestions.subList(0, size) : suggestions;
+    }
+
+    private void bulk(List<BulkOperation> operations) throws IOException {
+        if (operations.isEmpty()) {
+            return;
+        }
+        var response = client.bulk(b -> b.index(index()).operations(operations));
+        if (response.errors()) {
+            var failed = response.items().stream().filter(i -> i.error() != null).count();
+            throw new IOException(failed + " of " + operations.size() + " suggestion writes failed");
+        }
+    }
+
+    private static BulkOperation indexOperation(String type, String text, long weight) {
+        var document = document(type, text, weight);
+        return BulkOperation.of(op -> op.index(i -> i.id(id(type, text)).document(document)));
+    }
+
+    private static Map<String, Object> document(String type, String text, long weight) {
+        return Map.of(
+                TEXT, text,
+                TYPE, type,
+                WEIGHT, weight,
+                Constants.Suggestion.SEARCH_TERM, Map.of("input", inputs(text), WEIGHT, weight));
+    }
+
+    static List<String> inputs(String text) {
+        var inputs = new LinkedHashSet<String>();
+        var words = text.trim().split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            inputs.add(String.join(" ", List.of(words).subList(i, words.length)));
+        }
+        return List.copyOf(inputs);
+    }
+
+    private static String id(String type, String text) {
+        return type + ":" + text.trim().toLowerCase(Locale.ROOT);
+    }
+}
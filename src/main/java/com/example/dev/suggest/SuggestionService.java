@@ -0,0 +1,115 @@
+package com.example.dev.suggest;
+
+import com.example.dev.config.SuggestProperties;
+import com.example.dev.dto.SuggestResponse;
+import com.example.dev.index.IndexChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Answers search-as-you-type prefixes. The top {@code search.suggest.trie-size} suggestions live in an in-memory
+ * trie that is rebuilt on every refresh; only prefixes the trie can't fill go to the completion suggester.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionService {
+    public static final String SOURCE_MEMORY = "memory";
+    public static final String SOURCE_ELASTICSEARCH = "elasticsearch";
+
+    private final SuggestionIndex suggestionIndex;
+    private final SearchTermLog searchTermLog;
+    private final SuggestProperties properties;
+
+    private final AtomicBoolean reseed = new AtomicBoolean();
+
+    private volatile SuggestionTrie trie = SuggestionTrie.EMPTY;
+
+    public SuggestResponse suggest(String prefix, Integer size) {
+        var started = System.nanoTime();
+        var limit = Math.max(1, Math.min(size == null ? properties.defaultSize() : size, properties.maxSize()));
+        if (prefix == null || prefix.isBlank()) {
+            return new SuggestResponse(List.of(), SOURCE_MEMORY, 0);
+        }
+
+        var current = trie;
+        var suggestions = current.lookup(prefix, limit);
+        var source = SOURCE_MEMORY;
+        if (suggestions.size() < limit && !current.isComplete()) {
+            try {
+                suggestions = suggestionIndex.complete(SuggestionTrie.normalize(prefix), limit,
+                        properties.minQueryCount());
+                source = SOURCE_ELASTICSEARCH;
+            } catch (IOException | RuntimeException e) {
+                log.warn("completion suggester failed for '{}', answering from memory: {}", prefix, e.getMessage());
+            }
+        }
+        return new SuggestResponse(suggestions, source,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started));
+    }
+
+    /**
+     * Seeds tutor names and subjects from the serving index once it is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        seedFromTutors();
+        refresh();
+    }
+
+    /**
+     * Marks the seeded names and subjects stale. However many changes arrive, the next {@link #refresh} re-seeds
+     * them once.
+     */
+    @EventListener(IndexChangedEvent.class)
+    public void onIndexChanged(IndexChangedEvent event) {
+        reseed.set(true);
+    }
+
+    /**
+     * Re-seeds if the index changed, flushes the query counts collected since the last run and rebuilds the trie.
+     */
+    @Scheduled(fixedDelayString = "${search.suggest.refresh-interval:60s}",
+            initialDelayString = "${search.suggest.refresh-interval:60s}")
+    public void refresh() {
+        if (reseed.getAndSet(false)) {
+            seedFromTutors();
+        }
+        var counts = searchTermLog.drain();
+        try {
+            if (!counts.isEmpty()) {
+                suggestionIndex.addQueryCounts(counts);
+            }
+            var top = suggestionIndex.top(properties.trieSize(), properties.minQueryCount());
+            trie = new SuggestionTrie(top.suggestions(), properties.maxSize(), top.complete());
+            log.debug("suggestion trie rebuilt with {} entries after {} new queries", trie.size(), counts.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("cannot refresh suggestions, keeping {} in memory: {}", trie.size(), e.getMessage());
+        }
+    }
+
+    private void seedFromTutors() {
+        try {
+            suggestionIndex.ensureIndex();
+            var seeded = suggestionIndex.seedFromTutors(properties.trieSize());
+            log.info("seeded {} tutor suggestions", seeded);
+        } catch (IOException | RuntimeException e) {
+            reseed.set(true);
+            log.warn("cannot seed suggestions from '{}', retrying on the next refresh: {}", SuggestionIndex.index(),
+                    e.getMessage());
+        }
+    }
+
+    public int trieSize() {
+        return trie.size();
+    }
+}
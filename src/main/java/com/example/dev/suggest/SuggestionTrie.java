@@ -0,0 +1,97 @@
+package com.example.dev.suggest;
+
+import com.example.dev.dto.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable prefix tree over the hottest suggestions. Every node keeps its own best {@code perNode} entries, so a
+ * lookup is a walk down the prefix with no sorting or subtree scan. Like the completion field, each word of a
+ * suggestion is a prefix entry point, so "smith" finds "John Smith".
+ */
+public class SuggestionTrie {
+    public static final SuggestionTrie EMPTY = new SuggestionTrie(List.of(), 1, false);
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator.comparingLong(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::text);
+
+    private final Node root = new Node();
+    private final int perNode;
+    private final int size;
+    private final boolean complete;
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Suggestion> top = new ArrayList<>();
+    }
+
+    /**
+     * @param complete true when {@code suggestions} is everything the suggestions index holds, so a short answer
+     *                 from the trie is final and needs no Elasticsearch round trip
+     */
+    public SuggestionTrie(Collection<Suggestion> suggestions, int perNode, boolean complete) {
+        this.perNode = perNode;
+        this.complete = complete;
+        var sorted = new ArrayList<>(suggestions);
+        sorted.sort(BY_WEIGHT);
+        // Inserting heaviest first means each node's list fills up in weight order and can stop at perNode.
+        for (var suggestion : sorted) {
+            insert(suggestion);
+        }
+        this.size = sorted.size();
+    }
+
+    private void insert(Suggestion suggestion) {
+        var key = normalize(suggestion.text());
+        add(root, suggestion);
+        for (int start = 0; start < key.length(); start++) {
+            if (start > 0 && key.charAt(start - 1) != ' ' || key.charAt(start) == ' ') {
+                continue;
+            }
+            var node = root;
+            for (int i = start; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new Node());
+                add(node, suggestion);
+            }
+        }
+    }
+
+    private void add(Node node, Suggestion suggestion) {
+        if (node.top.size() < perNode && node.top.stream().noneMatch(s -> s.text().equalsIgnoreCase(suggestion.text()))) {
+            node.top.add(suggestion);
+        }
+    }
+
+    /**
+     * Best suggestions starting with {@code prefix}, heaviest first; at most {@code perNode} are known.
+     */
+    public List<Suggestion> lookup(String prefix, int limit) {
+        var key = normalize(prefix);
+        var node = root;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.children.get(key.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return List.copyOf(node.top.subList(0, Math.min(limit, node.top.size())));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
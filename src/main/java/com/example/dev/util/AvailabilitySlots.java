@@ -0,0 +1,159 @@
+package com.example.dev.util;
+
+import co.elastic.clients.elasticsearch._types.FieldValue;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermsQuery;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.TreeSet;
+
+import static com.example.dev.constants.Constants.Tutor.*;
+
+/**
+ * Flattened, non-nested form of weekly availability. Each availability entry is indexed as the half-hour grid
+ * points it covers, as keywords in {@code availability_slots}: {@code monday@0830} for day and time,
+ * {@code @0830} for time on any day, and {@code monday} for the day alone.
+ * <p>
+ * The nested filter matches an entry when {@code start_time <= request.end} and {@code end_time >= request.start}.
+ * When the request times sit on the grid, that holds exactly when the entry and the request share a grid point,
+ * so the filter compiles to a single {@code terms} query. Entries that cover no grid point (e.g. 08:10-08:20)
+ * are flagged with {@link #INEXACT}, and only those tutors are re-checked with the nested query.
+ */
+public class AvailabilitySlots {
+    public static final int SLOT_MINUTES = 30;
+    public static final String INEXACT = "~inexact";
+
+    private static final int LAST_SLOT = (24 * 60 - SLOT_MINUTES) / SLOT_MINUTES;
+    private static final String DAY_SEPARATOR = "@";
+
+    /**
+     * Index side: the slot keywords for a tutor's availability entries, given as (day, start_time, end_time).
+     */
+    public static List<String> slotsFor(Collection<String[]> entries) {
+        var slots = new TreeSet<String>();
+        for (var entry : entries) {
+            var day = entry[0] == null ? null : entry[0].toLowerCase(Locale.ROOT);
+            var start = minutes(entry[1]);
+            var end = minutes(entry[2]);
+            if (day != null) {
+                slots.add(day);
+            }
+            if (start == null || end == null) {
+                slots.add(INEXACT);
+                continue;
+            }
+            int first = ceilSlot(start);
+            int last = end / SLOT_MINUTES;
+            if (first > last) {
+                slots.add(INEXACT);
+                continue;
+            }
+            for (int slot = first; slot <= last; slot++) {
+                var point = DAY_SEPARATOR + format(slot);
+                slots.add(point);
+                if (day != null) {
+                    slots.add(day + point);
+                }
+            }
+        }
+        return List.copyOf(slots);
+    }
+
+    /**
+     * Query side: the slot filter equivalent to {@link ElasticSearchUtil#buildAvailabilityQuery}, or empty when a
+     * request time is off the grid or unparseable and only the nested query can answer it.
+     */
+    public static Optional<Query> compile(List<AvailabilityRange> availabilities, Query nestedFallback) {
+        var terms = queryTerms(availabilities);
+        if (terms.isEmpty()) {
+            return Optional.empty();
+        }
+        if (terms.get().isEmpty()) {
+            return Optional.of(ElasticSearchUtil.MATCH_ALL);
+        }
+
+        var values = terms.get().stream().map(FieldValue::of).toList();
+        var slotsQuery = Query.of(q -> q.terms(TermsQuery.of(t -> t.field(AVAILABILITY_SLOTS)
+                .terms(v -> v.value(values)))));
+        var inexactQuery = Query.of(q -> q.bool(BoolQuery.of(b -> b
+                .filter(ElasticSearchUtil.cachedTermQuery(AVAILABILITY_SLOTS, INEXACT))
+                .filter(nestedFallback))));
+        return Optional.of(Query.of(q -> q.bool(BoolQuery.of(b -> b
+                .should(slotsQuery, inexactQuery)
+                .minimumShouldMatch("1")))));
+    }
+
+    /**
+     * Slot keywords of which a tutor must have at least one, or empty if some range needs the nested query.
+     */
+    static Optional<List<String>> queryTerms(List<AvailabilityRange> availabilities) {
+        var terms = new TreeSet<String>();
+        for (var availability : availabilities) {
+            if (availability == null || !addTerms(availability, terms)) {
+                return Optional.empty();
+            }
+        }
+        return Optional.of(List.copyOf(terms));
+    }
+
+    /**
+     * @return false if the range can't be expressed exactly with grid points
+     */
+    private static boolean addTerms(AvailabilityRange availability, Collection<String> terms) {
+        var hasDay = hasText(availability.day());
+        var hasStart = hasText(availability.startTime());
+        var hasEnd = hasText(availability.endTime());
+        if (!hasStart && !hasEnd) {
+            if (hasDay) {
+                terms.add(availability.day().toLowerCase(Locale.ROOT));
+            }
+            return true;
+        }
+        Integer start = hasStart ? minutes(availability.startTime()) : Integer.valueOf(0);
+        Integer end = hasEnd ? minutes(availability.endTime()) : Integer.valueOf(LAST_SLOT * SLOT_MINUTES);
+        if (start == null || end == null || start % SLOT_MINUTES != 0 || end % SLOT_MINUTES != 0 || start > end) {
+            return false;
+        }
+        var prefix = hasDay ? availability.day().toLowerCase(Locale.ROOT) + DAY_SEPARATOR : DAY_SEPARATOR;
+        for (int slot = start / SLOT_MINUTES; slot <= end / SLOT_MINUTES; slot++) {
+            terms.add(prefix + format(slot));
+        }
+        return true;
+    }
+
+    private static Integer minutes(String time) {
+        if (!hasText(time)) {
+            return null;
+        }
+        try {
+            var parsed = LocalTime.parse(time.trim());
+            if (parsed.getSecond() != 0 || parsed.getNano() != 0) {
+                return null;
+            }
+            return parsed.getHour() * 60 + parsed.getMinute();
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static int ceilSlot(int minutes) {
+        return (minutes + SLOT_MINUTES - 1) / SLOT_MINUTES;
+    }
+
+    private static String format(int slot) {
+        int minutes = slot * SLOT_MINUTES;
+        return String.format(Locale.ROOT, "%02d%02d", minutes / 60, minutes % 60);
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
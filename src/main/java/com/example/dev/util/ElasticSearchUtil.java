@@ -4,13 +4,27 @@ import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
 import co.elastic.clients.elasticsearch._types.aggregations.TermsAggregation;
 import co.elastic.clients.elasticsearch._types.query_dsl.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.function.UnaryOperator;
 import java.util.ArrayList;
 import com.example.dev.constants.Constants.Fuzzy;
 import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
 
 public class ElasticSearchUtil {
+    public static final Query MATCH_ALL = Query.of(builder -> builder.matchAll(MatchAllQuery.of(b -> b)));
+
+    // Subjects and levels are low-cardinality keywords, so their term queries are built once and shared. Values come
+    // from requests, so the least recently used are evicted instead of letting the first ones fill it for good.
+    static final int TERM_QUERY_CACHE_LIMIT = 1024;
+    private static final Map<String, Query> TERM_QUERY_CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+            return size() > TERM_QUERY_CACHE_LIMIT;
+        }
+    };
+
     public static Query buildTermQuery(String field, String value, float boost) {
         var termQuery = TermQuery.of(builder -> builder
                 .field(field)
@@ -22,6 +36,19 @@ public class ElasticSearchUtil {
         return Query.of(builder -> builder.term(termQuery));
     }
 
+    public static Query cachedTermQuery(String field, String value) {
+        var key = field + '\u0000' + value;
+        synchronized (TERM_QUERY_CACHE) {
+            return TERM_QUERY_CACHE.computeIfAbsent(key, k -> buildTermQuery(field, value, 1.0f));
+        }
+    }
+
+    static boolean isTermQueryCached(String field, String value) {
+        synchronized (TERM_QUERY_CACHE) {
+            return TERM_QUERY_CACHE.containsKey(field + '\u0000' + value);
+        }
+    }
+
     public static Query buildRangeQuery(String field, UnaryOperator<NumberRangeQuery.Builder> function) {
         var numberRangeQuery = NumberRangeQuery.of(builder -> function.apply(builder.field(field)));
 
@@ -38,7 +65,7 @@ public class ElasticSearchUtil {
 
     public static Query buildMultimatchQuery(List<String> fields, String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return Query.of(builder -> builder.matchAll(MatchAllQuery.of(b -> b)));
+            return MATCH_ALL;
         }
 
         var multiMatchQuery = MultiMatchQuery.of(builder -> builder
@@ -55,7 +82,7 @@ public class ElasticSearchUtil {
 
     public static Query buildContainsQuery(List<String> fields, String searchTerm) {
         if (searchTerm == null || searchTerm.trim().isEmpty()) {
-            return Query.of(builder -> builder.matchAll(MatchAllQuery.of(b -> b)));
+            return MATCH_ALL;
         }
 
         // Create wildcard queries for each field to support "contains" functionality
@@ -101,7 +128,7 @@ public class ElasticSearchUtil {
         List<Query> availabilityQueries = new ArrayList<>();
         if (availabilities == null) {
             // Return a MatchAllQuery if the list is null or empty
-            return Query.of(builder -> builder.matchAll(MatchAllQuery.of(b -> b)));
+            return MATCH_ALL;
         }
         for (AvailabilityRange availability : availabilities) {
             List<Query> conditions = new ArrayList<>();
@@ -150,7 +177,7 @@ public class ElasticSearchUtil {
         
         // Combine all availability queries with OR (should match any one of them)
         if (availabilityQueries.isEmpty()) {
-            return Query.of(builder -> builder.matchAll(MatchAllQuery.of(b -> b)));
+            return MATCH_ALL;
         } else if (availabilityQueries.size() == 1) {
             return availabilityQueries.get(0);
         } else {
@@ -160,7 +187,11 @@ public class ElasticSearchUtil {
     }
 
     public static Aggregation buildTermsAggregation(String field){
-        var termsAggregation = TermsAggregation.of(builder -> builder.field(field).size(10));
+        return buildTermsAggregation(field, 10);
+    }
+
+    public static Aggregation buildTermsAggregation(String field, int size) {
+        var termsAggregation = TermsAggregation.of(builder -> builder.field(field).size(size));
         return Aggregation.of(builder -> builder.terms(termsAggregation));
     }
 }
@@ -0,0 +1,132 @@
+package com.example.dev.util;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.dev.dto.FacetBucket;
+import com.example.dev.dto.SearchRequestParams;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.dev.constants.Constants.Tutor.*;
+
+/**
+ * Facet counts computed in the search request itself. Filters move to a {@code post_filter} so they only narrow
+ * the hits, and each facet is a {@code filter} aggregation over every other filter: a facet never counts against
+ * its own selection, so picking "Physics" still shows how many tutors teach the other subjects.
+ */
+public class Facets {
+    public static final String SUBJECT_FACET = "subject";
+    public static final String LEVEL_FACET = "level";
+    public static final String RATING_FACET = "rating";
+    public static final String DAY_FACET = "day";
+
+    public static final int SUBJECT_BUCKETS = 50;
+    public static final int LEVEL_BUCKETS = 20;
+    public static final int DAY_BUCKETS = 7;
+    // Range buckets come back ordered by their lower bound, lowest first.
+    public static final List<Double> RATING_FLOORS = List.of(4.5, 4.0, 3.0);
+
+    private static final String VALUES = "values";
+    private static final String TUTORS = "tutors";
+
+    /**
+     * @param excludedRule name of the {@link QueryRule} this facet ignores
+     */
+    public record Facet(String name, String excludedRule, Aggregation values) {
+    }
+
+    public static final List<Facet> FACETS = List.of(
+            new Facet(SUBJECT_FACET, SUBJECT, ElasticSearchUtil.buildTermsAggregation(SUBJECT, SUBJECT_BUCKETS)),
+            new Facet(LEVEL_FACET, LEVEL, ElasticSearchUtil.buildTermsAggregation(LEVEL, LEVEL_BUCKETS)),
+            new Facet(RATING_FACET, RATING, ratingAggregation()),
+            new Facet(DAY_FACET, AVAILABILITY, dayAggregation())
+    );
+
+    private static Aggregation ratingAggregation() {
+        var ranges = RATING_FLOORS.stream()
+                .map(floor -> AggregationRange.of(r -> r.key(floor.toString()).from(floor)))
+                .toList();
+        return Aggregation.of(a -> a.range(r -> r.field(RATING).ranges(ranges)));
+    }
+
+    private static Aggregation dayAggregation() {
+        // Counted per tutor, not per availability entry, through reverse_nested.
+        return Aggregation.of(a -> a.nested(n -> n.path(AVAILABILITY))
+                .aggregations(VALUES, d -> d.terms(t -> t.field(AVAILABILITY_DAY).size(DAY_BUCKETS))
+                        .aggregations(TUTORS, r -> r.reverseNested(rn -> rn))));
+    }
+
+    /**
+     * True when the facet equals its count over the whole index: no text query and no filter it would respect.
+     * Those results are the same for every such request and can come from a cache.
+     */
+    public static boolean isBase(QueryPlan plan, Facet facet) {
+        return plan.mustRules().isEmpty() && plan.shouldRules().isEmpty()
+                && !plan.hasFiltersOtherThan(facet.excludedRule());
+    }
+
+    /**
+     * The request's filters as one {@code post_filter}, or null when it has none.
+     */
+    public static Query postFilter(QueryPlan plan, SearchRequestParams params) {
+        var filters = plan.bindFilters(params, null);
+        return filters.isEmpty() ? null : Query.of(q -> q.bool(b -> b.filter(filters)));
+    }
+
+    /**
+     * One aggregation per facet, except those listed in {@code skip}.
+     */
+    public static Map<String, Aggregation> aggregations(QueryPlan plan, SearchRequestParams params, Set<String> skip) {
+        var aggregations = new LinkedHashMap<String, Aggregation>();
+        for (var facet : FACETS) {
+            if (skip.contains(facet.name())) {
+                continue;
+            }
+            var filters = plan.bindFilters(params, facet.excludedRule());
+            var filter = filters.isEmpty() ? ElasticSearchUtil.MATCH_ALL : Query.of(q -> q.bool(b -> b.filter(filters)));
+            aggregations.put(facet.name(), Aggregation.of(a -> a.filter(filter).aggregations(VALUES, facet.values())));
+        }
+        return aggregations;
+    }
+
+    public static Map<String, List<FacetBucket>> read(AggregationsContainer<?> container) {
+        var facets = new LinkedHashMap<String, List<FacetBucket>>();
+        if (!(container instanceof ElasticsearchAggregations aggregations)) {
+            return facets;
+        }
+        for (var facet : FACETS) {
+            var aggregation = aggregations.get(facet.name());
+            if (aggregation != null) {
+                facets.put(facet.name(), buckets(facet.name(), values(aggregation)));
+            }
+        }
+        return facets;
+    }
+
+    private static Aggregate values(ElasticsearchAggregation aggregation) {
+        return aggregation.aggregation().getAggregate().filter().aggregations().get(VALUES);
+    }
+
+    private static List<FacetBucket> buckets(String facet, Aggregate values) {
+        var buckets = new ArrayList<FacetBucket>();
+        switch (facet) {
+            case RATING_FACET -> values.range().buckets().array()
+                    .forEach(b -> buckets.add(new FacetBucket(b.key(), b.docCount())));
+            case DAY_FACET -> values.nested().aggregations().get(VALUES).sterms().buckets().array()
+                    .forEach(b -> buckets.add(new FacetBucket(b.key().stringValue(),
+                            b.aggregations().get(TUTORS).reverseNested().docCount())));
+            default -> values.sterms().buckets().array()
+                    .forEach(b -> buckets.add(new FacetBucket(b.key().stringValue(), b.docCount())));
+        }
+        return List.copyOf(buckets);
+    }
+}
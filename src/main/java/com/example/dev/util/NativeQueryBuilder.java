@@ -1,13 +1,27 @@
 package com.example.dev.util;
 
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
 import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch.core.msearch.MultisearchBody;
+import co.elastic.clients.elasticsearch.core.search.HighlighterEncoder;
+import com.example.dev.config.RankingProperties;
 import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.HighlightQuery;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.data.elasticsearch.core.query.SourceFilter;
+import org.springframework.data.elasticsearch.core.query.highlight.Highlight;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightField;
+import org.springframework.data.elasticsearch.core.query.highlight.HighlightParameters;
+import static com.example.dev.constants.Constants.Tutor.*;
 import static com.example.dev.util.QueryRules.*;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 public class NativeQueryBuilder {
     public static final List<QueryRule> FILTER_QUERY_RULES = List.of(
@@ -24,11 +38,158 @@ public class NativeQueryBuilder {
             // Empty for now - can add scoring factors later
     );
 
+    // view=card: only what a result card shows, with the description replaced by highlighted fragments
+    public static final List<String> CARD_FIELDS = List.of(ID, NAME, SUBJECT, LEVEL, RATING);
+    public static final SourceFilter CARD_SOURCE = new FetchSourceFilterBuilder()
+            .withIncludes(CARD_FIELDS.toArray(String[]::new))
+            .build();
+    public static final int CARD_FRAGMENT_SIZE = 150;
+    public static final int CARD_FRAGMENTS = 2;
+    public static final HighlightQuery CARD_HIGHLIGHT = new HighlightQuery(new Highlight(
+            HighlightParameters.builder()
+                    .withEncoder("html")
+                    .withPreTags("<em>")
+                    .withPostTags("</em>")
+                    .withFragmentSize(CARD_FRAGMENT_SIZE)
+                    .withNumberOfFragments(CARD_FRAGMENTS)
+                    .withNoMatchSize(CARD_FRAGMENT_SIZE)
+                    .build(),
+            List.of(new HighlightField(DESCRIPTION))), Teacher.class);
+
     public static NativeQuery toSearchQuery(SearchRequestParams params) {
+        return toSearchQuery(QueryPlan.forParams(params), params);
+    }
+
+    public static NativeQuery toSearchQuery(QueryPlan plan, SearchRequestParams params) {
+        return NativeQuery.builder()
+                .withQuery(plan.bind(params))
+                .withPageable(PageRequest.of(params.page(), params.size()))
+                .withTrackTotalHits(true)
+                .build();
+    }
+
+    public static NativeQuery toSearchQuery(QueryPlan plan, SearchRequestParams params, int trackTotalHitsUpTo) {
+        return toSearchQuery(plan, params, trackTotalHitsUpTo, null);
+    }
+
+    /**
+     * @param ranking rescoring of text searches (see {@link Ranking}); null for text score only
+     */
+    public static NativeQuery toSearchQuery(QueryPlan plan, SearchRequestParams params, int trackTotalHitsUpTo,
+                                            RankingProperties ranking) {
+        var builder = NativeQuery.builder()
+                .withQuery(plan.bind(params))
+                .withPageable(PageRequest.of(params.page(), params.size()))
+                .withTrackTotalHitsUpTo(trackTotalHitsUpTo);
+        return rescore(project(builder, params), plan, params, ranking).build();
+    }
+
+    /**
+     * Same hits as {@link #toSearchQuery(QueryPlan, SearchRequestParams, int)}, plus facet aggregations for every
+     * facet not in {@code skipFacets}. Filters are applied as a {@code post_filter} so the aggregations see past them.
+     */
+    public static NativeQuery toFacetedSearchQuery(QueryPlan plan, SearchRequestParams params, int trackTotalHitsUpTo,
+                                                   Set<String> skipFacets) {
+        return toFacetedSearchQuery(plan, params, trackTotalHitsUpTo, skipFacets, null);
+    }
+
+    public static NativeQuery toFacetedSearchQuery(QueryPlan plan, SearchRequestParams params, int trackTotalHitsUpTo,
+                                                   Set<String> skipFacets, RankingProperties ranking) {
+        var builder = NativeQuery.builder()
+                .withQuery(plan.bindScoring(params))
+                .withPageable(PageRequest.of(params.page(), params.size()))
+                .withTrackTotalHitsUpTo(trackTotalHitsUpTo);
+        var postFilter = Facets.postFilter(plan, params);
+        if (postFilter != null) {
+            builder.withFilter(postFilter);
+        }
+        Facets.aggregations(plan, params, skipFacets).forEach(builder::withAggregation);
+        return rescore(project(builder, params), plan, params, ranking).build();
+    }
+
+    /**
+     * Cursor paging: reads a point-in-time snapshot in {@code _score}, {@code id} order, continuing after
+     * {@code searchAfter} (null for the first page). Hits are only counted when {@code trackTotalHitsUpTo} is set.
+     * Never rescored: Elasticsearch rejects {@code rescore} next to an explicit sort.
+     */
+    public static NativeQuery toCursorQuery(QueryPlan plan, SearchRequestParams params, PointInTime pointInTime,
+                                            List<Object> searchAfter, Integer trackTotalHitsUpTo) {
+        var builder = NativeQuery.builder()
+                .withQuery(plan.bind(params))
+                .withPageable(PageRequest.of(0, params.size()))
+                .withSort(s -> s.score(score -> score.order(SortOrder.Desc)))
+                .withSort(s -> s.field(f -> f.field(ID).order(SortOrder.Asc)))
+                .withPointInTime(pointInTime);
+        if (searchAfter != null) {
+            builder.withSearchAfter(searchAfter);
+        }
+        if (trackTotalHitsUpTo != null) {
+            builder.withTrackTotalHitsUpTo(trackTotalHitsUpTo);
+        } else {
+            builder.withTrackTotalHits(false);
+        }
+        return project(builder, params).build();
+    }
+
+    /**
+     * The same search as {@link #toSearchQuery(QueryPlan, SearchRequestParams, int)}, as one body of a
+     * {@code _msearch} request.
+     */
+    public static MultisearchBody toMultisearchBody(QueryPlan plan, SearchRequestParams params,
+                                                    int trackTotalHitsUpTo) {
+        return toMultisearchBody(plan, params, trackTotalHitsUpTo, null);
+    }
+
+    public static MultisearchBody toMultisearchBody(QueryPlan plan, SearchRequestParams params,
+                                                    int trackTotalHitsUpTo, RankingProperties ranking) {
+        return MultisearchBody.of(body -> {
+            body.query(plan.bind(params))
+                    .from(params.page() * params.size())
+                    .size(params.size())
+                    .trackTotalHits(t -> t.count(trackTotalHitsUpTo));
+            if (params.isCardView()) {
+                body.source(source -> source.filter(f -> f.includes(CARD_FIELDS)))
+                        .highlight(h -> h.encoder(HighlighterEncoder.Html)
+                                .preTags("<em>")
+                                .postTags("</em>")
+                                .fragmentSize(CARD_FRAGMENT_SIZE)
+                                .numberOfFragments(CARD_FRAGMENTS)
+                                .noMatchSize(CARD_FRAGMENT_SIZE)
+                                .fields(DESCRIPTION, f -> f));
+            }
+            if (Ranking.applies(plan, ranking)) {
+                body.rescore(Ranking.rescore(params, ranking));
+            }
+            return body;
+        });
+    }
+
+    private static org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder rescore(
+            org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder builder, QueryPlan plan,
+            SearchRequestParams params, RankingProperties ranking) {
+        if (Ranking.applies(plan, ranking)) {
+            builder.withRescorerQuery(Ranking.rescorer(params, ranking));
+        }
+        return builder;
+    }
+
+    private static org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder project(
+            org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder builder, SearchRequestParams params) {
+        if (params.isCardView()) {
+            builder.withSourceFilter(CARD_SOURCE).withHighlightQuery(CARD_HIGHLIGHT);
+        }
+        return builder;
+    }
+
+    /**
+     * Builds the query by walking every rule on each call. Kept as the reference the rule-selection cache is checked
+     * and benchmarked against.
+     */
+    public static NativeQuery toSearchQueryUncached(SearchRequestParams params) {
         var filterQueries = buildQueries(FILTER_QUERY_RULES, params);
         var mustQueries = buildQueries(MUST_QUERY_RULES, params);
         var shouldQueries = buildQueries(SHOULD_QUERY_RULES, params);
-        
+
         // Ensure we have at least one query - if all are empty, use match_all
         if (filterQueries.isEmpty() && mustQueries.isEmpty() && shouldQueries.isEmpty()) {
             return NativeQuery.builder()
@@ -37,7 +198,7 @@ public class NativeQueryBuilder {
                     .withTrackTotalHits(true)
                     .build();
         }
-        
+
         var boolQuery = BoolQuery.of(builder -> builder.filter(filterQueries)
                 .must(mustQueries)
                 .should(shouldQueries)
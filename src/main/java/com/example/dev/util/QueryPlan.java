@@ -0,0 +1,118 @@
+package com.example.dev.util;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.dev.dto.SearchRequestParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Rule-selection cache: the rules that fire for one {@link QueryShape}, resolved once per shape. Nothing of the
+ * query itself is cached here. {@link #bind} runs the builder of every selected rule against the request's values on
+ * each call, since every leaf carries one. What it saves is testing each rule per clause, and it gives the facet
+ * and metric code a shared, low-cardinality handle. Subject and level leaves are reused from
+ * {@link ElasticSearchUtil#cachedTermQuery}.
+ * <p>
+ * {@code availabilitySlots} picks {@link QueryRules#AVAILABILITY_SLOTS_QUERY} over the nested availability rule. It
+ * depends on the serving index, so callers take it from {@code AvailabilityModeSelector}; the overloads without it
+ * plan nested queries, which every index can answer.
+ */
+public record QueryPlan(QueryShape shape, boolean availabilitySlots, List<QueryRule> filterRules,
+                        List<QueryRule> mustRules, List<QueryRule> shouldRules) {
+
+    private record Key(QueryShape shape, boolean availabilitySlots) {
+    }
+
+    private static final Map<Key, QueryPlan> PLANS = new ConcurrentHashMap<>();
+
+    public static QueryPlan forShape(QueryShape shape) {
+        return forShape(shape, false);
+    }
+
+    public static QueryPlan forShape(QueryShape shape, boolean availabilitySlots) {
+        return PLANS.computeIfAbsent(new Key(shape, availabilitySlots), QueryPlan::compile);
+    }
+
+    public static QueryPlan forParams(SearchRequestParams params) {
+        return forParams(params, false);
+    }
+
+    public static QueryPlan forParams(SearchRequestParams params, boolean availabilitySlots) {
+        return forShape(QueryShape.of(params), availabilitySlots);
+    }
+
+    public static int cachedPlans() {
+        return PLANS.size();
+    }
+
+    private static QueryPlan compile(Key key) {
+        var shape = key.shape();
+        var filterRules = QueryShape.select(NativeQueryBuilder.FILTER_QUERY_RULES, shape.filterMask());
+        if (key.availabilitySlots()) {
+            filterRules = filterRules.stream()
+                    .map(rule -> rule == QueryRules.AVAILABILITY_QUERY ? QueryRules.AVAILABILITY_SLOTS_QUERY : rule)
+                    .toList();
+        }
+        return new QueryPlan(shape, key.availabilitySlots(), filterRules,
+                QueryShape.select(NativeQueryBuilder.MUST_QUERY_RULES, shape.mustMask()),
+                QueryShape.select(NativeQueryBuilder.SHOULD_QUERY_RULES, shape.shouldMask()));
+    }
+
+    public Query bind(SearchRequestParams params) {
+        if (shape.isEmpty()) {
+            return ElasticSearchUtil.MATCH_ALL;
+        }
+        var filterQueries = bindAll(filterRules, params);
+        var mustQueries = bindAll(mustRules, params);
+        var shouldQueries = bindAll(shouldRules, params);
+
+        var boolQuery = BoolQuery.of(builder -> builder.filter(filterQueries)
+                .must(mustQueries)
+                .should(shouldQueries)
+        );
+        return Query.of(builder -> builder.bool(boolQuery));
+    }
+
+    /**
+     * The must and should clauses only, for requests whose filters go into a {@code post_filter}.
+     */
+    public Query bindScoring(SearchRequestParams params) {
+        if (mustRules.isEmpty() && shouldRules.isEmpty()) {
+            return ElasticSearchUtil.MATCH_ALL;
+        }
+        var mustQueries = bindAll(mustRules, params);
+        var shouldQueries = bindAll(shouldRules, params);
+        return Query.of(builder -> builder.bool(b -> b.must(mustQueries).should(shouldQueries)));
+    }
+
+    /**
+     * The filter clauses, leaving out the rule named {@code excludedRule} (null to keep all).
+     */
+    public List<Query> bindFilters(SearchRequestParams params, String excludedRule) {
+        var queries = new ArrayList<Query>(filterRules.size());
+        for (var rule : filterRules) {
+            if (!rule.name().equals(excludedRule)) {
+                queries.add(rule.function().apply(params));
+            }
+        }
+        return queries;
+    }
+
+    public boolean hasFiltersOtherThan(String excludedRule) {
+        return filterRules.stream().anyMatch(rule -> !rule.name().equals(excludedRule));
+    }
+
+    private static List<Query> bindAll(List<QueryRule> rules, SearchRequestParams params) {
+        if (rules.isEmpty()) {
+            return List.of();
+        }
+        var queries = new ArrayList<Query>(rules.size());
+        for (var rule : rules) {
+            queries.add(rule.function().apply(params));
+        }
+        return queries;
+    }
+}
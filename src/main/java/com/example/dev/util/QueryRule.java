@@ -7,10 +7,14 @@ import java.util.Optional;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-public record QueryRule(Predicate<SearchRequestParams> predicate, Function<SearchRequestParams, Query> function) {
+public record QueryRule(String name, Predicate<SearchRequestParams> predicate, Function<SearchRequestParams, Query> function) {
 
-    public static QueryRule of(Predicate<SearchRequestParams> predicate, Function<SearchRequestParams, Query> function) {
-        return new QueryRule(predicate, function);
+    public static QueryRule of(String name, Predicate<SearchRequestParams> predicate, Function<SearchRequestParams, Query> function) {
+        return new QueryRule(name, predicate, function);
+    }
+
+    public boolean applies(SearchRequestParams params) {
+        return predicate.test(params);
     }
 
     public Optional<Query> build(SearchRequestParams params) {
@@ -1,36 +1,50 @@
 package com.example.dev.util;
 
-import org.springframework.data.util.Predicates;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.example.dev.dto.SearchRequestParams;
 
 import java.util.List;
+import java.util.Locale;
 import java.util.Objects;
 import static com.example.dev.constants.Constants.Tutor.*;
 public class QueryRules {
     public static final String BOOST_FIELD_FORMAT = "%s^%f";
+    public static final String SEARCH_RULE = "query";
 
-    public static final QueryRule SUBJECT_QUERY = QueryRule.of(
+    public static final QueryRule SUBJECT_QUERY = QueryRule.of(SUBJECT,
             srp -> Objects.nonNull(srp.subject()) && !srp.subject().trim().isEmpty(),
-            srp -> ElasticSearchUtil.buildTermQuery(SUBJECT, srp.subject(), 1.0f)
+            srp -> ElasticSearchUtil.cachedTermQuery(SUBJECT, srp.subject())
     );
 
-    public static final QueryRule LEVEL_QUERY = QueryRule.of(
+    public static final QueryRule LEVEL_QUERY = QueryRule.of(LEVEL,
 //            srp -> Objects.nonNull(srp.level()),
             srp -> Objects.nonNull(srp.level()) && !srp.level().trim().isEmpty(),
-            srp -> ElasticSearchUtil.buildTermQuery(LEVEL, srp.level(), 1.0f)
+            srp -> ElasticSearchUtil.cachedTermQuery(LEVEL, srp.level())
     );
 
-    public static final QueryRule RATING_QUERY = QueryRule.of(
+    public static final QueryRule RATING_QUERY = QueryRule.of(RATING,
             srp -> Objects.nonNull(srp.rating()),
             srp -> ElasticSearchUtil.buildRangeQuery(RATING, builder -> builder.gte(srp.rating()))
     );
 
-    public static final QueryRule AVAILABILITY_QUERY = QueryRule.of(
-//            srp -> Objects.nonNull(srp.availabilities()) && !srp.availabilities().isEmpty(),
-            Predicates.isTrue(),
-            srp -> ElasticSearchUtil.buildAvailabilityQuery(AVAILABILITY, AVAILABILITY_DAY,
-                    AVAILABILITY_START, AVAILABILITY_END, srp.availabilities())
+    public static final QueryRule AVAILABILITY_QUERY = QueryRule.of(AVAILABILITY,
+            // Skipped entirely when no range carries a condition, instead of filtering on match_all
+            srp -> availabilityCount(srp) > 0,
+            QueryRules::nestedAvailabilityQuery
     );
 
+    // Takes AVAILABILITY_QUERY's place in plans for indices that carry availability_slots.
+    public static final QueryRule AVAILABILITY_SLOTS_QUERY = QueryRule.of(AVAILABILITY,
+            AVAILABILITY_QUERY.predicate(),
+            srp -> {
+                var nested = nestedAvailabilityQuery(srp);
+                // Prefer the flattened slot keywords; the nested query remains for what they can't express exactly.
+                return AvailabilitySlots.compile(srp.availabilities(), nested).orElse(nested);
+            }
+    );
+
+    public static final List<String> SEARCH_FIELDS = List.of(NAME, DESCRIPTION);
+
     public static final List<String> SEARCH_BOOST_FIELDS = List.of(
             boostField(NAME, 3.0f),        // Highest boost - tutor name is most important
             boostField(DESCRIPTION, 2.5f), // High boost - description contains detailed info
@@ -38,12 +52,36 @@ public class QueryRules {
             boostField(LEVEL, 1.0f)        // Lower boost - level is more of a filter than search target
     );
 
-    public static final QueryRule SEARCH_QUERY = QueryRule.of(
+    public static final QueryRule SEARCH_QUERY = QueryRule.of(SEARCH_RULE,
             srp -> Objects.nonNull(srp.query()) && !srp.query().trim().isEmpty(),
-            srp -> ElasticSearchUtil.buildMultimatchQuery(List.of(NAME, DESCRIPTION), srp.query())
+            srp -> ElasticSearchUtil.buildMultimatchQuery(SEARCH_FIELDS, srp.query())
     );
 
+    public static int availabilityCount(SearchRequestParams srp) {
+        if (srp.availabilities() == null) {
+            return 0;
+        }
+        int count = 0;
+        for (var availability : srp.availabilities()) {
+            if (availability != null && (hasText(availability.day())
+                    || hasText(availability.startTime()) || hasText(availability.endTime()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static Query nestedAvailabilityQuery(SearchRequestParams srp) {
+        return ElasticSearchUtil.buildAvailabilityQuery(AVAILABILITY, AVAILABILITY_DAY, AVAILABILITY_START,
+                AVAILABILITY_END, srp.availabilities());
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+
     public static String boostField(String field, float boost) {
-        return BOOST_FIELD_FORMAT.formatted(field, boost);
+        // Sent to Elasticsearch, so never in the JVM's locale (3,000000 on a de_DE machine).
+        return String.format(Locale.ROOT, BOOST_FIELD_FORMAT, field, boost);
     }
 }
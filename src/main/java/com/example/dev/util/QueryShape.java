@@ -0,0 +1,63 @@
+package com.example.dev.util;
+
+import com.example.dev.dto.SearchRequestParams;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Signature of a request: which {@link QueryRule}s fire in each clause. Whether availability ranges are present is
+ * one filter bit, not their number, so the set of shapes stays bounded by the rule count. Computing it tests every
+ * rule's predicate; requests with the same shape share one {@link QueryPlan}.
+ */
+public record QueryShape(int filterMask, int mustMask, int shouldMask) {
+
+    public static QueryShape of(SearchRequestParams params) {
+        return new QueryShape(
+                mask(NativeQueryBuilder.FILTER_QUERY_RULES, params),
+                mask(NativeQueryBuilder.MUST_QUERY_RULES, params),
+                mask(NativeQueryBuilder.SHOULD_QUERY_RULES, params)
+        );
+    }
+
+    public boolean isEmpty() {
+        return filterMask == 0 && mustMask == 0 && shouldMask == 0;
+    }
+
+    /**
+     * Low-cardinality label such as {@code subject+level+query}, suitable for logs and metric tags.
+     */
+    public String label() {
+        var names = new ArrayList<String>();
+        collect(NativeQueryBuilder.FILTER_QUERY_RULES, filterMask, names);
+        collect(NativeQueryBuilder.MUST_QUERY_RULES, mustMask, names);
+        collect(NativeQueryBuilder.SHOULD_QUERY_RULES, shouldMask, names);
+        return names.isEmpty() ? "match_all" : String.join("+", names);
+    }
+
+    static List<QueryRule> select(List<QueryRule> rules, int mask) {
+        var selected = new ArrayList<QueryRule>(Integer.bitCount(mask));
+        for (int i = 0; i < rules.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                selected.add(rules.get(i));
+            }
+        }
+        return List.copyOf(selected);
+    }
+
+    private static int mask(List<QueryRule> rules, SearchRequestParams params) {
+        int mask = 0;
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).applies(params)) {
+                mask |= 1 << i;
+            }
+        }
+        return mask;
+    }
+
+    private static void collect(List<QueryRule> rules, int mask, List<String> names) {
+        for (var rule : select(rules, mask)) {
+            names.add(rule.name());
+        }
+    }
+}
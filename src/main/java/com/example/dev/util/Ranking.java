@@ -0,0 +1,84 @@
+package com.example.dev.util;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.FieldValueFactorModifier;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionBoostMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScore;
+import co.elastic.clients.elasticsearch._types.query_dsl.FunctionScoreMode;
+import co.elastic.clients.elasticsearch._types.query_dsl.MultiMatchQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import co.elastic.clients.elasticsearch.core.search.Rescore;
+import co.elastic.clients.elasticsearch.core.search.ScoreMode;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.dto.SearchRequestParams;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.query.RescorerQuery;
+
+import java.util.ArrayList;
+
+import static com.example.dev.constants.Constants.Tutor.RATING;
+
+/**
+ * Ranking features beyond the text match, applied as a {@code rescore} so they only run over the top window of
+ * hits. The rescore query is a {@code function_score} that adds up:
+ * <ul>
+ *     <li>the request text against {@link QueryRules#SEARCH_BOOST_FIELDS}</li>
+ *     <li>{@code log1p(rating)}</li>
+ *     <li>{@code log1p} of the configured popularity field, when there is one</li>
+ * </ul>
+ * and it is added to the original score ({@code score_mode: total}). Every hit in the window gets a positive
+ * rescore, so with the default weights rescored hits stay ahead of the ones outside the window and deeper pages
+ * keep a consistent order.
+ */
+public class Ranking {
+
+    /**
+     * Only free-text searches are rescored; filter-only searches all score the same and stay as cheap as before.
+     */
+    public static boolean applies(QueryPlan plan, RankingProperties ranking) {
+        return ranking != null && ranking.enabled() && ranking.windowSize() > 0 && !plan.mustRules().isEmpty();
+    }
+
+    public static RescorerQuery rescorer(SearchRequestParams params, RankingProperties ranking) {
+        return new RescorerQuery(NativeQuery.builder().withQuery(rescoreQuery(params, ranking)).build())
+                .withWindowSize(ranking.windowSize())
+                .withQueryWeight(ranking.queryWeight())
+                .withRescoreQueryWeight(ranking.rescoreQueryWeight())
+                .withScoreMode(RescorerQuery.ScoreMode.Total);
+    }
+
+    /**
+     * {@link #rescorer} for request bodies built directly with the client, such as {@code _msearch}.
+     */
+    public static Rescore rescore(SearchRequestParams params, RankingProperties ranking) {
+        return Rescore.of(r -> r.windowSize(ranking.windowSize())
+                .query(q -> q.query(rescoreQuery(params, ranking))
+                        .queryWeight((double) ranking.queryWeight())
+                        .rescoreQueryWeight((double) ranking.rescoreQueryWeight())
+                        .scoreMode(ScoreMode.Total)));
+    }
+
+    public static Query rescoreQuery(SearchRequestParams params, RankingProperties ranking) {
+        var fields = MultiMatchQuery.of(m -> m.query(params.query())
+                .fields(QueryRules.SEARCH_BOOST_FIELDS)
+                .type(TextQueryType.MostFields)
+                .boost(ranking.fieldsWeight()));
+        // match_all keeps hits that miss the boosted fields (fuzzy matches) in the function score.
+        var query = Query.of(q -> q.bool(b -> b.must(ElasticSearchUtil.MATCH_ALL).should(s -> s.multiMatch(fields))));
+
+        var functions = new ArrayList<FunctionScore>();
+        functions.add(logFactor(RATING, ranking.ratingWeight()));
+        if (ranking.hasPopularity()) {
+            functions.add(logFactor(ranking.popularityField(), ranking.popularityWeight()));
+        }
+        return Query.of(q -> q.functionScore(f -> f.query(query)
+                .functions(functions)
+                .scoreMode(FunctionScoreMode.Sum)
+                .boostMode(FunctionBoostMode.Sum)));
+    }
+
+    private static FunctionScore logFactor(String field, float weight) {
+        return FunctionScore.of(f -> f.weight((double) weight)
+                .fieldValueFactor(v -> v.field(field).modifier(FieldValueFactorModifier.Log1p).missing(0.0)));
+    }
+}
@@ -26,6 +26,36 @@ class TutorSearchApp {
     init() {
         this.setupEventListeners();
         this.generateAvailabilityGrid();
+        this.loadFacetCounts();
+    }
+    
+    async loadFacetCounts() {
+        // Unfiltered facets are served from the server-side base facet cache
+        try {
+            const response = await fetch('/api/search?facets=true&page=0&size=1');
+            if (!response.ok) {
+                return;
+            }
+            const data = await response.json();
+            this.showFacetCounts('[data-subject]', 'subject', data.facets?.subject);
+            this.showFacetCounts('[data-level]', 'level', data.facets?.level);
+        } catch (error) {
+            console.warn('Facet counts unavailable:', error);
+        }
+    }
+    
+    showFacetCounts(selector, attribute, buckets) {
+        if (!buckets) {
+            return;
+        }
+        const counts = new Map(buckets.map(bucket => [bucket.value.toLowerCase(), bucket.count]));
+        document.querySelectorAll(selector).forEach(card => {
+            const count = counts.get(card.dataset[attribute].toLowerCase()) ?? 0;
+            const label = document.createElement('p');
+            label.className = 'text-xs text-gray-500 mt-1';
+            label.textContent = `${count} tutor${count === 1 ? '' : 's'}`;
+            card.appendChild(label);
+        });
     }
     
     setupEventListeners() {
@@ -0,0 +1,157 @@
+package com.example.dev.backend;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import com.example.dev.cache.BaseFacetCache;
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.config.AvailabilityProperties;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.config.SearchPagingProperties;
+import com.example.dev.config.SlowQueryLogProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.index.AvailabilityModeSelector;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.service.SearchCursor;
+import com.example.dev.service.SearchMetrics;
+import com.example.dev.service.SlowQueryLog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.elasticsearch.NoSuchIndexException;
+import org.springframework.data.elasticsearch.ResourceNotFoundException;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ElasticsearchSearchBackendTest {
+    private static final Duration KEEP_ALIVE = Duration.ofMinutes(1);
+
+    private final ElasticsearchOperations operations = mock(ElasticsearchOperations.class);
+    private final IndexGeneration indexGeneration = new IndexGeneration(event -> { });
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(
+            new SlowQueryLogProperties(Duration.ofMinutes(1), Duration.ofMinutes(1), false),
+            mock(ElasticsearchClient.class));
+    private final ElasticsearchSearchBackend backend = new ElasticsearchSearchBackend(operations,
+            new BaseFacetCache(new SearchCacheProperties(true, 10, Duration.ofMinutes(1)), indexGeneration),
+            indexGeneration,
+            new AvailabilityModeSelector(new AvailabilityProperties(AvailabilityProperties.Mode.NESTED), null),
+            new SearchPagingProperties(10000, KEEP_ALIVE),
+            new RankingProperties(false, 50, 1f, 1f, 1f, 1f, "", 0f),
+            new SearchMetrics(new SimpleMeterRegistry(), slowQueryLog));
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.close();
+    }
+
+    @Test
+    void firstPageOpensAPointInTimeAndSortsForSearchAfter() {
+        when(operations.openPointInTime(Constants.Index.TUTORS, KEEP_ALIVE)).thenReturn("pit-1");
+        answer(hits("pit-2", 5, "t1", "t2"));
+
+        var response = backend.search(params("*"));
+
+        var query = sentQuery();
+        assertThat(query.getPointInTime().id()).isEqualTo("pit-1");
+        assertThat(query.getSearchAfter()).isNull();
+        assertThat(query.getTrackTotalHitsUpTo()).isEqualTo(10000);
+        assertThat(query.getSortOptions()).extracting(SortOptions::toString)
+                .containsExactly("SortOptions: {\"_score\":{\"order\":\"desc\"}}",
+                        "SortOptions: {\"" + Constants.Tutor.ID + "\":{\"order\":\"asc\"}}");
+
+        var cursor = SearchCursor.decode(response.pagination().nextCursor(), fingerprint());
+        assertThat(cursor.pitId()).isEqualTo("pit-2");
+        assertThat(cursor.searchAfter()).containsExactly(1.0, "t2");
+        assertThat(cursor.page()).isZero();
+        assertThat(cursor.totalHits()).isEqualTo(5);
+    }
+
+    @Test
+    void laterPagesSearchAfterTheCursorWithoutCountingAndCloseTheLastOne() {
+        var token = new SearchCursor("pit-2", List.of(1.0, "t2"), 0, 3, fingerprint()).encode();
+        answer(hits(null, 3, "t3"));
+
+        var response = backend.search(params(token));
+
+        var query = sentQuery();
+        assertThat(query.getPointInTime().id()).isEqualTo("pit-2");
+        assertThat(query.getSearchAfter()).containsExactly(1.0, "t2");
+        assertThat(query.getTrackTotalHits()).isFalse();
+        assertThat(response.pagination().nextCursor()).isNull();
+        assertThat(response.pagination().totalElements()).isEqualTo(3);
+        verify(operations).closePointInTime("pit-2");
+        verify(operations, never()).openPointInTime(any(), any());
+    }
+
+    @Test
+    void anExpiredPointInTimeIsABadRequest() {
+        var token = new SearchCursor("pit-gone", List.of(1.0, "t2"), 0, 3, fingerprint()).encode();
+        when(operations.search(any(NativeQuery.class), eq(Teacher.class), eq(Constants.Index.TUTORS)))
+                .thenThrow(new ResourceNotFoundException("No search context found for id [7]"));
+
+        assertThatThrownBy(() -> backend.search(params(token)))
+                .isInstanceOf(BadRequestException.class)
+                .hasMessageStartingWith("cursor expired");
+    }
+
+    @Test
+    void aMissingIndexIsNotBlamedOnTheCursor() {
+        var token = new SearchCursor("pit-1", List.of(1.0, "t2"), 0, 3, fingerprint()).encode();
+        when(operations.search(any(NativeQuery.class), eq(Teacher.class), eq(Constants.Index.TUTORS)))
+                .thenThrow(new NoSuchIndexException("teachers"));
+
+        assertThatThrownBy(() -> backend.search(params(token))).isInstanceOf(NoSuchIndexException.class);
+    }
+
+    private static SearchRequestParams params(String cursor) {
+        return SearchRequestParams.builder().subject("Physics").size(2).cursor(cursor).build();
+    }
+
+    private static int fingerprint() {
+        return SearchRequestKey.of(params("*")).withoutPaging().hashCode();
+    }
+
+    private void answer(SearchHits<Teacher> hits) {
+        when(operations.search(any(NativeQuery.class), eq(Teacher.class), eq(Constants.Index.TUTORS)))
+                .thenReturn(hits);
+    }
+
+    private NativeQuery sentQuery() {
+        var captor = ArgumentCaptor.forClass(NativeQuery.class);
+        verify(operations).search(captor.capture(), eq(Teacher.class), eq(Constants.Index.TUTORS));
+        return captor.getValue();
+    }
+
+    private static SearchHits<Teacher> hits(String pitId, long total, String... ids) {
+        var hits = new ArrayList<SearchHit<Teacher>>();
+        for (var id : ids) {
+            var teacher = new Teacher(id, "Tutor " + id, "", "Physics", "Undergraduate", 4.0, List.of());
+            hits.add(new SearchHit<>("teachers_v1", id, null, 1f, new Object[]{1.0, id}, Map.of(), Map.of(), null,
+                    null, List.of(), teacher));
+        }
+        return new SearchHitsImpl<>(total, TotalHitsRelation.EQUAL_TO, 1f, Duration.ofMillis(3), null, pitId, hits,
+                null, null, null);
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.dev.backend;
+
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.StaleResponseStore;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SearchBackendProperties;
+import com.example.dev.config.SearchResilienceProperties;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.resilience.CircuitBreaker;
+import com.example.dev.resilience.SearchGuard;
+import com.example.dev.service.SearchCursor;
+import com.example.dev.service.SearchMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class InMemorySearchBackendTest {
+    private static final SearchRequestParams PHYSICS = SearchRequestParams.builder().subject("Physics").size(1).build();
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @TempDir
+    Path dir;
+    private Path file;
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @BeforeEach
+    void writeTutors() throws IOException {
+        file = dir.resolve("tutors.json");
+        Files.writeString(file, """
+                {"id": "p1", "name": "Ann", "description": "", "subject": "Physics", "level": "Undergraduate", "rating": 4.5}
+                {"id": "p2", "name": "Ben", "description": "", "subject": "Physics", "level": "Undergraduate", "rating": 4.0}
+                """);
+    }
+
+    @Test
+    void craftedCursorsAreBadRequests() {
+        var memory = backend(SearchBackendProperties.Mode.MEMORY);
+        var first = memory.search(withCursor(SearchCursor.FIRST));
+        assertThat(first.pagination().nextCursor()).isNotNull();
+
+        var fingerprint = SearchRequestKey.of(PHYSICS).withoutPaging().hashCode();
+        var snapshot = SearchCursor.decode(first.pagination().nextCursor(), fingerprint).pitId();
+        for (List<Object> searchAfter : List.<List<Object>>of(List.of("one"), List.of(-1), List.of())) {
+            var crafted = new SearchCursor(snapshot, searchAfter, 0, 2, fingerprint).encode();
+            assertThatThrownBy(() -> memory.search(withCursor(crafted))).isInstanceOf(BadRequestException.class);
+        }
+    }
+
+    @Test
+    void failoverAnswersAreFlaggedStaleAndAnOpenBreakerSkipsElasticsearch() {
+        var properties = new SearchBackendProperties(SearchBackendProperties.Mode.FAILOVER, file);
+        var elasticsearch = mock(ElasticsearchSearchBackend.class);
+        when(elasticsearch.search(PHYSICS)).thenThrow(new IllegalStateException("connection refused"));
+        var resilience = new SearchResilienceProperties(true, Duration.ofSeconds(1), 10, 2, 200,
+                Duration.ofMillis(500), 2, 0.5, Duration.ofMinutes(1), 1, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(64), Duration.ofMinutes(10));
+        var guard = new SearchGuard(resilience, new StaleResponseStore(resilience), executor);
+        var routing = new RoutingSearchBackend(elasticsearch, backend(properties.mode()), properties, guard);
+
+        for (int i = 0; i < 3; i++) {
+            var response = routing.search(PHYSICS);
+            assertThat(response.teachers()).extracting("id").containsExactly("p1");
+            assertThat(response.stale()).isTrue();
+        }
+        // The first two failures opened the breaker; the third search went straight to memory.
+        verify(elasticsearch, times(2)).search(PHYSICS);
+        assertThat(guard.stats().circuit()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private InMemorySearchBackend backend(SearchBackendProperties.Mode mode) {
+        return new InMemorySearchBackend(new SearchBackendProperties(mode, file),
+                new RankingProperties(true, 50, 1f, 1f, 1f, 1f, "", 0f),
+                new SearchMetrics(new SimpleMeterRegistry(), null));
+    }
+
+    private static SearchRequestParams withCursor(String cursor) {
+        return SearchRequestParams.builder().subject("Physics").size(1).cursor(cursor).build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.dev.backend;
+
+import com.example.dev.dto.Availability;
+import com.example.dev.dto.FacetBucket;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.dto.Teacher;
+import com.example.dev.util.QueryPlan;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.SearchHit;
+
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryTutorIndexTest {
+    private final InMemoryTutorIndex index = new InMemoryTutorIndex(List.of(
+            tutor("1", "Alice Algebra", "Patient algebra and calculus coaching.", "Mathematics", "High School", 4.8,
+                    new Availability("Monday", LocalTime.of(8, 0), LocalTime.of(10, 0))),
+            tutor("2", "Bob Stone", "Physics problems, step by step.", "Physics", "Undergraduate", 4.2,
+                    new Availability("Thursday", LocalTime.of(18, 0), LocalTime.of(20, 0))),
+            tutor("3", "Carol Vance", "Calculus for engineers.", "Mathematics", "Undergraduate", 3.5,
+                    new Availability("Monday", LocalTime.of(18, 0), LocalTime.of(19, 0)))));
+
+    @Test
+    void subjectAndLevelMatchIgnoringCase() {
+        assertThat(ids(search(SearchRequestParams.builder().subject("mathematics").level("UNDERGRADUATE").build())))
+                .containsExactly("3");
+    }
+
+    @Test
+    void ratingIsAFloor() {
+        assertThat(ids(search(SearchRequestParams.builder().rating(4.2).build())))
+                .containsExactly("1", "2");
+    }
+
+    @Test
+    void availabilityRangesOverlapEntriesOnTheirDay() {
+        var evening = List.of(new AvailabilityRange("monday", "18:30", "21:00"));
+        assertThat(ids(search(SearchRequestParams.builder().availabilities(evening).build())))
+                .containsExactly("3");
+
+        var eitherDay = List.of(new AvailabilityRange("Monday", null, "09:00"),
+                new AvailabilityRange("Thursday", "20:00", null));
+        assertThat(ids(search(SearchRequestParams.builder().availabilities(eitherDay).build())))
+                .containsExactly("1", "2");
+    }
+
+    @Test
+    void textNeedsEveryTokenInOneFieldWithinOneEdit() {
+        assertThat(ids(search(SearchRequestParams.builder().query("calculsu").build())))
+                .containsExactlyInAnyOrder("1", "3");
+        assertThat(ids(search(SearchRequestParams.builder().query("algebra calculus").build())))
+                .containsExactly("1");
+        // The first two characters have to match exactly.
+        assertThat(ids(search(SearchRequestParams.builder().query("xalculus").build()))).isEmpty();
+    }
+
+    @Test
+    void facetsIgnoreTheirOwnFilter() {
+        var params = SearchRequestParams.builder().subject("Physics").facets(true).build();
+        var result = index.search(QueryPlan.forParams(params), params, 0, 10, true);
+
+        assertThat(ids(result)).containsExactly("2");
+        assertThat(result.facets().get("subject"))
+                .containsExactly(new FacetBucket("Mathematics", 2), new FacetBucket("Physics", 1));
+        assertThat(result.facets().get("level")).containsExactly(new FacetBucket("Undergraduate", 1));
+        assertThat(result.facets().get("rating")).containsExactly(new FacetBucket("3.0", 1),
+                new FacetBucket("4.0", 1), new FacetBucket("4.5", 0));
+    }
+
+    @Test
+    void cardHighlightsEscapeAndMarkMatches() {
+        assertThat(InMemoryTutorIndex.highlight("Algebra & <b>calculus</b>.", Set.of("calculus")))
+                .containsExactly("Algebra &amp; &lt;b&gt;<em>calculus</em>&lt;/b&gt;.");
+    }
+
+    private InMemoryTutorIndex.Result search(SearchRequestParams params) {
+        return index.search(QueryPlan.forParams(params), params, params.page() * params.size(), params.size(), false);
+    }
+
+    private static List<String> ids(InMemoryTutorIndex.Result result) {
+        return result.hits().getSearchHits().stream().map(SearchHit::getId).toList();
+    }
+
+    private static Teacher tutor(String id, String name, String description, String subject, String level,
+                                 double rating, Availability availability) {
+        return new Teacher(id, name, description, subject, level, rating, List.of(availability));
+    }
+}
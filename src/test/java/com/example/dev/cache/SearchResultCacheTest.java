@@ -0,0 +1,119 @@
+package com.example.dev.cache;
+
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.dto.Teacher;
+import com.example.dev.index.IndexGeneration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchResultCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+    private IndexGeneration indexGeneration;
+    private SearchResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        indexGeneration = new IndexGeneration(event -> { });
+        cache = new SearchResultCache(new SearchCacheProperties(true, 2, Duration.ofSeconds(10)),
+                indexGeneration, clock::get);
+    }
+
+    @Test
+    void equivalentParamsShareOneKey() {
+        var a = SearchRequestParams.builder().query(" Algebra ").subject("Mathematics").level("")
+                .availabilities(List.of(
+                        new AvailabilityRange("Tuesday", "10:00", "12:00"),
+                        new AvailabilityRange("monday", "08:00", "09:00")))
+                .build();
+        var b = SearchRequestParams.builder().query("algebra").subject(" mathematics")
+                .availabilities(List.of(
+                        new AvailabilityRange("Monday", "08:00", "09:00"),
+                        new AvailabilityRange("TUESDAY", "10:00", "12:00 ")))
+                .build();
+
+        assertThat(SearchRequestKey.of(a)).isEqualTo(SearchRequestKey.of(b));
+        assertThat(SearchRequestKey.of(SearchRequestParams.builder().build()))
+                .isEqualTo(SearchRequestKey.of(SearchRequestParams.builder().query(" ").subject("")
+                        .availabilities(List.of()).build()));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        cache.put(key("a"), response(), 0);
+        cache.put(key("b"), response(), 0);
+        cache.get(key("a"));
+        cache.put(key("c"), response(), 0);
+
+        assertThat(cache.get(key("a"))).isPresent();
+        assertThat(cache.get(key("b"))).isEmpty();
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void expiresEntriesAfterTtl() {
+        cache.put(key("a"), response(), 0);
+        clock.addAndGet(Duration.ofSeconds(10).toNanos());
+
+        assertThat(cache.get(key("a"))).isEmpty();
+        assertThat(cache.stats().expirations()).isEqualTo(1);
+    }
+
+    @Test
+    void dropsEntriesWhenIndexGenerationMoves() {
+        cache.put(key("a"), response(), 0);
+        indexGeneration.advance("test");
+
+        assertThat(cache.get(key("a"))).isEmpty();
+
+        // A response computed against the previous generation must not be cached.
+        cache.put(key("a"), response(), 0);
+        assertThat(cache.get(key("a"))).isEmpty();
+        assertThat(cache.stats().misses()).isEqualTo(2);
+    }
+
+    @Test
+    void dropsOnlyEntriesHoldingUpdatedTutorsAndFacetedEntries() {
+        cache = new SearchResultCache(new SearchCacheProperties(true, 3, Duration.ofSeconds(10)),
+                indexGeneration, clock::get);
+        cache.put(key("a"), response("t1"), 0);
+        cache.put(key("b"), response("t2"), 0);
+        cache.put(key("c"), response("t3").withFacets(Map.of()), 0);
+        // Evicts a; its t1 must no longer count towards invalidations.
+        cache.put(key("d"), response("t1"), 0);
+
+        assertThat(cache.invalidateTutors(Set.of("t1"))).isEqualTo(2);
+        assertThat(cache.get(key("b"))).isPresent();
+        assertThat(cache.get(key("c"))).isEmpty();
+        assertThat(cache.get(key("d"))).isEmpty();
+
+        // Replacing an entry re-indexes it under its new hits.
+        cache.put(key("b"), response("t4"), 0);
+        assertThat(cache.invalidateTutors(Set.of("t2"))).isZero();
+        assertThat(cache.invalidateTutors(Set.of("t4"))).isEqualTo(1);
+    }
+
+    private static SearchRequestKey key(String subject) {
+        return SearchRequestKey.of(SearchRequestParams.builder().subject(subject).build());
+    }
+
+    private static SearchResponse response() {
+        return new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1);
+    }
+
+    private static SearchResponse response(String id) {
+        var teacher = new Teacher(id, "Tutor " + id, "", "Physics", "Undergraduate", 4.0, List.of());
+        return new SearchResponse(List.of(teacher), new Pagination(0, 1, 1, 1), 1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.dev.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+    private static final int CALLERS = 8;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentDuplicatesShareOneCall() throws Exception {
+        var results = startCallers(() -> "hits");
+        awaitWaiters();
+        release.countDown();
+
+        for (var result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("hits");
+        }
+        assertThat(calls).hasValue(1);
+        assertThat(singleFlight.stats()).isEqualTo(new SingleFlight.Stats(0, 1, CALLERS - 1));
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndIsNotRemembered() throws Exception {
+        var results = startCallers(() -> {
+            throw new IllegalStateException("cluster down");
+        });
+        awaitWaiters();
+        release.countDown();
+
+        for (var result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(IllegalStateException.class)
+                    .hasRootCauseMessage("cluster down");
+        }
+        assertThat(singleFlight.execute("q", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private ArrayList<CompletableFuture<String>> startCallers(Supplier<String> body) {
+        var results = new ArrayList<CompletableFuture<String>>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> singleFlight.execute("q", () -> {
+                calls.incrementAndGet();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return body.get();
+            }), executor));
+        }
+        return results;
+    }
+
+    private void awaitWaiters() throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.stats().collapsed() < CALLERS - 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.dev.config;
+
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SearchMetricsConfigTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SearchMetricsConfig.TimedSearchResponseConverter converter =
+            new SearchMetricsConfig.TimedSearchResponseConverter(new ObjectMapper(), registry);
+
+    @Test
+    void timesSearchResponsesOnlyAndLeavesBootsConverterInPlace() throws IOException {
+        var boots = new MappingJackson2HttpMessageConverter();
+        var converters = new ArrayList<HttpMessageConverter<?>>(List.of(boots));
+        new SearchMetricsConfig(new ObjectMapper(), registry).extendMessageConverters(converters);
+
+        assertThat(converters).hasSize(2).last().isSameAs(boots);
+        assertThat(converter.canWrite(SearchResponse.class, MediaType.APPLICATION_JSON)).isTrue();
+        assertThat(converter.canWrite(Map.class, MediaType.APPLICATION_JSON)).isFalse();
+        assertThat(converter.canRead(SearchResponse.class, MediaType.APPLICATION_JSON)).isFalse();
+
+        converter.write(new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1), MediaType.APPLICATION_JSON,
+                new MockHttpOutputMessage());
+
+        assertThat(registry.get("search.serialization").tag("response", "SearchResponse").timer().count())
+                .isEqualTo(1);
+    }
+}
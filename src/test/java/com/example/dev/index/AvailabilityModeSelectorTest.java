@@ -0,0 +1,51 @@
+package com.example.dev.index;
+
+import com.example.dev.config.AvailabilityProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import com.example.dev.util.QueryRules;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilityModeSelectorTest {
+    private static final SearchRequestParams PARAMS = SearchRequestParams.builder().subject("Physics")
+            .availabilities(List.of(new AvailabilityRange("Monday", "08:00", "10:00"))).build();
+
+    private final StubBulkIndexClient client = new StubBulkIndexClient();
+
+    @Test
+    void autoPlansSlotsOnlyForAnIndexThatMapsThem() {
+        var selector = selector(AvailabilityProperties.Mode.AUTO);
+        selector.select();
+        assertThat(selector.plan(PARAMS).filterRules()).contains(QueryRules.AVAILABILITY_QUERY);
+
+        client.mapped.add(Constants.Tutor.AVAILABILITY_SLOTS);
+        selector.select();
+
+        var plan = selector.plan(PARAMS);
+        assertThat(plan.availabilitySlots()).isTrue();
+        assertThat(plan.filterRules()).contains(QueryRules.AVAILABILITY_SLOTS_QUERY)
+                .doesNotContain(QueryRules.AVAILABILITY_QUERY);
+        assertThat(plan.bind(PARAMS).toString()).contains(Constants.Tutor.AVAILABILITY_SLOTS);
+    }
+
+    @Test
+    void eachSelectorKeepsItsOwnMode() {
+        var slots = selector(AvailabilityProperties.Mode.SLOTS);
+        var nested = selector(AvailabilityProperties.Mode.NESTED);
+        slots.select();
+        nested.select();
+
+        assertThat(slots.plan(PARAMS).availabilitySlots()).isTrue();
+        assertThat(nested.plan(PARAMS).availabilitySlots()).isFalse();
+        assertThat(nested.plan(PARAMS).bind(PARAMS).toString()).doesNotContain(Constants.Tutor.AVAILABILITY_SLOTS);
+    }
+
+    private AvailabilityModeSelector selector(AvailabilityProperties.Mode mode) {
+        return new AvailabilityModeSelector(new AvailabilityProperties(mode), client);
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.dev.index;
+
+import com.example.dev.config.BulkLoadProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BulkIndexerTest {
+
+    @Test
+    void streamsBatchesRetriesRejectionsAndRestoresSettings() throws Exception {
+        var client = new StubBulkIndexClient();
+        var indexer = new BulkIndexer(client, properties(10));
+
+        var report = indexer.load(input(25, true), "teachers");
+
+        assertThat(report.documents()).isEqualTo(25);
+        assertThat(report.failed()).isZero();
+        assertThat(report.batches()).isEqualTo(3);
+        assertThat(report.retries()).isEqualTo(1);
+        assertThat(client.indexed).hasSize(25).contains("doc-0", "doc-24");
+        assertThat(client.settings).containsExactly(IndexingSettings.BULK_LOAD, new IndexingSettings("30s", "2"));
+        assertThat(client.refreshed).isTrue();
+    }
+
+    @Test
+    void takesIdsFromDocumentsWhenThereAreNoActionLines() throws Exception {
+        var client = new StubBulkIndexClient();
+        var indexer = new BulkIndexer(client, properties(100));
+
+        indexer.load(input(3, false), "teachers");
+
+        assertThat(client.indexed).containsExactlyInAnyOrder("doc-0", "doc-1", "doc-2");
+    }
+
+    @Test
+    void stopsReadingOnceABatchHasFailed() {
+        var sent = new AtomicInteger();
+        var client = new StubBulkIndexClient() {
+            @Override
+            public int[] bulk(String index, List<BulkDocument> documents) throws IOException {
+                sent.incrementAndGet();
+                throw new IOException("connection reset");
+            }
+        };
+        var indexer = new BulkIndexer(client, properties(10));
+
+        assertThatThrownBy(() -> indexer.load(input(1000, false), "teachers"))
+                .isInstanceOf(IOException.class)
+                .hasRootCauseMessage("connection reset");
+        // 100 batches in the file; the reader stops within a few of the first failure.
+        assertThat(sent.get()).isLessThan(10);
+        assertThat(client.settings).last().isEqualTo(new IndexingSettings("30s", "2"));
+    }
+
+    private static BulkLoadProperties properties(int batchDocs) {
+        return new BulkLoadProperties(Path.of("unused"), false, batchDocs, DataSize.ofMegabytes(1), 2, 3,
+                Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+
+    private static ByteArrayInputStream input(int documents, boolean withActions) {
+        var lines = new StringBuilder();
+        for (int i = 0; i < documents; i++) {
+            if (withActions) {
+                lines.append("{\"index\": {\"_index\": \"teachers\", \"_id\": \"doc-%d\"}}\n".formatted(i));
+            }
+            lines.append("{\"name\": \"Tutor %d\", \"availability\": [{\"day\": \"Monday\"}], \"id\": \"doc-%d\"}\n"
+                    .formatted(i, i));
+        }
+        return new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.dev.index;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.transport.TransportException;
+import co.elastic.clients.transport.http.TransportHttpClient;
+import com.example.dev.config.TutorUpdateProperties;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ElasticsearchBulkIndexClientTest {
+    private static final List<BulkDocument> DOCUMENTS = List.of(document("t1"), document("t2"));
+
+    private final ElasticsearchClient elasticsearch = mock(ElasticsearchClient.class);
+    private final ElasticsearchBulkIndexClient client = new ElasticsearchBulkIndexClient(elasticsearch);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reportsATransportLevel429AsARejectionOfEveryItem() throws IOException {
+        var error = transportError(429);
+        when(elasticsearch.bulk(any(Function.class))).thenThrow(error);
+
+        assertThat(client.bulk("teachers", DOCUMENTS)).containsExactly(429, 429);
+        assertThat(client.update("teachers", DOCUMENTS, TutorUpdateProperties.Refresh.NONE))
+                .containsExactly(429, 429);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rethrowsOtherTransportFailures() throws IOException {
+        var error = transportError(502);
+        when(elasticsearch.bulk(any(Function.class))).thenThrow(error);
+
+        assertThatThrownBy(() -> client.bulk("teachers", DOCUMENTS)).isInstanceOf(TransportException.class);
+        assertThat(ElasticsearchBulkIndexClient.httpStatus(new IOException("reset"))).isEqualTo(-1);
+    }
+
+    private static TransportException transportError(int status) {
+        var response = mock(TransportHttpClient.Response.class);
+        when(response.statusCode()).thenReturn(status);
+        return new TransportException(response, "status " + status, "es/bulk");
+    }
+
+    private static BulkDocument document(String id) {
+        return new BulkDocument(id, "{\"rating\":4.0}".getBytes(StandardCharsets.UTF_8));
+    }
+}
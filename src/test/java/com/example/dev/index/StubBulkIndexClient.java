@@ -0,0 +1,147 @@
+package com.example.dev.index;
+
+import com.example.dev.config.TutorUpdateProperties;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * In-memory {@link BulkIndexClient}. Keeps track of index names and aliases, without their documents. Bulk loads push
+ * {@code doc-0} back once, as a busy node would.
+ */
+class StubBulkIndexClient implements BulkIndexClient {
+    final Set<String> indices = ConcurrentHashMap.newKeySet();
+    final Map<String, Set<String>> aliases = new ConcurrentHashMap<>();
+    final List<String> deleted = new ArrayList<>();
+    final Set<String> indexed = ConcurrentHashMap.newKeySet();
+    final List<IndexingSettings> settings = new ArrayList<>();
+    final AtomicBoolean rejectedOnce = new AtomicBoolean();
+    final Set<String> rejectDocuments = ConcurrentHashMap.newKeySet();
+    final Set<String> rejectUpdates = ConcurrentHashMap.newKeySet();
+    final Set<String> missing = ConcurrentHashMap.newKeySet();
+    final List<String> updated = new ArrayList<>();
+    final Set<String> mapped = ConcurrentHashMap.newKeySet();
+    volatile Long maxUpdatedAt;
+    volatile boolean refreshed;
+
+    @Override
+    public boolean exists(String index) {
+        return indices.contains(index) || aliases.containsKey(index);
+    }
+
+    @Override
+    public void createIndex(String index, IndexingSettings settings) {
+        if (!indices.add(index)) {
+            throw new IllegalStateException("index '" + index + "' already exists");
+        }
+    }
+
+    @Override
+    public synchronized void deleteIndex(String index) {
+        indices.remove(index);
+        deleted.add(index);
+    }
+
+    /**
+     * Only trailing-{@code *} patterns, which is all the indexing side sends.
+     */
+    @Override
+    public Set<String> indicesMatching(String pattern) {
+        var prefix = pattern.substring(0, pattern.length() - 1);
+        var matching = new HashSet<String>();
+        for (var index : indices) {
+            if (index.startsWith(prefix)) {
+                matching.add(index);
+            }
+        }
+        return matching;
+    }
+
+    @Override
+    public Set<String> aliasTargets(String alias) {
+        return Set.copyOf(aliases.getOrDefault(alias, Set.of()));
+    }
+
+    @Override
+    public synchronized void swapAlias(String alias, String index, Collection<String> previous,
+                                       boolean dropConcreteIndex) {
+        if (dropConcreteIndex) {
+            deleteIndex(alias);
+        } else if (indices.contains(alias)) {
+            throw new IllegalStateException("'" + alias + "' is a concrete index");
+        }
+        var targets = new HashSet<>(aliases.getOrDefault(alias, Set.of()));
+        targets.removeAll(previous);
+        targets.add(index);
+        aliases.put(alias, targets);
+    }
+
+    @Override
+    public Set<String> mappedFields(String index) {
+        return mapped;
+    }
+
+    @Override
+    public void forceMerge(String index) {
+    }
+
+    @Override
+    public OptionalLong max(String index, String field) {
+        return maxUpdatedAt == null ? OptionalLong.empty() : OptionalLong.of(maxUpdatedAt);
+    }
+
+    @Override
+    public IndexingSettings getIndexingSettings(String index) {
+        return new IndexingSettings("30s", "2");
+    }
+
+    @Override
+    public synchronized void putIndexingSettings(String index, IndexingSettings settings) {
+        this.settings.add(settings);
+    }
+
+    @Override
+    public int[] bulk(String index, List<BulkDocument> documents) throws IOException {
+        var statuses = new int[documents.size()];
+        for (int i = 0; i < documents.size(); i++) {
+            // The first document ever sent is pushed back once, as a busy node would.
+            if (documents.get(i).id().equals("doc-0") && rejectedOnce.compareAndSet(false, true)) {
+                statuses[i] = 429;
+            } else if (rejectDocuments.contains(documents.get(i).id())) {
+                statuses[i] = 400;
+            } else {
+                indexed.add(documents.get(i).id());
+                statuses[i] = 201;
+            }
+        }
+        return statuses;
+    }
+
+    @Override
+    public synchronized int[] update(String index, List<BulkDocument> partials,
+                                     TutorUpdateProperties.Refresh refresh) {
+        var statuses = new int[partials.size()];
+        for (int i = 0; i < partials.size(); i++) {
+            var id = partials.get(i).id();
+            statuses[i] = rejectUpdates.contains(id) ? 429 : missing.contains(id) ? 404 : 200;
+            if (statuses[i] == 200) {
+                updated.add(new String(partials.get(i).source(), StandardCharsets.UTF_8));
+            }
+        }
+        return statuses;
+    }
+
+    @Override
+    public void refresh(String index) {
+        refreshed = true;
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.dev.index;
+
+import com.example.dev.cache.BaseFacetCache;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.config.BulkLoadProperties;
+import com.example.dev.config.IndexVersionProperties;
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.config.TutorUpdateProperties;
+import com.example.dev.dto.TutorUpdate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TutorIndexManagerTest {
+    private final StubBulkIndexClient client = new StubBulkIndexClient();
+    private final IndexGeneration indexGeneration = new IndexGeneration(event -> { });
+    private Path file;
+
+    @BeforeEach
+    void setUp(@TempDir Path dir) throws IOException {
+        file = dir.resolve("tutors.ndjson");
+        Files.writeString(file, """
+                {"id": "t1", "name": "Ann", "subject": "Physics"}
+                {"id": "t2", "name": "Ben", "subject": "Mathematics"}
+                """);
+    }
+
+    @Test
+    void firstRebuildCreatesVersionOneBehindTheAlias() throws IOException {
+        var report = manager(1).rebuild(file);
+
+        assertThat(report.index()).isEqualTo("teachers_v1");
+        assertThat(report.version()).isEqualTo(1);
+        assertThat(report.load().documents()).isEqualTo(2);
+        assertThat(report.retired()).isEmpty();
+        assertThat(client.aliases).containsEntry("teachers", Set.of("teachers_v1"));
+        assertThat(client.indexed).containsExactlyInAnyOrder("t1", "t2");
+        assertThat(indexGeneration.current()).isEqualTo(1);
+    }
+
+    @Test
+    void migratesALegacyConcreteIndexInTheSameSwap() throws IOException {
+        client.indices.add("teachers");
+
+        manager(1).rebuild(file);
+
+        assertThat(client.indices).containsExactly("teachers_v1");
+        assertThat(client.aliases).containsEntry("teachers", Set.of("teachers_v1"));
+    }
+
+    @Test
+    void numbersAfterTheHighestVersionAndRetiresAllButTheRetainedOnes() throws IOException {
+        client.indices.addAll(List.of("teachers_v1", "teachers_v2", "teachers_v10", "teachers_v2_backup"));
+        client.aliases.put("teachers", Set.of("teachers_v10"));
+
+        var report = manager(1).rebuild(file);
+
+        assertThat(report.index()).isEqualTo("teachers_v11");
+        assertThat(client.aliases).containsEntry("teachers", Set.of("teachers_v11"));
+        // The previous serving version is kept for rollback; names that are not versions are left alone.
+        assertThat(report.retired()).containsExactly("teachers_v1", "teachers_v2");
+        assertThat(client.indices).containsExactlyInAnyOrder("teachers_v10", "teachers_v11", "teachers_v2_backup");
+    }
+
+    @Test
+    void neverRetiresAVersionTheAliasStillServes() throws IOException {
+        // Another client attaches v1 again as the swap runs, so the alias ends up on two versions.
+        var racing = new StubBulkIndexClient() {
+            @Override
+            public synchronized void swapAlias(String alias, String index, Collection<String> previous,
+                                               boolean dropConcreteIndex) {
+                super.swapAlias(alias, index, previous.stream().filter(i -> !i.equals("teachers_v1")).toList(),
+                        dropConcreteIndex);
+            }
+        };
+        racing.indices.addAll(List.of("teachers_v1", "teachers_v2"));
+        racing.aliases.put("teachers", Set.of("teachers_v1", "teachers_v2"));
+
+        var report = manager(racing, 0).rebuild(file);
+
+        assertThat(report.index()).isEqualTo("teachers_v3");
+        assertThat(report.retired()).containsExactly("teachers_v2");
+        assertThat(racing.indices).containsExactlyInAnyOrder("teachers_v1", "teachers_v3");
+    }
+
+    @Test
+    void failedLoadDeletesThePartialIndexAndKeepsTheAlias() {
+        client.indices.add("teachers_v1");
+        client.aliases.put("teachers", Set.of("teachers_v1"));
+
+        assertThatThrownBy(() -> manager(1).rebuild(file.resolveSibling("missing.ndjson")))
+                .isInstanceOf(IOException.class);
+
+        assertThat(client.deleted).containsExactly("teachers_v2");
+        assertThat(client.indices).containsExactly("teachers_v1");
+        assertThat(client.aliases).containsEntry("teachers", Set.of("teachers_v1"));
+        assertThat(indexGeneration.current()).isZero();
+    }
+
+    @Test
+    void aLoadThatLostDocumentsIsNeverServed() {
+        client.indices.add("teachers_v1");
+        client.aliases.put("teachers", Set.of("teachers_v1"));
+        client.rejectDocuments.add("t2");
+
+        assertThatThrownBy(() -> manager(0).rebuild(file))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("1 of 2 documents");
+
+        assertThat(client.deleted).containsExactly("teachers_v2");
+        assertThat(client.indices).containsExactly("teachers_v1");
+        assertThat(client.aliases).containsEntry("teachers", Set.of("teachers_v1"));
+        assertThat(indexGeneration.current()).isZero();
+    }
+
+    @Test
+    void updatesArrivingDuringARebuildWaitForTheNewIndex() throws IOException {
+        var racing = new StubBulkIndexClient() {
+            TutorUpdatePipeline pipeline;
+            List<String> updatedBeforeSwap;
+
+            @Override
+            public int[] bulk(String index, List<BulkDocument> documents) throws IOException {
+                pipeline.submit(List.of(new TutorUpdate("t1", 4.5, null)));
+                pipeline.flush();
+                return super.bulk(index, documents);
+            }
+
+            @Override
+            public synchronized void swapAlias(String alias, String index, Collection<String> previous,
+                                               boolean dropConcreteIndex) {
+                updatedBeforeSwap = List.copyOf(updated);
+                super.swapAlias(alias, index, previous, dropConcreteIndex);
+            }
+        };
+        racing.pipeline = pipeline(racing);
+        racing.indices.add("teachers_v1");
+        racing.aliases.put("teachers", Set.of("teachers_v1"));
+
+        manager(racing, racing.pipeline, 1).rebuild(file);
+        racing.pipeline.flush();
+
+        assertThat(racing.updatedBeforeSwap).isEmpty();
+        assertThat(racing.updated).singleElement().asString().contains("\"rating\":4.5");
+    }
+
+    private TutorIndexManager manager(int retainVersions) {
+        return manager(client, retainVersions);
+    }
+
+    private TutorIndexManager manager(StubBulkIndexClient client, int retainVersions) {
+        return manager(client, pipeline(client), retainVersions);
+    }
+
+    private TutorIndexManager manager(StubBulkIndexClient client, TutorUpdatePipeline pipeline, int retainVersions) {
+        return new TutorIndexManager(client, new BulkIndexer(client, bulkProperties()), bulkProperties(),
+                new IndexVersionProperties(retainVersions, "1s", "1", true, List.of("Physics")),
+                mock(ElasticsearchOperations.class), indexGeneration, pipeline);
+    }
+
+    private TutorUpdatePipeline pipeline(StubBulkIndexClient client) {
+        var cacheProperties = new SearchCacheProperties(true, 10, Duration.ofMinutes(1));
+        return new TutorUpdatePipeline(client,
+                new TutorUpdateProperties(Duration.ofMillis(250), 100, 1000, 2, TutorUpdateProperties.Refresh.NONE,
+                        Duration.ofSeconds(1)),
+                new SearchResultCache(cacheProperties, indexGeneration),
+                new BaseFacetCache(cacheProperties, indexGeneration), new ServingIndexVersion(client));
+    }
+
+    private static BulkLoadProperties bulkProperties() {
+        return new BulkLoadProperties(Path.of("unused"), false, 10, DataSize.ofMegabytes(1), 2, 3,
+                Duration.ofMillis(1), Duration.ofMillis(5));
+    }
+}
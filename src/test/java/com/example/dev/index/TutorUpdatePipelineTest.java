@@ -0,0 +1,130 @@
+package com.example.dev.index;
+
+import com.example.dev.cache.BaseFacetCache;
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.config.TutorUpdateProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.dto.Teacher;
+import com.example.dev.dto.TutorUpdate;
+import com.example.dev.exception.BadRequestException;
+import com.example.dev.exception.SearchOverloadedException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TutorUpdatePipelineTest {
+    private final StubBulkIndexClient client = new StubBulkIndexClient();
+    private final IndexGeneration indexGeneration = new IndexGeneration(event -> { });
+    private final SearchCacheProperties cacheProperties = new SearchCacheProperties(true, 10, Duration.ofMinutes(1));
+    private final SearchResultCache cache = new SearchResultCache(cacheProperties, indexGeneration);
+    private final ServingIndexVersion servingIndexVersion = new ServingIndexVersion(client);
+    private final TutorUpdatePipeline pipeline = new TutorUpdatePipeline(client,
+            new TutorUpdateProperties(Duration.ofMillis(250), 100, 1000, 2, TutorUpdateProperties.Refresh.NONE,
+                    Duration.ofSeconds(1)),
+            cache, new BaseFacetCache(cacheProperties, indexGeneration), servingIndexVersion);
+
+    @Test
+    void mergesRepeatedUpdatesToATutorIntoOnePartialDocument() {
+        client.mapped.add(Constants.Tutor.AVAILABILITY_SLOTS);
+        var monday = List.of(new TutorUpdate.Slot("Monday", "08:00", "09:00"));
+        pipeline.submit(List.of(new TutorUpdate("t1", 4.1, null), new TutorUpdate("t2", 3.0, null)));
+        pipeline.submit(List.of(new TutorUpdate("t1", null, monday), new TutorUpdate("t1", 4.6, null)));
+
+        pipeline.flush();
+
+        assertThat(client.updated).hasSize(2);
+        assertThat(client.updated.get(0))
+                .contains("\"rating\":4.6", "\"start_time\":\"08:00\"", "\"availability_slots\":[", "monday@0830")
+                .doesNotContain("4.1");
+        assertThat(client.updated.get(1)).matches("\\{\"updated_at\":\\d+,\"rating\":3.0}");
+        var stats = pipeline.stats();
+        assertThat(stats.received()).isEqualTo(4);
+        assertThat(stats.coalesced()).isEqualTo(2);
+        assertThat(stats.applied()).isEqualTo(2);
+        assertThat(stats.pending()).isZero();
+    }
+
+    @Test
+    void retriesPushBackGivesUpOnUnknownTutorsAndDropsCachedHits() {
+        client.rejectUpdates.add("busy");
+        client.missing.add("gone");
+        var withTutor = key("Physics");
+        var without = key("Mathematics");
+        cache.put(withTutor, response("t1"), 0);
+        cache.put(without, response("t9"), 0);
+
+        pipeline.submit(List.of(new TutorUpdate("busy", 4.0, null), new TutorUpdate("gone", 4.0, null),
+                new TutorUpdate("t1", 4.0, null)));
+        pipeline.flush();
+
+        assertThat(pipeline.stats().retried()).isEqualTo(1);
+        assertThat(pipeline.stats().pending()).isEqualTo(1);
+        assertThat(cache.get(withTutor)).isEmpty();
+        assertThat(cache.get(without)).isPresent();
+
+        pipeline.flush();
+        var stats = pipeline.stats();
+        assertThat(stats.failed()).isEqualTo(2);
+        assertThat(stats.applied()).isEqualTo(1);
+        assertThat(stats.pending()).isZero();
+    }
+
+    @Test
+    void appliedUpdatesMoveTheServingVersion() {
+        client.aliases.put("teachers", Set.of("teachers_v1"));
+        servingIndexVersion.refresh();
+        assertThat(servingIndexVersion.current()).isEqualTo("teachers_v1.0");
+
+        client.maxUpdatedAt = 42L;
+        pipeline.submit(List.of(new TutorUpdate("t1", 4.0, null)));
+        pipeline.flush();
+
+        assertThat(servingIndexVersion.current()).isEqualTo("teachers_v1.42");
+    }
+
+    @Test
+    void rejectsMalformedUpdatesBeforeQueueingAny() {
+        assertThatThrownBy(() -> pipeline.submit(List.of(new TutorUpdate("t1", 4.0, null),
+                new TutorUpdate("t2", null, List.of(new TutorUpdate.Slot("Someday", "08:00", "09:00"))))))
+                .isInstanceOf(BadRequestException.class);
+        assertThat(pipeline.stats().pending()).isZero();
+    }
+
+    @Test
+    void boundsTheQueueByEveryTutorARequestWouldAdd() {
+        var small = new TutorUpdatePipeline(client,
+                new TutorUpdateProperties(Duration.ofMillis(250), 100, 3, 2, TutorUpdateProperties.Refresh.NONE,
+                        Duration.ofSeconds(1)),
+                cache, new BaseFacetCache(cacheProperties, indexGeneration), new ServingIndexVersion(client));
+        small.submit(List.of(new TutorUpdate("t1", 4.0, null), new TutorUpdate("t2", 4.0, null)));
+
+        assertThatThrownBy(() -> small.submit(List.of(new TutorUpdate("t3", 4.0, null),
+                new TutorUpdate("t4", 4.0, null))))
+                .isInstanceOf(SearchOverloadedException.class);
+        // Updates to waiting tutors are merged and take no room.
+        assertThat(small.submit(List.of(new TutorUpdate("t1", 4.5, null), new TutorUpdate("t3", 4.0, null))))
+                .isEqualTo(3);
+        assertThatThrownBy(() -> small.submit(List.of(new TutorUpdate("a", 1.0, null), new TutorUpdate("b", 1.0, null),
+                new TutorUpdate("c", 1.0, null), new TutorUpdate("d", 1.0, null))))
+                .isInstanceOf(BadRequestException.class);
+    }
+
+    private static SearchRequestKey key(String subject) {
+        return SearchRequestKey.of(SearchRequestParams.builder().subject(subject).build());
+    }
+
+    private static SearchResponse response(String id) {
+        var teacher = new Teacher(id, "Tutor " + id, "", "Physics", "Undergraduate", 4.0, List.of());
+        return new SearchResponse(List.of(teacher), new Pagination(0, 1, 1, 1), 1);
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.dev.resilience;
+
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.StaleResponseStore;
+import com.example.dev.config.SearchResilienceProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.dto.Teacher;
+import com.example.dev.exception.SearchOverloadedException;
+import com.example.dev.exception.SearchTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Injects the faults a degraded Elasticsearch shows: errors, calls that hang past the deadline, and a backlog of
+ * stuck calls.
+ */
+class SearchGuardTest {
+    private static final SearchRequestKey KEY = key("Physics");
+    private static final SearchResponse RESPONSE = new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1);
+    private static final Supplier<SearchResponse> FAILING = () -> {
+        throw new IllegalStateException("connection reset");
+    };
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch stall = new CountDownLatch(1);
+    private final Supplier<SearchResponse> hanging = () -> {
+        try {
+            stall.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return RESPONSE;
+    };
+    private final AtomicLong now = new AtomicLong();
+
+    @AfterEach
+    void tearDown() {
+        stall.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void opensOnFailuresServesStaleAndClosesAfterSuccessfulProbes() {
+        var guard = guard(4, Duration.ofSeconds(1));
+        assertThat(search(guard, KEY, () -> RESPONSE)).isSameAs(RESPONSE);
+
+        // Failures are answered with the last good response while it lasts, and with the error otherwise.
+        var other = key("Mathematics");
+        for (int i = 0; i < 2; i++) {
+            assertThat(search(guard, KEY, FAILING).stale()).isTrue();
+        }
+        assertThatThrownBy(() -> search(guard, other, FAILING)).isInstanceOf(IllegalStateException.class);
+        assertThat(guard.stats().circuit()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        // Open: the backend is not called at all.
+        var calls = new AtomicInteger();
+        assertThat(search(guard, KEY, () -> {
+            calls.incrementAndGet();
+            return RESPONSE;
+        }).stale()).isTrue();
+        assertThatThrownBy(() -> search(guard, other, () -> RESPONSE)).isInstanceOf(SearchOverloadedException.class);
+        assertThat(calls).hasValue(0);
+
+        now.addAndGet(Duration.ofSeconds(6).toNanos());
+        for (int i = 0; i < 2; i++) {
+            assertThat(search(guard, KEY, () -> RESPONSE)).isSameAs(RESPONSE);
+        }
+        assertThat(guard.stats().circuit()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(guard.stats().staleServed()).isEqualTo(3);
+    }
+
+    @Test
+    void hangingCallsCostCallersOnlyTheDeadline() {
+        var guard = guard(20, Duration.ofMillis(50));
+        search(guard, KEY, () -> RESPONSE);
+
+        var started = System.nanoTime();
+        assertThat(search(guard, KEY, hanging).stale()).isTrue();
+        assertThatThrownBy(() -> search(guard, key("Chemistry"), hanging))
+                .isInstanceOf(SearchTimeoutException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+
+        // Abandoned calls keep their permits until the backend lets go of them.
+        var stats = guard.stats();
+        assertThat(stats.timedOut()).isEqualTo(2);
+        assertThat(stats.inFlight()).isEqualTo(2);
+    }
+
+    @Test
+    void stalledBackendShrinksTheLimitAndShedsInsteadOfPilingUp() throws Exception {
+        var guard = guard(100, Duration.ofMillis(20));
+        search(guard, KEY, () -> RESPONSE);
+
+        var callers = new ArrayList<CompletableFuture<Boolean>>();
+        for (int i = 0; i < 64; i++) {
+            callers.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    return search(guard, KEY, hanging).stale();
+                } catch (SearchOverloadedException e) {
+                    return false;
+                }
+            }, executor));
+        }
+        for (var caller : callers) {
+            assertThat(caller.get(5, TimeUnit.SECONDS)).isTrue();
+        }
+        // Initial limit 10: everything past it was refused without touching the backend.
+        var stalled = guard.stats();
+        assertThat(stalled.inFlight()).isLessThanOrEqualTo(10);
+        assertThat(stalled.shed()).isGreaterThanOrEqualTo(54);
+
+        stall.countDown();
+        await(() -> guard.stats().inFlight() == 0);
+        assertThat(guard.stats().limit()).isLessThan(10);
+    }
+
+    @Test
+    void staleStoreIsBoundedByBytesAndSkipsLargePages() {
+        var properties = new SearchResilienceProperties(true, Duration.ofSeconds(1), 10, 2, 200,
+                Duration.ofMillis(500), 20, 0.5, Duration.ofSeconds(5), 2, DataSize.ofKilobytes(16),
+                DataSize.ofKilobytes(4), Duration.ofMinutes(10));
+        var store = new StaleResponseStore(properties);
+        var page = page(5, 40);
+        var large = page(10, 400);
+
+        store.put(KEY, large);
+        assertThat(store.get(KEY)).isEmpty();
+        for (int i = 0; i < 50; i++) {
+            store.put(key("Subject " + i), page);
+        }
+        assertThat(store.bytes()).isLessThanOrEqualTo(DataSize.ofKilobytes(16).toBytes());
+        assertThat(store.size()).isBetween(1, 49);
+        assertThat(store.get(key("Subject 49"))).hasValueSatisfying(stale -> assertThat(stale.stale()).isTrue());
+    }
+
+    @Test
+    void limitGrowsByAboutOnePerRoundTripAndBacksOffOnSlowCalls() {
+        var limit = new AdaptiveConcurrencyLimit(4, 2, 8, Duration.ofMillis(100).toNanos());
+        for (int i = 0; i < 4; i++) {
+            assertThat(limit.tryAcquire()).isTrue();
+        }
+        assertThat(limit.tryAcquire()).isFalse();
+        // One round trip: every call in flight comes back fast and is replaced by a new one.
+        for (int i = 0; i < 4; i++) {
+            limit.release(Duration.ofMillis(5).toNanos(), false);
+            limit.tryAcquire();
+        }
+        assertThat(limit.limit()).isEqualTo(4);
+        limit.release(Duration.ofMillis(5).toNanos(), false);
+        assertThat(limit.limit()).isEqualTo(5);
+
+        limit.release(Duration.ofMillis(300).toNanos(), false);
+        assertThat(limit.limit()).isEqualTo(4);
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire();
+            limit.release(0, true);
+        }
+        assertThat(limit.limit()).isEqualTo(2);
+    }
+
+    private SearchGuard guard(int windowSize, Duration deadline) {
+        var properties = new SearchResilienceProperties(true, deadline, 10, 2, 200, Duration.ofMillis(500),
+                windowSize, 0.5, Duration.ofSeconds(5), 2, DataSize.ofMegabytes(1), DataSize.ofKilobytes(64),
+                Duration.ofMinutes(10));
+        return new SearchGuard(properties, new StaleResponseStore(properties), executor, now::get);
+    }
+
+    /**
+     * What a search in {@code elasticsearch} mode goes through: the guarded call, answered stale when it fails.
+     */
+    private static SearchResponse search(SearchGuard guard, SearchRequestKey key, Supplier<SearchResponse> call) {
+        return guard.orStale(key, () -> guard.protect(call));
+    }
+
+    private static SearchResponse page(int tutors, int descriptionLength) {
+        var teachers = new ArrayList<Teacher>();
+        for (int i = 0; i < tutors; i++) {
+            teachers.add(new Teacher("t" + i, "Tutor " + i, "x".repeat(descriptionLength), "Physics",
+                    "Undergraduate", 4.0, List.of()));
+        }
+        return new SearchResponse(teachers, new Pagination(0, tutors, tutors, 1), 1);
+    }
+
+    private static SearchRequestKey key(String subject) {
+        return SearchRequestKey.of(SearchRequestParams.builder().subject(subject).build());
+    }
+
+    private static void await(Supplier<Boolean> condition) throws InterruptedException {
+        var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.get() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(condition.get()).isTrue();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.dev.service;
+
+import com.example.dev.config.SearchAsyncProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.exception.SearchOverloadedException;
+import com.example.dev.exception.SearchTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AsyncSearchServiceTest {
+    private static final SearchRequestParams PARAMS = SearchRequestParams.builder().subject("Physics").build();
+    private static final SearchResponse RESPONSE = new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1);
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final TutorSearch blockingSearch = params -> {
+        try {
+            release.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return RESPONSE;
+    };
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shedsRequestsBeyondTheInFlightLimit() throws Exception {
+        var service = new AsyncSearchService(blockingSearch, null, executor,
+                new SearchAsyncProperties(1, 1, false, Duration.ofSeconds(5)));
+
+        var first = service.search(PARAMS);
+        var second = service.search(PARAMS);
+
+        assertThatThrownBy(second::get).hasCauseInstanceOf(SearchOverloadedException.class);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(RESPONSE);
+        assertThat(service.rejected()).isEqualTo(1);
+    }
+
+    @Test
+    void failsRequestsThatExceedTheTimeoutButKeepCountingThemInFlight() {
+        var service = new AsyncSearchService(blockingSearch, null, executor,
+                new SearchAsyncProperties(4, 1, false, Duration.ofMillis(50)));
+
+        var result = service.search(PARAMS);
+
+        assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(SearchTimeoutException.class);
+        assertThat(service.inFlight()).isEqualTo(1);
+        assertThat(service.timedOut()).isEqualTo(1);
+    }
+}
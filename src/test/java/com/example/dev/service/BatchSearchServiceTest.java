@@ -0,0 +1,178 @@
+package com.example.dev.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.MsearchRequest;
+import co.elastic.clients.elasticsearch.core.MsearchResponse;
+import co.elastic.clients.elasticsearch.core.msearch.MultiSearchResponseItem;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import co.elastic.clients.util.ObjectBuilder;
+import com.example.dev.backend.InMemorySearchBackend;
+import com.example.dev.backend.RoutingSearchBackend;
+import com.example.dev.cache.SearchRequestKey;
+import com.example.dev.cache.SearchResultCache;
+import com.example.dev.cache.StaleResponseStore;
+import com.example.dev.config.AvailabilityProperties;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SearchBackendProperties;
+import com.example.dev.config.SearchBatchProperties;
+import com.example.dev.config.SearchCacheProperties;
+import com.example.dev.config.SearchPagingProperties;
+import com.example.dev.config.SearchResilienceProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.index.AvailabilityModeSelector;
+import com.example.dev.index.IndexGeneration;
+import com.example.dev.resilience.SearchGuard;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.convert.MappingElasticsearchConverter;
+import org.springframework.data.elasticsearch.core.mapping.SimpleElasticsearchMappingContext;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchSearchServiceTest {
+    private static final SearchRequestParams PHYSICS = params("Physics", null);
+    private static final SearchRequestParams MATHS = params("Mathematics", null);
+    private static final SearchRequestParams CHEMISTRY = params("Chemistry", null);
+
+    private final ElasticsearchClient client = mock(ElasticsearchClient.class);
+    private final IndexGeneration indexGeneration = new IndexGeneration(event -> { });
+    private final SearchResultCache cache = new SearchResultCache(
+            new SearchCacheProperties(true, 100, Duration.ofMinutes(1)), indexGeneration);
+    private final List<Integer> sent = new ArrayList<>();
+    private final SearchGuard guard = guard();
+
+    @Test
+    void answersInRequestOrderWithFailuresInTheirOwnSlots() throws IOException {
+        var service = service(SearchBackendProperties.Mode.ELASTICSEARCH, null);
+        cache.put(SearchRequestKey.of(CHEMISTRY), new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1),
+                indexGeneration.current());
+        answer(failure("unknown field"), result("t1"));
+
+        var results = service.search(Arrays.asList(PHYSICS, null, CHEMISTRY,
+                SearchRequestParams.builder().subject("Physics").cursor("*").build(), MATHS)).results();
+
+        assertThat(sent).containsExactly(2);
+        assertThat(results).hasSize(5);
+        assertThat(results.get(0).status()).isEqualTo(400);
+        assertThat(results.get(0).error()).isEqualTo("unknown field");
+        assertThat(results.get(1).error()).isEqualTo("missing search");
+        assertThat(results.get(2).response().teachers()).isEmpty();
+        assertThat(results.get(3).error()).contains("cursor");
+        assertThat(results.get(4).response().teachers()).extracting("id").containsExactly("t1");
+
+        // Only the successful search was cached.
+        assertThat(cache.get(SearchRequestKey.of(MATHS))).isPresent();
+        assertThat(cache.get(SearchRequestKey.of(PHYSICS))).isEmpty();
+    }
+
+    @Test
+    void facetedItemsAreCachedWithoutFacetsAndServedFromCacheNextTime() throws IOException {
+        var service = service(SearchBackendProperties.Mode.ELASTICSEARCH, null);
+        var faceted = params("Physics", true);
+        answer(result("t1"));
+
+        var first = service.search(List.of(faceted)).results().get(0).response();
+
+        assertThat(first.facets()).isNull();
+        // A single faceted search must not be answered with this facet-less response.
+        assertThat(cache.get(SearchRequestKey.of(faceted))).isEmpty();
+        assertThat(cache.get(SearchRequestKey.of(PHYSICS))).contains(first);
+
+        sent.clear();
+        assertThat(service.search(List.of(faceted)).results().get(0).response()).isSameAs(first);
+        assertThat(sent).isEmpty();
+    }
+
+    @Test
+    void inMemoryBackendAnswersTheMissesOneByOne(@TempDir Path dir) throws IOException {
+        var file = dir.resolve("tutors.json");
+        Files.writeString(file, """
+                {"id": "m1", "name": "Ann", "description": "", "subject": "Mathematics", "level": "Undergraduate", "rating": 4.5}
+                {"id": "p1", "name": "Ben", "description": "", "subject": "Physics", "level": "Undergraduate", "rating": 4.0}
+                """);
+        var service = service(SearchBackendProperties.Mode.MEMORY, file);
+
+        var results = service.search(List.of(PHYSICS, params("Mathematics", true))).results();
+
+        assertThat(results.get(0).response().teachers()).extracting("id").containsExactly("p1");
+        assertThat(results.get(1).response().teachers()).extracting("id").containsExactly("m1");
+        assertThat(results.get(1).response().facets()).isNull();
+        assertThat(cache.get(SearchRequestKey.of(params("Mathematics", true)))).isEmpty();
+        assertThat(cache.get(SearchRequestKey.of(MATHS))).isPresent();
+        assertThat(sent).isEmpty();
+    }
+
+    private BatchSearchService service(SearchBackendProperties.Mode mode, Path file) {
+        var operations = mock(ElasticsearchOperations.class);
+        var converter = new MappingElasticsearchConverter(new SimpleElasticsearchMappingContext());
+        converter.afterPropertiesSet();
+        when(operations.getElasticsearchConverter()).thenReturn(converter);
+        var ranking = new RankingProperties(true, 50, 1f, 1f, 1f, 1f, "", 0f);
+        var backendProperties = new SearchBackendProperties(mode, file);
+        var memory = new InMemorySearchBackend(backendProperties, ranking,
+                new SearchMetrics(new SimpleMeterRegistry(), null));
+        return new BatchSearchService(client, operations, cache, indexGeneration,
+                new AvailabilityModeSelector(new AvailabilityProperties(AvailabilityProperties.Mode.NESTED), null),
+                new SearchPagingProperties(10000, Duration.ofMinutes(1)), ranking, new SearchBatchProperties(20),
+                new RoutingSearchBackend(null, memory, backendProperties, guard), memory);
+    }
+
+    /**
+     * Disabled: the guard runs calls inline and never refuses them.
+     */
+    private static SearchGuard guard() {
+        var properties = new SearchResilienceProperties(false, Duration.ofSeconds(1), 10, 2, 200,
+                Duration.ofMillis(500), 20, 0.5, Duration.ofSeconds(5), 2, DataSize.ofMegabytes(1),
+                DataSize.ofKilobytes(64), Duration.ofMinutes(10));
+        return new SearchGuard(properties, new StaleResponseStore(properties), null);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private void answer(MultiSearchResponseItem<Map>... items) throws IOException {
+        when(client.msearch(any(Function.class), eq(Map.class))).thenAnswer(invocation -> {
+            Function<MsearchRequest.Builder, ObjectBuilder<MsearchRequest>> fn = invocation.getArgument(0);
+            sent.add(fn.apply(new MsearchRequest.Builder()).build().searches().size());
+            return MsearchResponse.<Map>of(r -> r.took(1).responses(List.of(items)));
+        });
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static MultiSearchResponseItem<Map> failure(String reason) {
+        return MultiSearchResponseItem.of(i -> i.failure(f -> f.status(400).error(e -> e.type("bad").reason(reason))));
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static MultiSearchResponseItem<Map> result(String id) {
+        Map source = Map.of("id", id, "name", "Tutor " + id, "subject", "Physics", "level", "Undergraduate",
+                "rating", 4.0);
+        return MultiSearchResponseItem.of(i -> i.result(r -> r.took(1).timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.total(t -> t.value(1).relation(TotalHitsRelation.Eq))
+                        .hits(List.of(Hit.<Map>of(hit -> hit.index("teachers").id(id).score(1.0).source(source)))))));
+    }
+
+    private static SearchRequestParams params(String subject, Boolean facets) {
+        return SearchRequestParams.builder().subject(subject).facets(facets).build();
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.dev.service;
+
+import com.example.dev.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SearchCursorTest {
+
+    @Test
+    void roundTripsThroughOpaqueToken() {
+        var cursor = new SearchCursor("pit-id", List.of(1.5, "tutor-9"), 3, 120, 42);
+
+        var decoded = SearchCursor.decode(cursor.encode(), 42);
+
+        assertThat(decoded).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsCursorIssuedForOtherFilters() {
+        var token = new SearchCursor("pit-id", List.of("tutor-9"), 0, 10, 42).encode();
+
+        assertThatThrownBy(() -> SearchCursor.decode(token, 7)).isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> SearchCursor.decode("not a cursor", 42)).isInstanceOf(BadRequestException.class);
+    }
+}
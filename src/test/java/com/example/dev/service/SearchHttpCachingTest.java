@@ -0,0 +1,146 @@
+package com.example.dev.service;
+
+import com.example.dev.config.SearchHttpProperties;
+import com.example.dev.dto.Pagination;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchResponse;
+import com.example.dev.index.BulkIndexClient;
+import com.example.dev.index.ServingIndexVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchHttpCachingTest {
+    private static final SearchResponse RESPONSE = new SearchResponse(List.of(), new Pagination(0, 0, 0, 0), 1);
+    private static final SearchRequestParams PHYSICS = SearchRequestParams.builder().subject("Physics").build();
+
+    private final BulkIndexClient client = mock(BulkIndexClient.class);
+    private final ServingIndexVersion version = new ServingIndexVersion(client);
+    private final SearchHttpCaching caching = caching(version);
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serving("teachers_v3", 1_700_000_000_000L);
+        version.refresh();
+    }
+
+    @Test
+    void revalidatesWithTheSameTagUntilTheDataChanges() throws IOException {
+        var params = SearchRequestParams.builder().subject("Physics").build();
+        var first = new MockHttpServletResponse();
+        var etag = send(params, request(null, first));
+        assertThat(etag).startsWith("W/\"");
+        assertThat(first.getHeader("ETag")).isEqualTo(etag);
+        assertThat(first.getHeader("Cache-Control")).isEqualTo("max-age=30, public");
+
+        // An equivalent spelling of the request revalidates the same copy, also when sent back strong.
+        var same = SearchRequestParams.builder().subject(" physics").build();
+        var revalidated = new MockHttpServletResponse();
+        assertThat(caching.checkNotModified(same, caching.etag(same), request(etag.substring(2), revalidated)))
+                .isTrue();
+        assertThat(revalidated.getStatus()).isEqualTo(304);
+        assertThat(revalidated.getHeader("Cache-Control")).isEqualTo("max-age=30, public");
+
+        serving("teachers_v3", 1_700_000_000_001L);
+        version.refresh();
+        assertThat(caching.checkNotModified(params, caching.etag(params),
+                request(etag, new MockHttpServletResponse()))).isFalse();
+    }
+
+    @Test
+    void tagsOutliveRestartsAndAgreeBetweenReplicasUntilTheServedIndexChanges() throws IOException {
+        var before = caching.etag(PHYSICS);
+
+        // A process that starts later, or another replica, reads the same cluster state.
+        var restarted = new ServingIndexVersion(client);
+        restarted.refresh();
+        assertThat(caching(restarted).etag(PHYSICS)).isEqualTo(before);
+
+        // A rebuild serves a new index even when no tutor was updated since.
+        serving("teachers_v4", 0);
+        restarted.refresh();
+        assertThat(caching(restarted).etag(PHYSICS)).isNotEqualTo(before);
+    }
+
+    @Test
+    void noTagsUntilTheVersionCouldBeRead() {
+        var unknown = caching(new ServingIndexVersion(client));
+        var response = new MockHttpServletResponse();
+
+        assertThat(send(PHYSICS, request(null, response), unknown)).isNull();
+        assertThat(response.getHeader("ETag")).isNull();
+    }
+
+    @Test
+    void failedSearchesAreNeitherStoredNorTagged() {
+        var params = SearchRequestParams.builder().subject("Physics").build();
+        var response = new MockHttpServletResponse();
+        // The search then fails: beforeSend is never called.
+        assertThat(caching.checkNotModified(params, caching.etag(params), request(null, response))).isFalse();
+        assertThat(response.getHeader("Cache-Control")).isEqualTo("no-store");
+        assertThat(response.getHeader("ETag")).isNull();
+
+        var stale = new MockHttpServletResponse();
+        var webRequest = request(null, stale);
+        var etag = caching.etag(params);
+        caching.checkNotModified(params, etag, webRequest);
+        caching.beforeSend(params, etag, RESPONSE.asStale(), webRequest);
+        assertThat(stale.getHeader("Cache-Control")).isEqualTo("no-store");
+        assertThat(stale.getHeader("ETag")).isNull();
+    }
+
+    @Test
+    void textIsRevalidatedAndCursorsAreNotStored() {
+        var text = new MockHttpServletResponse();
+        send(SearchRequestParams.builder().query("algebra").build(), request(null, text));
+        assertThat(text.getHeader("Cache-Control")).isEqualTo("no-cache, private");
+
+        var cursor = new MockHttpServletResponse();
+        assertThat(send(SearchRequestParams.builder().subject("Physics").cursor("*").build(),
+                request(null, cursor))).isNull();
+        assertThat(cursor.getHeader("Cache-Control")).isEqualTo("no-store");
+        assertThat(cursor.getHeader("ETag")).isNull();
+    }
+
+    private void serving(String index, long updatedAt) throws IOException {
+        when(client.aliasTargets("teachers")).thenReturn(Set.of(index));
+        when(client.max("teachers", "updated_at"))
+                .thenReturn(updatedAt == 0 ? OptionalLong.empty() : OptionalLong.of(updatedAt));
+    }
+
+    private static SearchHttpCaching caching(ServingIndexVersion version) {
+        return new SearchHttpCaching(
+                new SearchHttpProperties(true, Duration.ofSeconds(30), Duration.ofSeconds(5)), version);
+    }
+
+    private String send(SearchRequestParams params, ServletWebRequest webRequest) {
+        return send(params, webRequest, caching);
+    }
+
+    private static String send(SearchRequestParams params, ServletWebRequest webRequest, SearchHttpCaching caching) {
+        var etag = caching.etag(params);
+        assertThat(caching.checkNotModified(params, etag, webRequest)).isFalse();
+        caching.beforeSend(params, etag, RESPONSE, webRequest);
+        return etag;
+    }
+
+    private static ServletWebRequest request(String ifNoneMatch, MockHttpServletResponse response) {
+        var request = new MockHttpServletRequest("GET", "/api/search");
+        if (ifNoneMatch != null) {
+            request.addHeader("If-None-Match", ifNoneMatch);
+        }
+        return new ServletWebRequest(request, response);
+    }
+}
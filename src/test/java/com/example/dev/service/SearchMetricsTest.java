@@ -0,0 +1,76 @@
+package com.example.dev.service;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch.core.search.ScoreMode;
+import com.example.dev.config.RankingProperties;
+import com.example.dev.config.SlowQueryLogProperties;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.Teacher;
+import com.example.dev.util.NativeQueryBuilder;
+import com.example.dev.util.QueryPlan;
+import com.example.dev.util.QueryShape;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.core.query.Query.PointInTime;
+import org.springframework.data.elasticsearch.core.SearchHitsImpl;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class SearchMetricsTest {
+    private static final SearchRequestParams PARAMS =
+            SearchRequestParams.builder().subject("Physics").level("Undergraduate").build();
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SlowQueryLog slowQueryLog = new SlowQueryLog(
+            new SlowQueryLogProperties(Duration.ofSeconds(1), Duration.ofMinutes(1), false),
+            mock(ElasticsearchClient.class));
+    private final SearchMetrics metrics = new SearchMetrics(registry, slowQueryLog);
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLog.close();
+    }
+
+    @Test
+    void recordsStagesAndTookPerQueryShape() {
+        var shape = QueryShape.of(PARAMS);
+        var query = metrics.time(SearchMetrics.STAGE_BUILD, shape, () -> NativeQueryBuilder.toSearchQuery(PARAMS));
+        metrics.search(shape, PARAMS, query, () -> new SearchHitsImpl<Teacher>(0, TotalHitsRelation.EQUAL_TO, 0f,
+                Duration.ofMillis(7), null, null, List.of(), null, null, null));
+
+        var build = registry.get("search.stage").tags("stage", "build", "shape", "subject+level").timer();
+        var roundTrip = registry.get("search.stage").tags("stage", "elasticsearch", "shape", "subject+level").timer();
+        var took = registry.get("search.took").tag("shape", "subject+level").timer();
+        assertThat(build.count()).isEqualTo(1);
+        assertThat(roundTrip.count()).isEqualTo(1);
+        assertThat(took.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(7);
+    }
+
+    @Test
+    void profileReplayKeepsSortRescoreAndHitCounting() {
+        var text = SearchRequestParams.builder().query("calculus").subject("Mathematics").page(2).build();
+        var ranking = new RankingProperties(true, 50, 1f, 1f, 1f, 1f, "", 0f);
+        var rescored = SlowQueryLog.profileRequest(
+                NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(text), text, 10000, ranking));
+
+        assertThat(rescored.profile()).isTrue();
+        assertThat(rescored.from()).isEqualTo(20);
+        assertThat(rescored.trackTotalHits().count()).isEqualTo(10000);
+        assertThat(rescored.rescore()).singleElement().satisfies(rescore -> {
+            assertThat(rescore.windowSize()).isEqualTo(50);
+            assertThat(rescore.query().scoreMode()).isEqualTo(ScoreMode.Total);
+        });
+
+        var cursor = SlowQueryLog.profileRequest(NativeQueryBuilder.toCursorQuery(QueryPlan.forParams(PARAMS), PARAMS,
+                new PointInTime("pit", Duration.ofMinutes(1)), null, null));
+        assertThat(cursor.sort()).hasSize(2);
+        assertThat(cursor.trackTotalHits().enabled()).isFalse();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.dev.suggest;
+
+import com.example.dev.config.SuggestProperties;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.index.IndexChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SuggestionServiceTest {
+    private final SuggestProperties properties = new SuggestProperties(100, 1000, 2, 5, 20, Duration.ofMinutes(1));
+    private final SuggestionIndex suggestionIndex = mock(SuggestionIndex.class);
+    private final SearchTermLog searchTermLog = new SearchTermLog(properties);
+    private final SuggestionService service = new SuggestionService(suggestionIndex, searchTermLog, properties);
+
+    @Test
+    void reseedsOnceOnTheNextRefreshHoweverManyReloadsArrived() throws IOException {
+        when(suggestionIndex.top(anyInt(), anyInt())).thenReturn(new SuggestionIndex.Top(List.of(), true));
+
+        for (var generation = 1; generation <= 5; generation++) {
+            service.onIndexChanged(new IndexChangedEvent(generation, "reload"));
+        }
+        verify(suggestionIndex, never()).seedFromTutors(anyInt());
+
+        service.refresh();
+        service.refresh();
+
+        verify(suggestionIndex, times(1)).seedFromTutors(100);
+    }
+
+    @Test
+    void aFailedSeedIsRetriedOnTheNextRefresh() throws IOException {
+        when(suggestionIndex.top(anyInt(), anyInt())).thenReturn(new SuggestionIndex.Top(List.of(), true));
+        when(suggestionIndex.seedFromTutors(anyInt())).thenThrow(new IOException("down")).thenReturn(3);
+
+        service.seed();
+        service.refresh();
+        service.refresh();
+
+        verify(suggestionIndex, times(2)).seedFromTutors(100);
+    }
+
+    @Test
+    void drainingWhileRecordingLosesNoCounts() {
+        var params = SearchRequestParams.builder().query("maths").build();
+        var recorded = 200_000;
+        var writers = List.of(
+                CompletableFuture.runAsync(() -> record(params, recorded / 2)),
+                CompletableFuture.runAsync(() -> record(params, recorded / 2)));
+
+        long drained = 0;
+        while (!writers.stream().allMatch(CompletableFuture::isDone)) {
+            drained += searchTermLog.drain().getOrDefault("maths", 0L);
+        }
+        drained += searchTermLog.drain().getOrDefault("maths", 0L);
+
+        assertThat(drained).isEqualTo(recorded);
+    }
+
+    @Test
+    void countsARequestWithoutAPage() {
+        searchTermLog.record(SearchRequestParams.builder().query("Maths ").page(null).build());
+        searchTermLog.record(SearchRequestParams.builder().query("maths").page(1).build());
+
+        assertThat(searchTermLog.drain()).containsExactly(Map.entry("maths", 1L));
+    }
+
+    private void record(SearchRequestParams params, int times) {
+        for (var i = 0; i < times; i++) {
+            searchTermLog.record(params);
+        }
+    }
+}
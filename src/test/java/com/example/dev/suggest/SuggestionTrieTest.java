@@ -0,0 +1,41 @@
+package com.example.dev.suggest;
+
+import com.example.dev.dto.Suggestion;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = new SuggestionTrie(List.of(
+            new Suggestion("Mathematics", "subject", 40),
+            new Suggestion("Mathew Jones", "name", 48),
+            new Suggestion("math tutor online", "query", 7),
+            new Suggestion("Marie Smith", "name", 45),
+            new Suggestion("Music", "subject", 12)
+    ), 3, false);
+
+    @Test
+    void returnsHeaviestMatchesForPrefix() {
+        assertThat(trie.lookup("mat", 5)).extracting(Suggestion::text)
+                .containsExactly("Mathew Jones", "Mathematics", "math tutor online");
+        assertThat(trie.lookup("Ma", 2)).extracting(Suggestion::text)
+                .containsExactly("Mathew Jones", "Marie Smith");
+    }
+
+    @Test
+    void matchesLaterWordsLikeTheCompletionInputs() {
+        assertThat(trie.lookup("smi", 5)).extracting(Suggestion::text).containsExactly("Marie Smith");
+        assertThat(trie.lookup("tutor", 5)).extracting(Suggestion::text).containsExactly("math tutor online");
+        assertThat(SuggestionIndex.inputs("math tutor online"))
+                .containsExactly("math tutor online", "tutor online", "online");
+    }
+
+    @Test
+    void unknownPrefixIsEmpty() {
+        assertThat(trie.lookup("zz", 5)).isEmpty();
+        assertThat(SuggestionTrie.EMPTY.lookup("ma", 5)).isEmpty();
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.dev.util;
+
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AvailabilitySlotsTest {
+    private static final String[] DAYS = {"Monday", "Tuesday", "Sunday"};
+    private static final String[] TIMES = {"08:00", "08:10", "08:20", "08:30", "09:00", "12:00", "12:45", "23:30", "23:50"};
+    private static final String[] REQUEST_TIMES = {null, "08:00", "08:30", "09:00", "12:00", "23:30", "08:15"};
+
+    @Test
+    void slotFilterMatchesExactlyTheTutorsTheNestedFilterMatches() {
+        var random = new Random(11);
+        int compiled = 0;
+        for (int i = 0; i < 20_000; i++) {
+            var tutor = randomTutor(random);
+            var request = randomRequest(random);
+
+            var terms = AvailabilitySlots.queryTerms(request);
+            if (terms.isEmpty()) {
+                continue;
+            }
+            compiled++;
+            var slots = new HashSet<>(AvailabilitySlots.slotsFor(tutor));
+            var slotMatch = terms.get().stream().anyMatch(slots::contains)
+                    || (slots.contains(AvailabilitySlots.INEXACT) && nestedMatches(tutor, request));
+
+            assertThat(slotMatch)
+                    .as("tutor %s, request %s", tutor.stream().map(Arrays::toString).toList(), request)
+                    .isEqualTo(nestedMatches(tutor, request));
+        }
+        assertThat(compiled).isGreaterThan(5_000);
+    }
+
+    @Test
+    void offGridRequestsFallBackToNested() {
+        assertThat(AvailabilitySlots.queryTerms(List.of(new AvailabilityRange("Monday", "08:15", "09:00")))).isEmpty();
+        assertThat(AvailabilitySlots.queryTerms(List.of(new AvailabilityRange("Monday", "10:00", "09:00")))).isEmpty();
+        assertThat(AvailabilitySlots.queryTerms(List.of(new AvailabilityRange("Monday", "08:00", "09:00"))))
+                .hasValue(List.of("monday@0800", "monday@0830", "monday@0900"));
+    }
+
+    /**
+     * Reference semantics of {@link ElasticSearchUtil#buildAvailabilityQuery}: some entry matches every condition
+     * of some range.
+     */
+    private static boolean nestedMatches(List<String[]> tutor, List<AvailabilityRange> request) {
+        for (var range : request) {
+            var conditions = 0;
+            conditions += range.day() != null ? 1 : 0;
+            conditions += range.startTime() != null ? 1 : 0;
+            conditions += range.endTime() != null ? 1 : 0;
+            if (conditions == 0) {
+                continue;
+            }
+            for (var entry : tutor) {
+                var dayOk = range.day() == null || range.day().equalsIgnoreCase(entry[0]);
+                var startOk = range.startTime() == null
+                        || (entry[2] != null && !time(entry[2]).isBefore(time(range.startTime())));
+                var endOk = range.endTime() == null
+                        || (entry[1] != null && !time(entry[1]).isAfter(time(range.endTime())));
+                if (dayOk && startOk && endOk) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static LocalTime time(String value) {
+        return LocalTime.parse(value);
+    }
+
+    private static List<String[]> randomTutor(Random random) {
+        var entries = new ArrayList<String[]>();
+        for (int i = random.nextInt(3) + 1; i > 0; i--) {
+            var start = random.nextInt(10) == 0 ? null : TIMES[random.nextInt(TIMES.length)];
+            var end = random.nextInt(10) == 0 ? null : TIMES[random.nextInt(TIMES.length)];
+            entries.add(new String[]{DAYS[random.nextInt(DAYS.length)], start, end});
+        }
+        return entries;
+    }
+
+    private static List<AvailabilityRange> randomRequest(Random random) {
+        var ranges = new ArrayList<AvailabilityRange>();
+        for (int i = random.nextInt(2) + 1; i > 0; i--) {
+            var day = random.nextInt(4) == 0 ? null : DAYS[random.nextInt(DAYS.length)];
+            ranges.add(new AvailabilityRange(day, REQUEST_TIMES[random.nextInt(REQUEST_TIMES.length)],
+                    REQUEST_TIMES[random.nextInt(REQUEST_TIMES.length)]));
+        }
+        return ranges;
+    }
+}
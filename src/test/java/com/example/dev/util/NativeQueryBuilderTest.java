@@ -0,0 +1,167 @@
+package com.example.dev.util;
+
+import com.example.dev.config.RankingProperties;
+import com.example.dev.constants.Constants;
+import com.example.dev.dto.SearchRequestParams;
+import com.example.dev.dto.SearchRequestParams.AvailabilityRange;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NativeQueryBuilderTest {
+
+    @Test
+    void plannedQueryMatchesRuleWalk() {
+        var requests = List.of(
+                SearchRequestParams.builder().build(),
+                SearchRequestParams.builder().subject("Mathematics").availabilities(List.of()).build(),
+                SearchRequestParams.builder().query("algebra").subject("Mathematics").level("High School").rating(4.0)
+                        .availabilities(List.of(
+                                new AvailabilityRange("Monday", "08:00", "10:00"),
+                                new AvailabilityRange("Thursday", null, "20:00")))
+                        .page(1).size(20).build()
+        );
+
+        for (var params : requests) {
+            assertThat(NativeQueryBuilder.toSearchQuery(params).getQuery().toString())
+                    .isEqualTo(NativeQueryBuilder.toSearchQueryUncached(params).getQuery().toString());
+        }
+    }
+
+    @Test
+    void sameShapeSharesOnePlan() {
+        var first = SearchRequestParams.builder().subject("Physics").level("Undergraduate").build();
+        var second = SearchRequestParams.builder().subject("Mathematics").level("High School").page(2).build();
+
+        assertThat(QueryPlan.forParams(first)).isSameAs(QueryPlan.forParams(second));
+        assertThat(QueryShape.of(first).label()).isEqualTo("subject+level");
+    }
+
+    @Test
+    void availabilityRangeCountDoesNotSplitPlans() {
+        var one = SearchRequestParams.builder().subject("Physics")
+                .availabilities(List.of(new AvailabilityRange("MONDAY", "09:00", "10:00"))).build();
+        var two = SearchRequestParams.builder().subject("Physics")
+                .availabilities(List.of(
+                        new AvailabilityRange("MONDAY", "09:00", "10:00"),
+                        new AvailabilityRange("FRIDAY", "14:00", "16:00")))
+                .build();
+
+        assertThat(QueryPlan.forParams(one)).isSameAs(QueryPlan.forParams(two));
+    }
+
+    @Test
+    void termQueriesForUserValuesAreEvictedLeastRecentlyUsedFirst() {
+        var kept = ElasticSearchUtil.cachedTermQuery(Constants.Tutor.SUBJECT, "lru-kept");
+        ElasticSearchUtil.cachedTermQuery(Constants.Tutor.SUBJECT, "lru-dropped");
+        for (int i = 0; i < ElasticSearchUtil.TERM_QUERY_CACHE_LIMIT; i++) {
+            ElasticSearchUtil.cachedTermQuery(Constants.Tutor.SUBJECT, "lru-" + i);
+            if (i % 100 == 0) {
+                ElasticSearchUtil.cachedTermQuery(Constants.Tutor.SUBJECT, "lru-kept");
+            }
+        }
+
+        assertThat(ElasticSearchUtil.cachedTermQuery(Constants.Tutor.SUBJECT, "lru-kept")).isSameAs(kept);
+        assertThat(ElasticSearchUtil.isTermQueryCached(Constants.Tutor.SUBJECT, "lru-dropped")).isFalse();
+    }
+
+    @Test
+    void blankAvailabilitiesDoNotAddAFilter() {
+        var params = SearchRequestParams.builder().subject("Physics")
+                .availabilities(List.of(new AvailabilityRange(" ", null, ""))).build();
+
+        assertThat(QueryShape.of(params).label()).isEqualTo("subject");
+    }
+
+    @Test
+    void facetsIgnoreTheirOwnFilter() {
+        var params = SearchRequestParams.builder().subject("Physics").level("Undergraduate").facets(true).build();
+        var plan = QueryPlan.forParams(params);
+        var query = NativeQueryBuilder.toFacetedSearchQuery(plan, params, 10000, Set.of());
+
+        assertThat(query.getQuery().toString()).contains("match_all").doesNotContain("Physics");
+        assertThat(query.getFilter().toString()).contains("Physics", "Undergraduate");
+        var subjectFilter = query.getAggregations().get(Facets.SUBJECT_FACET).filter().toString();
+        assertThat(subjectFilter).contains("Undergraduate").doesNotContain("Physics");
+        assertThat(query.getAggregations().get(Facets.RATING_FACET).filter().toString())
+                .contains("Physics", "Undergraduate");
+    }
+
+    @Test
+    void onlyFacetsWithoutOtherConstraintsAreBase() {
+        var subjectOnly = QueryPlan.forParams(SearchRequestParams.builder().subject("Physics").build());
+        var withQuery = QueryPlan.forParams(SearchRequestParams.builder().query("newton").subject("Physics").build());
+
+        assertThat(Facets.FACETS).filteredOn(facet -> Facets.isBase(subjectOnly, facet))
+                .extracting(Facets.Facet::name).containsExactly(Facets.SUBJECT_FACET);
+        assertThat(Facets.FACETS).noneMatch(facet -> Facets.isBase(withQuery, facet));
+    }
+
+    @Test
+    void cardViewFiltersSourceAndHighlightsDescription() {
+        var full = SearchRequestParams.builder().query("algebra").subject("Mathematics").build();
+        var card = SearchRequestParams.builder().query("algebra").subject("Mathematics").view("card").build();
+
+        assertThat(NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(full), full, 10000).getSourceFilter()).isNull();
+        var query = NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(card), card, 10000);
+        assertThat(query.getSourceFilter().getIncludes()).doesNotContain("description", "availability");
+        assertThat(query.getHighlightQuery()).contains(NativeQueryBuilder.CARD_HIGHLIGHT);
+    }
+
+    @Test
+    void multisearchBodyRunsTheSameSearch() {
+        var params = SearchRequestParams.builder().query("algebra").subject("Mathematics").rating(4.0).page(2)
+                .size(20).view("card").build();
+        var plan = QueryPlan.forParams(params);
+        var body = NativeQueryBuilder.toMultisearchBody(plan, params, 10000);
+
+        assertThat(body.query().toString())
+                .isEqualTo(NativeQueryBuilder.toSearchQuery(plan, params, 10000).getQuery().toString());
+        assertThat(body.from()).isEqualTo(40);
+        assertThat(body.size()).isEqualTo(20);
+        assertThat(body.source().filter().includes()).isEqualTo(NativeQueryBuilder.CARD_FIELDS);
+        assertThat(body.highlight().fields()).containsKey("description");
+    }
+
+    @Test
+    void onlyTextSearchesAreRescored() {
+        var ranking = new RankingProperties(true, 50, 1f, 1f, 1f, 1f, "", 0f);
+        var text = SearchRequestParams.builder().query("algebra").subject("Mathematics").build();
+        var filtersOnly = SearchRequestParams.builder().subject("Mathematics").rating(4.0).build();
+
+        var rescorers = NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(text), text, 10000, ranking)
+                .getRescorerQueries();
+        assertThat(rescorers).singleElement().satisfies(rescorer -> {
+            assertThat(rescorer.getWindowSize()).isEqualTo(50);
+            assertThat(((NativeQuery) rescorer.getQuery()).getQuery().toString())
+                    .contains("function_score", "rating", "name^3.0");
+        });
+        assertThat(NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(filtersOnly), filtersOnly, 10000, ranking)
+                .getRescorerQueries()).isEmpty();
+        assertThat(NativeQueryBuilder.toMultisearchBody(QueryPlan.forParams(text), text, 10000, ranking).rescore())
+                .hasSize(1);
+    }
+
+    @Test
+    void boostsAndSlotsIgnoreACommaDecimalLocale() {
+        var ranking = new RankingProperties(true, 50, 1f, 1f, 1f, 1f, "", 0f);
+        var text = SearchRequestParams.builder().query("algebra").build();
+        var defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.GERMANY);
+        try {
+            assertThat(QueryRules.boostField("name", 3.0f)).isEqualTo("name^3.000000");
+            var rescore = ((NativeQuery) NativeQueryBuilder.toSearchQuery(QueryPlan.forParams(text), text, 10000,
+                    ranking).getRescorerQueries().get(0).getQuery()).getQuery().toString();
+            assertThat(rescore).contains("name^3.000000").doesNotContain("^3,");
+            assertThat(AvailabilitySlots.slotsFor(List.<String[]>of(new String[]{"Monday", "08:00", "08:30"})))
+                    .contains("monday@0800", "monday@0830");
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+}